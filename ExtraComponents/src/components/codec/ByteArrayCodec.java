@@ -0,0 +1,39 @@
+package components.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@code Codec} for {@code byte[]} values, each encoded as its own bytes.
+ *
+ * @author Zach Baruch
+ */
+public final class ByteArrayCodec implements Codec<byte[]> {
+
+    /**
+     * No-argument constructor.
+     */
+    public ByteArrayCodec() {
+    }
+
+    @Override
+    public int length(byte[] x) {
+        assert x != null : "Violation of: x is not null";
+        return x.length;
+    }
+
+    @Override
+    public void encode(byte[] x, ByteBuffer out) {
+        assert x != null : "Violation of: x is not null";
+        assert out != null : "Violation of: out is not null";
+        out.put(x);
+    }
+
+    @Override
+    public byte[] decode(ByteBuffer in) {
+        assert in != null : "Violation of: in is not null";
+        byte[] x = new byte[in.remaining()];
+        in.get(x);
+        return x;
+    }
+
+}
@@ -0,0 +1,57 @@
+package components.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Conversion between values of type {@code T} and their encoding as a
+ * sequence of bytes, for components that store their entries outside the
+ * Java heap (in files or direct buffers).
+ *
+ * @param <T>
+ *            type of values encoded
+ *
+ * @author Zach Baruch
+ */
+public interface Codec<T> {
+
+    /**
+     * Reports the number of bytes in the encoding of {@code x}.
+     *
+     * @param x
+     *            the value to be encoded
+     * @return the length of the encoding of {@code x}
+     * @ensures length = |[encoding of x]|
+     */
+    int length(T x);
+
+    /**
+     * Writes the encoding of {@code x} to {@code out}, starting at its
+     * position, and advances the position past it.
+     *
+     * @param x
+     *            the value to be encoded
+     * @param out
+     *            the buffer to write to
+     * @updates out
+     * @requires out.remaining() >= length(x)
+     * @ensures <pre>
+     * [the length(x) bytes of out starting at #out.position are the encoding
+     *  of x]  and  out.position = #out.position + length(x)
+     * </pre>
+     */
+    void encode(T x, ByteBuffer out);
+
+    /**
+     * Reads a value from the remaining bytes of {@code in}, which hold
+     * exactly its encoding.
+     *
+     * @param in
+     *            the buffer to read from
+     * @return the value encoded by the remaining bytes of {@code in}
+     * @updates in.position
+     * @requires [the remaining bytes of in are the encoding of some value]
+     * @ensures [the remaining bytes of #in are the encoding of decode]
+     */
+    T decode(ByteBuffer in);
+
+}
@@ -0,0 +1,37 @@
+package components.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@code RecordCodec} for {@code Long} values, each encoded in 8 bytes in the
+ * byte order of the buffer.
+ *
+ * @author Zach Baruch
+ */
+public final class LongCodec implements RecordCodec<Long> {
+
+    /**
+     * No-argument constructor.
+     */
+    public LongCodec() {
+    }
+
+    @Override
+    public int recordSize() {
+        return Long.BYTES;
+    }
+
+    @Override
+    public void encode(Long x, ByteBuffer out) {
+        assert x != null : "Violation of: x is not null";
+        assert out != null : "Violation of: out is not null";
+        out.putLong(x);
+    }
+
+    @Override
+    public Long decode(ByteBuffer in) {
+        assert in != null : "Violation of: in is not null";
+        return in.getLong();
+    }
+
+}
@@ -0,0 +1,36 @@
+package components.codec;
+
+/**
+ * {@code Codec} whose encodings all have the same length, so that values can
+ * be stored in fixed-size records addressed by position.
+ *
+ * @param <T>
+ *            type of values encoded
+ *
+ * @author Zach Baruch
+ */
+public interface RecordCodec<T> extends Codec<T> {
+
+    /**
+     * Reports the number of bytes in the encoding of every value.
+     *
+     * @return the length of every encoding
+     * @ensures recordSize > 0  and
+     *          [for every value x, |[encoding of x]| = recordSize]
+     */
+    int recordSize();
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Every encoding has length {@code recordSize()}.
+     * </p>
+     */
+    @Override
+    default int length(T x) {
+        assert x != null : "Violation of: x is not null";
+        return this.recordSize();
+    }
+
+}
@@ -0,0 +1,40 @@
+package components.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code Codec} for {@code String} values, each encoded in UTF-8.
+ *
+ * @author Zach Baruch
+ */
+public final class StringCodec implements Codec<String> {
+
+    /**
+     * No-argument constructor.
+     */
+    public StringCodec() {
+    }
+
+    @Override
+    public int length(String x) {
+        assert x != null : "Violation of: x is not null";
+        return x.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Override
+    public void encode(String x, ByteBuffer out) {
+        assert x != null : "Violation of: x is not null";
+        assert out != null : "Violation of: out is not null";
+        out.put(x.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String decode(ByteBuffer in) {
+        assert in != null : "Violation of: in is not null";
+        byte[] bytes = new byte[in.remaining()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,982 @@
+package components.deque;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import components.queue.Queue;
+
+/**
+ * Bounded, thread-safe {@code Deque} represented as a {@code Deque5} guarded by
+ * a {@code ReentrantLock}, with implementations of primary methods and blocking
+ * and timed variants of them.
+ *
+ * <p>
+ * Every method holds the lock for its whole duration, so each one is atomic.
+ * Waiting threads block on {@code Condition}s of the lock rather than on a
+ * monitor, so a virtual thread that blocks in {@code putFront},
+ * {@code takeBack}, etc. unmounts from its carrier thread instead of pinning
+ * it.
+ * </p>
+ *
+ * <p>
+ * {@code iterator} reports a snapshot of {@code this} taken when it is called,
+ * and so does {@code spliterator}, which is {@code CONCURRENT} rather than
+ * {@code SIZED}. No method holds the lock of {@code this} while it calls a
+ * method of another {@code Deque} or a {@code Queue}, except
+ * {@code transferFrom}, which takes the two locks in a fixed order; so two
+ * {@code BlockingDeque}s moving entries to each other cannot deadlock. Methods
+ * that move entries to or from another {@code Deque} do so through a local
+ * {@code Deque5}, so they are atomic with respect to {@code this} but not to
+ * the other {@code Deque}.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code Deque} entries
+ * @convention <pre>
+ * $this.capacity > 0  and
+ * |$this.rep| <= $this.capacity
+ * </pre>
+ * @correspondence <pre>
+ * this = $this.rep
+ * </pre>
+ */
+public class BlockingDeque<T> extends DequeSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Lock taken before both locks by {@code transferFrom} in the rare case
+     * that the two {@code BlockingDeque}s have the same identity hash code.
+     */
+    private static final ReentrantLock TIE_LOCK = new ReentrantLock();
+
+    /**
+     * Lock guarding all access to {@code rep}.
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * Signaled when an entry is added.
+     */
+    private final Condition notEmpty;
+
+    /**
+     * Signaled when an entry is removed.
+     */
+    private final Condition notFull;
+
+    /**
+     * Maximum number of entries; written only under {@code lock}, by
+     * {@code transferFrom}, but read without it by {@code capacity}.
+     */
+    private volatile int capacity;
+
+    /**
+     * Entries of {@code this}.
+     */
+    private Deque<T> rep;
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param cap
+     *            maximum number of entries
+     */
+    private void createNewRep(int cap) {
+        this.capacity = cap;
+        this.rep = new Deque5<T>();
+    }
+
+    /**
+     * Adds {@code x} at the given end of {@code rep} and wakes a waiting
+     * taker.
+     *
+     * @param x
+     *            the entry to be added
+     * @param atFront
+     *            whether to add at the front (rather than the back)
+     * @updates this
+     * @requires [lock is held by the current thread]  and  |this| < capacity
+     * @ensures <pre>
+     * if atFront then  this = {@literal <x>} * #this
+     * else  this = #this * {@literal <x>}
+     * </pre>
+     */
+    private void insert(T x, boolean atFront) {
+        if (atFront) {
+            this.rep.pushFront(x);
+        } else {
+            this.rep.pushBack(x);
+        }
+        this.notEmpty.signal();
+    }
+
+    /**
+     * Removes the entry at the given end of {@code rep} and wakes a waiting
+     * putter.
+     *
+     * @param atFront
+     *            whether to remove from the front (rather than the back)
+     * @return the entry removed
+     * @updates this
+     * @requires [lock is held by the current thread]  and  this /= <>
+     * @ensures <pre>
+     * if atFront then  #this = {@literal <extract>} * this
+     * else  #this = this * {@literal <extract>}
+     * </pre>
+     */
+    private T extract(boolean atFront) {
+        T x;
+        if (atFront) {
+            x = this.rep.popFront();
+        } else {
+            x = this.rep.popBack();
+        }
+        this.notFull.signal();
+        return x;
+    }
+
+    /**
+     * Waits until there is room in {@code this}, then adds {@code x} at the
+     * given end.
+     *
+     * @param x
+     *            the entry to be added
+     * @param atFront
+     *            whether to add at the front (rather than the back)
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     */
+    private void put(T x, boolean atFront) throws InterruptedException {
+        assert x != null : "Violation of: x is not null";
+
+        this.lock.lockInterruptibly();
+        try {
+            while (this.rep.length() == this.capacity) {
+                this.notFull.await();
+            }
+            this.insert(x, atFront);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until {@code this} is not empty, then removes and returns the
+     * entry at the given end.
+     *
+     * @param atFront
+     *            whether to remove from the front (rather than the back)
+     * @return the entry removed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     */
+    private T take(boolean atFront) throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            while (this.rep.length() == 0) {
+                this.notEmpty.await();
+            }
+            return this.extract(atFront);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to the given time for room in {@code this}, then adds {@code x}
+     * at the given end if there is room.
+     *
+     * @param x
+     *            the entry to be added
+     * @param atFront
+     *            whether to add at the front (rather than the back)
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            unit of {@code timeout}
+     * @return whether {@code x} was added
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     */
+    private boolean offer(T x, boolean atFront, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        assert x != null : "Violation of: x is not null";
+        assert unit != null : "Violation of: unit is not null";
+
+        long nanos = unit.toNanos(timeout);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.rep.length() == this.capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = this.notFull.awaitNanos(nanos);
+            }
+            this.insert(x, atFront);
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to the given time for {@code this} to be non-empty, then
+     * removes and returns the entry at the given end if there is one.
+     *
+     * @param atFront
+     *            whether to remove from the front (rather than the back)
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            unit of {@code timeout}
+     * @return the entry removed, or {@code null} if none became available
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     */
+    private T poll(boolean atFront, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        assert unit != null : "Violation of: unit is not null";
+
+        long nanos = unit.toNanos(timeout);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.rep.length() == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = this.notEmpty.awaitNanos(nanos);
+            }
+            return this.extract(atFront);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from capacity.
+     *
+     * @param capacity
+     *            maximum number of entries
+     */
+    public BlockingDeque(int capacity) {
+        assert capacity > 0 : "Violation of: capacity > 0";
+
+        this.lock = new ReentrantLock();
+        this.notEmpty = this.lock.newCondition();
+        this.notFull = this.lock.newCondition();
+        this.createNewRep(capacity);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.lock.lock();
+        try {
+            this.createNewRep(this.capacity);
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Deque<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.capacity);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(Deque<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof BlockingDeque<?> : ""
+                + "Violation of: source is of dynamic type BlockingDeque<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * BlockingDeque<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        BlockingDeque<T> localSource = (BlockingDeque<T>) source;
+        //Lock in identity hash code order, so no two threads wait on each other
+        int thisHash = System.identityHashCode(this);
+        int sourceHash = System.identityHashCode(localSource);
+        ReentrantLock first = this.lock;
+        ReentrantLock second = localSource.lock;
+        if (thisHash > sourceHash) {
+            first = localSource.lock;
+            second = this.lock;
+        }
+        boolean tie = thisHash == sourceHash;
+        if (tie) {
+            TIE_LOCK.lock();
+        }
+        try {
+            first.lock();
+            try {
+                second.lock();
+                try {
+                    this.capacity = localSource.capacity;
+                    this.rep = localSource.rep;
+                    localSource.createNewRep(localSource.capacity);
+                    if (this.rep.length() > 0) {
+                        this.notEmpty.signalAll();
+                    }
+                    //The capacity of this may have grown
+                    this.notFull.signalAll();
+                    localSource.notFull.signalAll();
+                } finally {
+                    second.unlock();
+                }
+            } finally {
+                first.unlock();
+            }
+        } finally {
+            if (tie) {
+                TIE_LOCK.unlock();
+            }
+        }
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final int length() {
+        this.lock.lock();
+        try {
+            return this.rep.length();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires |this| < this.capacity
+     */
+    @Override
+    public final void pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.lock.lock();
+        try {
+            assert this.rep.length() < this.capacity : ""
+                    + "Violation of: |this| < this.capacity";
+            this.insert(x, true);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires |this| < this.capacity
+     */
+    @Override
+    public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.lock.lock();
+        try {
+            assert this.rep.length() < this.capacity : ""
+                    + "Violation of: |this| < this.capacity";
+            this.insert(x, false);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final T popFront() {
+        this.lock.lock();
+        try {
+            assert this.rep.length() > 0 : "Violation of: this /= <>";
+            return this.extract(true);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final T popBack() {
+        this.lock.lock();
+        try {
+            assert this.rep.length() > 0 : "Violation of: this /= <>";
+            return this.extract(false);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new BlockingDequeIterator();
+    }
+
+    @Override
+    public final Spliterator<T> spliterator() {
+        //Not SIZED, since length() may change before the snapshot is taken
+        return Spliterators.spliteratorUnknownSize(this.iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL
+                        | Spliterator.CONCURRENT);
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code BlockingDeque};
+     * reports a snapshot of the entries taken under the lock.
+     */
+    private final class BlockingDequeIterator implements Iterator<T> {
+
+        /**
+         * Snapshot of the entries.
+         */
+        private final Object[] snapshot;
+
+        /**
+         * Position of the next entry to be returned.
+         */
+        private int position;
+
+        /**
+         * No-argument constructor.
+         */
+        private BlockingDequeIterator() {
+            BlockingDeque.this.lock.lock();
+            try {
+                this.snapshot = new Object[BlockingDeque.this.rep.length()];
+                int i = 0;
+                for (T x : BlockingDeque.this.rep) {
+                    this.snapshot[i] = x;
+                    i++;
+                }
+            } finally {
+                BlockingDeque.this.lock.unlock();
+            }
+            this.position = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < this.snapshot.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = (T) this.snapshot[this.position];
+            this.position++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+    /*
+     * Blocking and timed methods ---------------------------------------------
+     */
+
+    /**
+     * Reports the maximum number of entries {@code this} can hold.
+     *
+     * @return the capacity of {@code this}
+     */
+    public final int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Adds {@code x} to the front of {@code this}, waiting for room if
+     * necessary.
+     *
+     * @param x
+     *            the entry to be added
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @aliases reference x
+     * @updates this
+     * @ensures this = {@literal <x>} * #this
+     */
+    public final void putFront(T x) throws InterruptedException {
+        this.put(x, true);
+    }
+
+    /**
+     * Adds {@code x} to the back of {@code this}, waiting for room if
+     * necessary.
+     *
+     * @param x
+     *            the entry to be added
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @aliases reference x
+     * @updates this
+     * @ensures this = #this * {@literal <x>}
+     */
+    public final void putBack(T x) throws InterruptedException {
+        this.put(x, false);
+    }
+
+    /**
+     * Removes and returns the front of {@code this}, waiting for an entry if
+     * necessary.
+     *
+     * @return the entry removed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     * @ensures #this = {@literal <takeFront>} * this
+     */
+    public final T takeFront() throws InterruptedException {
+        return this.take(true);
+    }
+
+    /**
+     * Removes and returns the back of {@code this}, waiting for an entry if
+     * necessary.
+     *
+     * @return the entry removed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     * @ensures #this = this * {@literal <takeBack>}
+     */
+    public final T takeBack() throws InterruptedException {
+        return this.take(false);
+    }
+
+    /**
+     * Adds {@code x} to the front of {@code this}, waiting up to the given time
+     * for room if necessary.
+     *
+     * @param x
+     *            the entry to be added
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            unit of {@code timeout}
+     * @return whether {@code x} was added
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @aliases reference x
+     * @updates this
+     * @ensures <pre>
+     * if offerFront then  this = {@literal <x>} * #this
+     * else  this = #this
+     * </pre>
+     */
+    public final boolean offerFront(T x, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return this.offer(x, true, timeout, unit);
+    }
+
+    /**
+     * Adds {@code x} to the back of {@code this}, waiting up to the given time
+     * for room if necessary.
+     *
+     * @param x
+     *            the entry to be added
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            unit of {@code timeout}
+     * @return whether {@code x} was added
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @aliases reference x
+     * @updates this
+     * @ensures <pre>
+     * if offerBack then  this = #this * {@literal <x>}
+     * else  this = #this
+     * </pre>
+     */
+    public final boolean offerBack(T x, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return this.offer(x, false, timeout, unit);
+    }
+
+    /**
+     * Removes and returns the front of {@code this}, waiting up to the given
+     * time for an entry if necessary.
+     *
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            unit of {@code timeout}
+     * @return the entry removed, or {@code null} if none became available
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     * @ensures <pre>
+     * if pollFront = null then  this = #this
+     * else  #this = {@literal <pollFront>} * this
+     * </pre>
+     */
+    public final T pollFront(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return this.poll(true, timeout, unit);
+    }
+
+    /**
+     * Removes and returns the back of {@code this}, waiting up to the given
+     * time for an entry if necessary.
+     *
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            unit of {@code timeout}
+     * @return the entry removed, or {@code null} if none became available
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     * @ensures <pre>
+     * if pollBack = null then  this = #this
+     * else  #this = this * {@literal <pollBack>}
+     * </pre>
+     */
+    public final T pollBack(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return this.poll(false, timeout, unit);
+    }
+
+    /**
+     * Moves up to {@code max} entries from the front of {@code this} to the
+     * back of {@code into}, without waiting. The entries are removed under a
+     * single acquisition of the lock and added to {@code into} after it is
+     * released.
+     *
+     * @param into
+     *            the {@code Deque} to move entries to
+     * @param max
+     *            maximum number of entries to move
+     * @return the number of entries moved
+     * @updates this, into
+     * @requires into /= this  and  max >= 0
+     * @ensures <pre>
+     * drainTo = min(max, |#this|)  and
+     * #this = #this[0, drainTo) * this  and
+     * into = #into * #this[0, drainTo)
+     * </pre>
+     */
+    public final int drainTo(Deque<T> into, int max) {
+        assert into != null : "Violation of: into is not null";
+        assert into != this : "Violation of: into is not this";
+        assert max >= 0 : "Violation of: max >= 0";
+
+        Deque<T> moved = new Deque5<T>();
+        this.lock.lock();
+        try {
+            int n = Math.min(max, this.rep.length());
+            if (n > 0) {
+                this.rep.popFront(n, moved);
+                this.notFull.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        int n = moved.length();
+        into.append(moved);
+        return n;
+    }
+
+    /*
+     * Other methods (overridden for atomicity) -------------------------------
+     */
+
+    @Override
+    public final void flip() {
+        this.lock.lock();
+        try {
+            this.rep.flip();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires |this| + |entries| <= this.capacity
+     */
+    @Override
+    public final void pushAllBack(Iterable<T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+        assert entries != this : "Violation of: entries is not this";
+
+        //Copied before locking, as iterating entries may take another lock
+        Deque<T> moved = new Deque5<T>();
+        moved.pushAllBack(entries);
+        this.lock.lock();
+        try {
+            assert this.rep.length() + moved.length() <= this.capacity : ""
+                    + "Violation of: |this| + |entries| <= this.capacity";
+            if (moved.length() > 0) {
+                this.rep.append(moved);
+                this.notEmpty.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires |this| + |entries| <= this.capacity
+     */
+    @Override
+    public final void pushAllFront(Iterable<T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+        assert entries != this : "Violation of: entries is not this";
+
+        //Copied before locking, as iterating entries may take another lock
+        Deque<T> moved = new Deque5<T>();
+        moved.pushAllBack(entries);
+        this.lock.lock();
+        try {
+            assert this.rep.length() + moved.length() <= this.capacity : ""
+                    + "Violation of: |this| + |entries| <= this.capacity";
+            if (moved.length() > 0) {
+                this.rep.pushAllFront(moved);
+                this.notEmpty.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final void popFront(int n, Deque<T> into) {
+        assert into != null : "Violation of: into is not null";
+        assert into != this : "Violation of: into is not this";
+        assert 0 <= n : "Violation of: 0 <= n";
+
+        Deque<T> moved = new Deque5<T>();
+        this.lock.lock();
+        try {
+            assert n <= this.rep.length() : "Violation of: n <= |this|";
+            if (n > 0) {
+                this.rep.popFront(n, moved);
+                this.notFull.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        into.append(moved);
+    }
+
+    @Override
+    public final void popBack(int n, Deque<T> into) {
+        assert into != null : "Violation of: into is not null";
+        assert into != this : "Violation of: into is not this";
+        assert 0 <= n : "Violation of: 0 <= n";
+
+        Deque<T> moved = new Deque5<T>();
+        this.lock.lock();
+        try {
+            assert n <= this.rep.length() : "Violation of: n <= |this|";
+            if (n > 0) {
+                this.rep.popBack(n, moved);
+                this.notFull.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        into.pushAllFront(moved);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires |this| + |other| <= this.capacity
+     */
+    @Override
+    public final void append(Deque<T> other) {
+        assert other != null : "Violation of: other is not null";
+        assert other != this : "Violation of: other is not this";
+
+        //Emptied before locking, as other may be guarded by a lock of its own
+        Deque<T> moved = new Deque5<T>();
+        moved.append(other);
+        this.lock.lock();
+        try {
+            assert this.rep.length() + moved.length() <= this.capacity : ""
+                    + "Violation of: |this| + |other| <= this.capacity";
+            if (moved.length() > 0) {
+                this.rep.append(moved);
+                this.notEmpty.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final Deque<T> splitAt(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+
+        /*
+         * The suffix is not yet visible to any other thread, so its lock need
+         * not be held
+         */
+        BlockingDeque<T> suffix = (BlockingDeque<T>) this.newInstance();
+        this.lock.lock();
+        try {
+            assert k <= this.rep.length() : "Violation of: k <= |this|";
+            if (k < this.rep.length()) {
+                this.rep.popBack(this.rep.length() - k, suffix.rep);
+                this.notFull.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return suffix;
+    }
+
+    @Override
+    public final T entry(int i) {
+        assert 0 <= i : "Violation of: 0 <= i";
+
+        this.lock.lock();
+        try {
+            assert i < this.rep.length() : "Violation of: i < |this|";
+            return this.rep.entry(i);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final T replaceEntry(int i, T x) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert x != null : "Violation of: x is not null";
+
+        this.lock.lock();
+        try {
+            assert i < this.rep.length() : "Violation of: i < |this|";
+            return this.rep.replaceEntry(i, x);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final void rotate(int k) {
+        this.lock.lock();
+        try {
+            this.rep.rotate(k);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final void drainTo(Queue<T> q) {
+        assert q != null : "Violation of: q is not null";
+
+        //Take the entries under the lock, but enqueue them after releasing it
+        Deque<T> moved = new Deque5<T>();
+        this.lock.lock();
+        try {
+            if (this.rep.length() > 0) {
+                this.rep.popFront(this.rep.length(), moved);
+                this.notFull.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        moved.drainTo(q);
+    }
+
+    @Override
+    public final T front() {
+        this.lock.lock();
+        try {
+            assert this.rep.length() > 0 : "Violation of: this /= <>";
+            return this.rep.front();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final T back() {
+        this.lock.lock();
+        try {
+            assert this.rep.length() > 0 : "Violation of: this /= <>";
+            return this.rep.back();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final T replaceFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.lock.lock();
+        try {
+            assert this.rep.length() > 0 : "Violation of: this /= <>";
+            return this.rep.replaceFront(x);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public final T replaceBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.lock.lock();
+        try {
+            assert this.rep.length() > 0 : "Violation of: this /= <>";
+            return this.rep.replaceBack(x);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,342 @@
+package components.deque;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe {@code Deque} represented as a
+ * {@code java.util.concurrent.ConcurrentLinkedDeque}, with implementations of
+ * primary methods.
+ *
+ * <p>
+ * The kernel methods {@code pushFront}, {@code pushBack}, {@code popFront} and
+ * {@code popBack}, as well as {@code tryPopFront}, {@code tryPopBack},
+ * {@code front} and {@code back}, are lock-free (CAS-based) and may be called
+ * concurrently from any number of threads. Since {@code this /= <>} cannot be
+ * checked and acted upon atomically, consumers that share {@code this} should
+ * use {@code tryPopFront}/{@code tryPopBack} rather than testing
+ * {@code length} first.
+ * </p>
+ *
+ * <p>
+ * {@code length} is exact whenever no operation is in progress and otherwise
+ * approximate. Iterators are weakly consistent: they never throw
+ * {@code ConcurrentModificationException} and report entries as they were at
+ * some point at or after the iterator was created, and so are spliterators,
+ * which are {@code CONCURRENT} rather than {@code SIZED} since {@code length}
+ * may change while they are in use. {@code clear} is safe to
+ * call concurrently. {@code rotate} and {@code replaceEntry} work on the
+ * representation entry by entry, so they never lose an entry pushed by another
+ * thread meanwhile, but they are not atomic either.
+ * </p>
+ *
+ * <p>
+ * Every other method is not atomic and should only be used while no other
+ * thread is accessing {@code this} (or the other {@code Deque} involved):
+ * {@code transferFrom}, {@code flip}, {@code replaceFront},
+ * {@code replaceBack}, {@code entry}, {@code splitAt}, {@code append},
+ * {@code pushAllFront}, {@code pushAllBack}, {@code popFront(n, into)},
+ * {@code popBack(n, into)}, {@code drainTo}, {@code equals},
+ * {@code hashCode}, {@code toString} and {@code appendTo}.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code Deque} entries
+ * @convention <pre>
+ * [$this.count.sum() = |$this.rep| whenever no operation is in progress]
+ * </pre>
+ * @correspondence <pre>
+ * this = [value of $this.rep based on its iteration order]
+ * </pre>
+ */
+public class ConcurrentDeque<T> extends DequeSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Representation of {@code this}.
+     */
+    private volatile ConcurrentLinkedDeque<T> rep;
+
+    /**
+     * Number of entries in {@code rep}; a striped counter so that updating it
+     * does not become a point of contention
+     * ({@code ConcurrentLinkedDeque.size} walks the whole deque).
+     */
+    private volatile LongAdder count;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.rep = new ConcurrentLinkedDeque<T>();
+        this.count = new LongAdder();
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public ConcurrentDeque() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        //Pop entries one at a time so concurrent pushes are never lost
+        while (this.tryPopFront() != null) {
+            continue;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Deque<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(Deque<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof ConcurrentDeque<?> : ""
+                + "Violation of: source is of dynamic type ConcurrentDeque<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * ConcurrentDeque<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        ConcurrentDeque<T> localSource = (ConcurrentDeque<T>) source;
+        this.rep = localSource.rep;
+        this.count = localSource.count;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final int length() {
+        //May be transiently off while other threads are mid-operation
+        return (int) Math.max(0, this.count.sum());
+    }
+
+    @Override
+    public final void pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.rep.addFirst(x);
+        this.count.increment();
+    }
+
+    @Override
+    public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.rep.addLast(x);
+        this.count.increment();
+    }
+
+    @Override
+    public final T popFront() {
+        T front = this.tryPopFront();
+        assert front != null : "Violation of: this /= <>";
+        return front;
+    }
+
+    @Override
+    public final T popBack() {
+        T back = this.tryPopBack();
+        assert back != null : "Violation of: this /= <>";
+        return back;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new ConcurrentDequeIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code ConcurrentDeque};
+     * wraps the weakly consistent iterator of the representation so that
+     * {@code remove} is not supported.
+     */
+    private final class ConcurrentDequeIterator implements Iterator<T> {
+
+        /**
+         * Representation iterator.
+         */
+        private final Iterator<T> iterator;
+
+        /**
+         * No-argument constructor.
+         */
+        private ConcurrentDequeIterator() {
+            this.iterator = ConcurrentDeque.this.rep.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return this.iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+    @Override
+    public final Spliterator<T> spliterator() {
+        //Weakly consistent and CONCURRENT, where the inherited one is SIZED
+        return this.rep.spliterator();
+    }
+
+    /*
+     * Non-blocking "try" methods ---------------------------------------------
+     */
+
+    /**
+     * Removes and returns the front of {@code this}, if there is one.
+     *
+     * @return the entry removed, or {@code null} if {@code this} was empty
+     * @updates this
+     * @ensures <pre>
+     * if #this = <> then
+     *   this = #this  and  tryPopFront = null
+     * else
+     *   #this = {@literal <tryPopFront>} * this
+     * </pre>
+     */
+    public final T tryPopFront() {
+        T front = this.rep.pollFirst();
+        if (front != null) {
+            this.count.decrement();
+        }
+        return front;
+    }
+
+    /**
+     * Removes and returns the back of {@code this}, if there is one.
+     *
+     * @return the entry removed, or {@code null} if {@code this} was empty
+     * @updates this
+     * @ensures <pre>
+     * if #this = <> then
+     *   this = #this  and  tryPopBack = null
+     * else
+     *   #this = this * {@literal <tryPopBack>}
+     * </pre>
+     */
+    public final T tryPopBack() {
+        T back = this.rep.pollLast();
+        if (back != null) {
+            this.count.decrement();
+        }
+        return back;
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void flip() {
+        //Rebuild in reverse order, then swap in the new representation
+        ConcurrentLinkedDeque<T> reversed = new ConcurrentLinkedDeque<T>();
+        for (T x : this.rep) {
+            reversed.addFirst(x);
+        }
+        this.rep = reversed;
+    }
+
+    @Override
+    public final T front() {
+        T front = this.rep.peekFirst();
+        assert front != null : "Violation of: this /= <>";
+        return front;
+    }
+
+    @Override
+    public final T back() {
+        T back = this.rep.peekLast();
+        assert back != null : "Violation of: this /= <>";
+        return back;
+    }
+
+    /*
+     * Other methods (not swapping rep, so no concurrent push is lost) --------
+     */
+
+    @Override
+    public final T replaceEntry(int i, T x) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.length() : "Violation of: i < |this|";
+        assert x != null : "Violation of: x is not null";
+
+        //Set the first i entries aside, rather than swapping rep at the end
+        Deque<T> prefix = new Deque5<T>();
+        for (int k = 0; k < i; k++) {
+            prefix.pushBack(this.rep.pollFirst());
+        }
+        T old = this.rep.pollFirst();
+        this.rep.addFirst(x);
+        while (prefix.length() > 0) {
+            this.rep.addFirst(prefix.popBack());
+        }
+        return old;
+    }
+
+    @Override
+    public final void rotate(int k) {
+        int n = this.length();
+        if (n > 0) {
+            //Move whichever part of this is shorter, one entry at a time
+            int r = Math.floorMod(k, n);
+            if (r <= n - r) {
+                for (int j = 0; j < r; j++) {
+                    T x = this.rep.pollFirst();
+                    if (x == null) {
+                        break;
+                    }
+                    this.rep.addLast(x);
+                }
+            } else {
+                for (int j = 0; j < n - r; j++) {
+                    T x = this.rep.pollLast();
+                    if (x == null) {
+                        break;
+                    }
+                    this.rep.addFirst(x);
+                }
+            }
+        }
+    }
+
+}
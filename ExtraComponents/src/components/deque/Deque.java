@@ -1,5 +1,10 @@
 package components.deque;
 
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+import components.queue.Queue;
+
 /**
  * {@code DequeKernel} enhanced with secondary methods.
  *
@@ -76,4 +81,210 @@ public interface Deque<T> extends DequeKernel<T> {
      */
     T replaceBack(T x);
 
+    /**
+     * Adds the entries of {@code entries}, in iteration order, to the back of
+     * {@code this}.
+     *
+     * @param entries
+     *            the entries to be added
+     * @aliases references in entries
+     * @updates this
+     * @requires entries is not this
+     * @ensures this = #this * [entries of entries in iteration order]
+     */
+    void pushAllBack(Iterable<T> entries);
+
+    /**
+     * Adds the entries of {@code entries}, in iteration order, to the front of
+     * {@code this}; i.e., the first entry of {@code entries} becomes the front
+     * of {@code this}.
+     *
+     * @param entries
+     *            the entries to be added
+     * @aliases references in entries
+     * @updates this
+     * @requires entries is not this
+     * @ensures this = [entries of entries in iteration order] * #this
+     */
+    void pushAllFront(Iterable<T> entries);
+
+    /**
+     * Removes the first {@code n} entries of {@code this} and adds them, in
+     * order, to the back of {@code into}.
+     *
+     * @param n
+     *            the number of entries to move
+     * @param into
+     *            the {@code Deque} to move them to
+     * @updates this, into
+     * @requires into is not this  and  0 <= n <= |this|
+     * @ensures <pre>
+     * #this = #this[0, n) * this  and
+     * into = #into * #this[0, n)
+     * </pre>
+     */
+    void popFront(int n, Deque<T> into);
+
+    /**
+     * Removes the last {@code n} entries of {@code this} and adds them, in
+     * order, to the front of {@code into}.
+     *
+     * @param n
+     *            the number of entries to move
+     * @param into
+     *            the {@code Deque} to move them to
+     * @updates this, into
+     * @requires into is not this  and  0 <= n <= |this|
+     * @ensures <pre>
+     * #this = this * #this[|#this| - n, |#this|)  and
+     * into = #this[|#this| - n, |#this|) * #into
+     * </pre>
+     */
+    void popBack(int n, Deque<T> into);
+
+    /**
+     * Moves all entries of {@code this}, front to back, onto the end of
+     * {@code q}.
+     *
+     * @param q
+     *            the {@code Queue} to move the entries to
+     * @updates q
+     * @clears this
+     * @ensures q = #q * #this
+     */
+    void drainTo(Queue<T> q);
+
+    /**
+     * Concatenates ("appends") {@code other} to the end of {@code this}.
+     *
+     * @param other
+     *            the {@code Deque} to be appended to the end of {@code this}
+     * @updates this
+     * @clears other
+     * @requires other is not this
+     * @ensures this = #this * #other
+     */
+    void append(Deque<T> other);
+
+    /**
+     * Splits {@code this} after its first {@code k} entries and returns the
+     * rest as a new {@code Deque} of the same dynamic type.
+     *
+     * @param k
+     *            the number of entries to keep in {@code this}
+     * @return the entries after the first {@code k}
+     * @updates this
+     * @requires 0 <= k <= |this|
+     * @ensures #this = this * splitAt  and  |this| = k
+     */
+    Deque<T> splitAt(int k);
+
+    /**
+     * Reports the entry at position {@code i} of {@code this}.
+     *
+     * @param i
+     *            the position of the entry, counting from the front
+     * @return the entry at position {@code i}
+     * @aliases reference returned by {@code entry}
+     * @requires 0 <= i < |this|
+     * @ensures <pre>
+     * {@literal <entry>} = this[i, i + 1)
+     * </pre>
+     */
+    T entry(int i);
+
+    /**
+     * Replaces the entry at position {@code i} of {@code this} with {@code x}
+     * and returns the old entry.
+     *
+     * @param i
+     *            the position of the entry, counting from the front
+     * @param x
+     *            the new entry
+     * @return the old entry at position {@code i}
+     * @aliases reference {@code x}
+     * @updates this
+     * @requires 0 <= i < |this|
+     * @ensures <pre>
+     * this = #this[0, i) * {@literal <x>} * #this[i + 1, |#this|)  and
+     * {@literal <replaceEntry>} = #this[i, i + 1)
+     * </pre>
+     */
+    T replaceEntry(int i, T x);
+
+    /**
+     * Rotates {@code this} so that the entry at position {@code k mod |this|}
+     * becomes the front; i.e., moves the first {@code k} entries to the back
+     * (or, if {@code k} is negative, the last {@code -k} entries to the front).
+     *
+     * @param k
+     *            the number of positions to rotate by
+     * @updates this
+     * @ensures <pre>
+     * if #this = <> then
+     *  this = #this
+     * else
+     *  this = #this[k mod |#this|, |#this|) * #this[0, k mod |#this|)
+     * </pre>
+     */
+    void rotate(int k);
+
+    /**
+     * Returns a sequential {@code Stream} of the entries of {@code this},
+     * front to back. {@code this} must not be changed while the stream is in
+     * use.
+     *
+     * @return a sequential stream over {@code this}
+     * @ensures [stream yields the entries of this, in order]
+     */
+    Stream<T> stream();
+
+    /**
+     * Returns a possibly parallel {@code Stream} of the entries of
+     * {@code this}, front to back; it is split using {@code spliterator}.
+     * {@code this} must not be changed while the stream is in use.
+     *
+     * @return a parallel stream over {@code this}
+     * @ensures [parallelStream yields the entries of this, in order]
+     */
+    Stream<T> parallelStream();
+
+    /**
+     * Writes the string representation of {@code this}, as returned by
+     * {@code toString}, to {@code out}, without changing {@code this}.
+     *
+     * @param out
+     *            where to write
+     * @throws UncheckedIOException
+     *             if {@code out} throws an {@code IOException}
+     * @updates out
+     * @ensures out = #out * [string representation of this]
+     */
+    void appendTo(Appendable out);
+
+    /**
+     * Writes the string representation of {@code this} to {@code out}, without
+     * changing {@code this}, but with only its first {@code limit} entries,
+     * followed by {@code "...+"} and the number of entries left out; e.g.,
+     * {@code <a,b,c,...+9995>}.
+     *
+     * @param out
+     *            where to write
+     * @param limit
+     *            the most entries to write
+     * @throws UncheckedIOException
+     *             if {@code out} throws an {@code IOException}
+     * @updates out
+     * @requires limit >= 0
+     * @ensures <pre>
+     * if |this| <= limit then
+     *  out = #out * [string representation of this]
+     * else
+     *  out = #out * [string representation of this[0, limit), without the
+     *                final ">"] * [",...+" unless limit = 0, else "...+"] *
+     *        [|this| - limit] * ">"
+     * </pre>
+     */
+    void appendTo(Appendable out, int limit);
+
 }
@@ -1,6 +1,7 @@
 package components.deque;
 
 import java.util.Iterator;
+import java.util.Spliterator;
 
 import components.sequence.Sequence;
 import components.sequence.Sequence1L;
@@ -150,4 +151,35 @@ public class Deque2<T> extends DequeSecondary<T> {
         return this.entries.replaceEntry(this.entries.length() - 1, x);
     }
 
+    @Override
+    public final T entry(int i) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.length() : "Violation of: i < |this|";
+        return this.entries.entry(i);
+    }
+
+    @Override
+    public final T replaceEntry(int i, T x) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.length() : "Violation of: i < |this|";
+        assert x != null : "Violation of: x is not null";
+        return this.entries.replaceEntry(i, x);
+    }
+
+    @Override
+    public final void rotate(int k) {
+        int n = this.entries.length();
+        if (n > 0) {
+            Sequence<T> prefix = this.entries.newInstance();
+            this.entries.extract(0, Math.floorMod(k, n), prefix);
+            this.entries.append(prefix);
+        }
+    }
+
+    @Override
+    public final Spliterator<T> spliterator() {
+        //entry is O(1), so split by halving the range of positions
+        return new EntrySpliterator<T>(this, 0, this.length());
+    }
+
 }
@@ -1,6 +1,7 @@
 package components.deque;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import components.stack.Stack;
 import components.stack.Stack1L;
@@ -9,6 +10,12 @@ import components.stack.Stack1L;
  * {@code Deque} represented as a pair of {@code Stack}s, with implementations
  * of primary methods.
  *
+ * <p>
+ * Execution-time performance of all methods implemented in this class is
+ * amortized O(1); iterating over all of {@code this} takes O(|this|) time in
+ * total and does not modify the representation.
+ * </p>
+ *
  * @author Zach Baruch
  *
  * @param <T>
@@ -33,34 +40,48 @@ public class Deque3<T> extends DequeSecondary<T> {
     private Stack<T> right;
 
     /**
-     * Moves the bottom element of {@code st1} to the bottom element of
-     * {@code st2}, keeping the former fixed concatenated with the latter
-     * reverse, and resulting in length of the former decreased by one.
+     * Moves the bottom half (rounded up) of {@code from} onto {@code to}, in a
+     * single pass, keeping {@code #from} concatenated with the reverse of
+     * {@code #to} fixed. Every entry is moved at most twice, so splitting in
+     * half (rather than moving one entry at a time) makes any mix of pops at
+     * either end amortized O(1).
      *
      * @param <T>
      *            type of {@code Stack} entries
-     * @param s1
-     *            the {@code Stack} to shift an element from
-     * @param s2
-     *            the {@code Stack} to shift an element to
-     * @updates leftStack, rightStack
+     * @param from
+     *            the {@code Stack} to move entries from
+     * @param to
+     *            the {@code Stack} to move entries to
+     * @updates from, to
+     * @requires from /= <>  and  to = <>
      * @ensures <pre>
-     * s1 * rev(s2) = #s1 * rev(#s2)  and
-     * |s1| = |#s1| - 1
+     * from * rev(to) = #from * rev(#to)  and
+     * |to| = (|#from| + 1) / 2
      * </pre>
      */
-    private static <T> void shift(Stack<T> s1, Stack<T> s2) {
-        assert s1 != null : "Violation of: leftStack is not null";
-        assert s2 != null : "Violation of: rightStack is not null";
+    private static <T> void rebalance(Stack<T> from, Stack<T> to) {
+        assert from != null : "Violation of: from is not null";
+        assert to != null : "Violation of: to is not null";
+        assert from.length() > 0 : "Violation of: from /= <>";
+        assert to.length() == 0 : "Violation of: to = <>";
+
+        int moved = (from.length() + 1) / 2;
 
-        //Flip stacks, move an element from st1 to st2, flip back
-        s1.flip();
-        s2.flip();
+        //Set aside the top half, which stays on from
+        Stack<T> top = from.newInstance();
+        while (from.length() > moved) {
+            top.push(from.pop());
+        }
 
-        s2.push(s1.pop());
+        //The bottom half ends up on to in reverse order
+        while (from.length() > 0) {
+            to.push(from.pop());
+        }
 
-        s1.flip();
-        s2.flip();
+        //Restore the top half
+        while (top.length() > 0) {
+            from.push(top.pop());
+        }
     }
 
     /**
@@ -130,12 +151,16 @@ public class Deque3<T> extends DequeSecondary<T> {
 
     @Override
     public final void pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
         //Push to left stack
         this.left.push(x);
     }
 
     @Override
     public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
         //Push to right stack
         this.right.push(x);
     }
@@ -144,9 +169,9 @@ public class Deque3<T> extends DequeSecondary<T> {
     public final T popFront() {
         assert this.length() > 0 : "Violation of: this /= <>";
 
-        //Shift to left if left is currently empty
+        //Move half of right over if left is currently empty
         if (this.left.length() == 0) {
-            shift(this.right, this.left);
+            rebalance(this.right, this.left);
         }
 
         return this.left.pop();
@@ -156,9 +181,9 @@ public class Deque3<T> extends DequeSecondary<T> {
     public final T popBack() {
         assert this.length() > 0 : "Violation of: this /= <>";
 
-        //Shift to right if right is currently empty
+        //Move half of left over if right is currently empty
         if (this.right.length() == 0) {
-            shift(this.left, this.right);
+            rebalance(this.left, this.right);
         }
 
         return this.right.pop();
@@ -166,11 +191,91 @@ public class Deque3<T> extends DequeSecondary<T> {
 
     @Override
     public final Iterator<T> iterator() {
-        //Shift all elements to left and return iterator of left
-        while (this.right.length() > 0) {
-            shift(this.right, this.left);
+        return new Deque3Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Deque3}. Reports
+     * the entries of {@code left} from top to bottom, then those of
+     * {@code right} from bottom to top, without modifying either stack.
+     */
+    private final class Deque3Iterator implements Iterator<T> {
+
+        /**
+         * Iterator over {@code left}, top to bottom.
+         */
+        private final Iterator<T> leftIterator;
+
+        /**
+         * Entries of {@code right}, top to bottom; filled in once
+         * {@code leftIterator} is exhausted.
+         */
+        private Object[] rightEntries;
+
+        /**
+         * Number of entries of {@code rightEntries} not yet reported.
+         */
+        private int rightRemaining;
+
+        /**
+         * No-argument constructor.
+         */
+        private Deque3Iterator() {
+            this.leftIterator = Deque3.this.left.iterator();
+            this.rightEntries = null;
+            this.rightRemaining = Deque3.this.right.length();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.leftIterator.hasNext() || this.rightRemaining > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            if (this.leftIterator.hasNext()) {
+                return this.leftIterator.next();
+            }
+            if (this.rightEntries == null) {
+                //Snapshot right once so it can be walked bottom to top
+                this.rightEntries = new Object[this.rightRemaining];
+                int i = 0;
+                for (T x : Deque3.this.right) {
+                    this.rightEntries[i] = x;
+                    i++;
+                }
+            }
+            this.rightRemaining--;
+            return (T) this.rightEntries[this.rightRemaining];
         }
-        return this.left.iterator();
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void flip() {
+        //rev(left * rev(right)) = right * rev(left), so just swap the stacks
+        Stack<T> tmp = this.left;
+        this.left = this.right;
+        this.right = tmp;
     }
 
 }
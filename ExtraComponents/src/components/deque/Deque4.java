@@ -2,13 +2,24 @@ package components.deque;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import components.queue.Queue;
 
 /**
  * {@code Deque} represented as a doubly linked list, done "bare-handed", with
  * implementations of primary methods.
  *
  * <p>
- * Execution-time performance of all methods implemented in this class is O(1).
+ * Execution-time performance of all kernel methods implemented in this class
+ * is O(1). {@code flip} only toggles which end of the list is considered the
+ * front. The bulk {@code popFront} and {@code popBack}, and {@code splitAt},
+ * relink nodes into another {@code Deque4} of the same orientation in
+ * O(min(n, |this| - n)) time, without allocating; {@code append} of such a
+ * {@code Deque4} is O(1). {@code entry(i)} and {@code replaceEntry(i, x)} walk
+ * in from the nearer end, and {@code rotate(k)} relinks the shorter end, so
+ * they are O(min(i, |this| - i)) and O(min(k, |this| - k)).
  * </p>
  *
  * @author Zach Baruch
@@ -23,12 +34,18 @@ import java.util.NoSuchElementException;
  * [$this.preFront points to the first node of a singly linked list
  * containing $this.length + 2 nodes]  and
  * [$this.postBack points to the last node in that singly linked list]  and
- * [$this.postBack.next is null]
+ * [$this.postBack.next is null]  and
+ * [$this.preFront.previous is null]  and
+ * [$this.preFront.data is null]  and  [$this.postBack.data is null]
  * </pre>
  *
  * @correspondence <pre>
- * this = [data in nodes starting at $this.preFront.next and
- *  running through $this.postBack.previous]
+ * if $this.reversed then
+ *  this = rev([data in nodes starting at $this.preFront.next and
+ *   running through $this.postBack.previous])
+ * else
+ *  this = [data in nodes starting at $this.preFront.next and
+ *   running through $this.postBack.previous]
  * </pre>
  */
 public class Deque4<T> extends DequeSecondary<T> {
@@ -75,6 +92,12 @@ public class Deque4<T> extends DequeSecondary<T> {
      */
     private int length;
 
+    /**
+     * Whether {@code this} runs from {@code postBack} to {@code preFront}
+     * rather than from {@code preFront} to {@code postBack}.
+     */
+    private boolean reversed;
+
     /**
      * Creator of initial representation.
      */
@@ -84,6 +107,191 @@ public class Deque4<T> extends DequeSecondary<T> {
         this.preFront.next = this.postBack;
         this.postBack.previous = this.preFront;
         this.length = 0;
+        this.reversed = false;
+    }
+
+    /**
+     * Adds {@code x} to the {@code preFront} end of the linked list.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates $this.preFront, $this.length
+     */
+    private void linkFirst(T x) {
+        //Make new preFront, modify current preFront to be new first node
+        Node newPreFront = new Node();
+        this.preFront.data = x;
+
+        //Change pointers
+        newPreFront.next = this.preFront;
+        this.preFront.previous = newPreFront;
+        this.preFront = newPreFront;
+
+        this.length++;
+    }
+
+    /**
+     * Adds {@code x} to the {@code postBack} end of the linked list.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates $this.postBack, $this.length
+     */
+    private void linkLast(T x) {
+        //Make new postBack, modify current postBack to be new last node
+        Node newPostBack = new Node();
+        this.postBack.data = x;
+
+        //Change pointers
+        newPostBack.previous = this.postBack;
+        this.postBack.next = newPostBack;
+        this.postBack = newPostBack;
+
+        this.length++;
+    }
+
+    /**
+     * Removes and returns the entry at the {@code preFront} end of the linked
+     * list.
+     *
+     * @return the entry removed
+     * @updates $this.preFront, $this.length
+     * @requires $this.length > 0
+     */
+    private T unlinkFirst() {
+        //Get data of next node and make that preFront
+        Node newPreFront = this.preFront.next;
+        T popped = newPreFront.data;
+        this.preFront = newPreFront;
+
+        //Drop references so the entry and old node can be collected
+        newPreFront.data = null;
+        newPreFront.previous = null;
+
+        this.length--;
+        return popped;
+    }
+
+    /**
+     * Removes and returns the entry at the {@code postBack} end of the linked
+     * list.
+     *
+     * @return the entry removed
+     * @updates $this.postBack, $this.length
+     * @requires $this.length > 0
+     */
+    private T unlinkLast() {
+        //Get data of previous node and make that postBack
+        Node newPostBack = this.postBack.previous;
+        T popped = newPostBack.data;
+        this.postBack = newPostBack;
+
+        //Drop references so the entry and old node can be collected
+        newPostBack.data = null;
+        newPostBack.next = null;
+
+        this.length--;
+        return popped;
+    }
+
+    /**
+     * Reports the node holding the front entry of {@code this}.
+     *
+     * @return the front node
+     * @requires this /= <>
+     */
+    private Node frontNode() {
+        if (this.reversed) {
+            return this.postBack.previous;
+        }
+        return this.preFront.next;
+    }
+
+    /**
+     * Reports the node holding the back entry of {@code this}.
+     *
+     * @return the back node
+     * @requires this /= <>
+     */
+    private Node backNode() {
+        if (this.reversed) {
+            return this.preFront.next;
+        }
+        return this.postBack.previous;
+    }
+
+    /**
+     * Reports the node at position {@code i} of the linked list, counting
+     * from {@code preFront.next}, walking in from the nearer end.
+     *
+     * @param i
+     *            the position in the linked list
+     * @return the node at position {@code i}
+     * @requires 0 <= i < $this.length
+     */
+    private Node nodeAt(int i) {
+        Node p;
+        if (i < this.length / 2) {
+            p = this.preFront.next;
+            for (int k = 0; k < i; k++) {
+                p = p.next;
+            }
+        } else {
+            p = this.postBack.previous;
+            for (int k = this.length - 1; k > i; k--) {
+                p = p.previous;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Unlinks the first or last {@code n} nodes of the linked list and links
+     * them, in the same order, at the {@code preFront} or {@code postBack} end
+     * of {@code into}'s linked list. No nodes are allocated. If {@code into}
+     * is {@code this}, the nodes are moved to the other end of the list.
+     *
+     * @param n
+     *            the number of nodes to move
+     * @param fromFirst
+     *            whether to move the nodes at the {@code preFront} end
+     * @param into
+     *            the {@code Deque4} to move them to
+     * @param toLast
+     *            whether to link them at the {@code postBack} end of
+     *            {@code into}
+     * @updates $this.length, $into.length
+     * @requires 0 < n <= $this.length
+     */
+    private void splice(int n, boolean fromFirst, Deque4<T> into,
+            boolean toLast) {
+        //Find the chain [first, last] and cut it out of this list
+        Node first, last;
+        if (fromFirst) {
+            first = this.preFront.next;
+            last = this.nodeAt(n - 1);
+        } else {
+            first = this.nodeAt(this.length - n);
+            last = this.postBack.previous;
+        }
+        first.previous.next = last.next;
+        last.next.previous = first.previous;
+        this.length -= n;
+
+        //Link the chain in between two adjacent nodes of into
+        Node before, after;
+        if (toLast) {
+            after = into.postBack;
+            before = after.previous;
+        } else {
+            before = into.preFront;
+            after = before.next;
+        }
+        before.next = first;
+        first.previous = before;
+        last.next = after;
+        after.previous = last;
+        into.length += n;
     }
 
     /*
@@ -133,6 +341,7 @@ public class Deque4<T> extends DequeSecondary<T> {
         this.preFront = localsource.preFront;
         this.postBack = localsource.postBack;
         this.length = localsource.length;
+        this.reversed = localsource.reversed;
         localsource.createNewRep();
     }
 
@@ -149,58 +358,42 @@ public class Deque4<T> extends DequeSecondary<T> {
     public final void pushFront(T x) {
         assert x != null : "Violation of: x is not null";
 
-        //Make new preFront, modify current preFront to be new front
-        Node newPreFront = new Node();
-        this.preFront.data = x;
-
-        //Change pointers
-        newPreFront.next = this.preFront;
-        this.preFront.previous = newPreFront;
-        this.preFront = newPreFront;
-
-        this.length++;
+        if (this.reversed) {
+            this.linkLast(x);
+        } else {
+            this.linkFirst(x);
+        }
     }
 
     @Override
     public final void pushBack(T x) {
         assert x != null : "Violation of: x is not null";
 
-        //Make new postBack, modify current postBack to be new back
-        Node newPostBack = new Node();
-        this.postBack.data = x;
-
-        //Change pointers
-        newPostBack.previous = this.postBack;
-        this.postBack.next = newPostBack;
-        this.postBack = newPostBack;
-
-        this.length++;
+        if (this.reversed) {
+            this.linkFirst(x);
+        } else {
+            this.linkLast(x);
+        }
     }
 
     @Override
     public final T popFront() {
         assert this.length > 0 : "Violation of: this /= <>";
 
-        //Get data of next node and make that preFront
-        Node newPreFront = this.preFront.next;
-        T popped = newPreFront.data;
-        this.preFront = newPreFront;
-
-        this.length--;
-        return popped;
+        if (this.reversed) {
+            return this.unlinkLast();
+        }
+        return this.unlinkFirst();
     }
 
     @Override
     public final T popBack() {
         assert this.length > 0 : "Violation of: this /= <>";
 
-        //Get data of previous node and make that postBack
-        Node newPostBack = this.postBack.previous;
-        T popped = newPostBack.data;
-        this.postBack = newPostBack;
-
-        this.length--;
-        return popped;
+        if (this.reversed) {
+            return this.unlinkFirst();
+        }
+        return this.unlinkLast();
     }
 
     @Override
@@ -214,20 +407,38 @@ public class Deque4<T> extends DequeSecondary<T> {
     private final class Deque4Iterator implements Iterator<T> {
 
         /**
-         * Current node in the linked list.
+         * Node holding the next entry to be returned, or the sentinel at the
+         * far end if there is none.
          */
         private Node current;
 
+        /**
+         * Sentinel node at the far end of the walk.
+         */
+        private final Node end;
+
+        /**
+         * Whether the walk follows {@code previous} rather than {@code next}.
+         */
+        private final boolean backward;
+
         /**
          * No-argument constructor.
          */
         private Deque4Iterator() {
-            this.current = Deque4.this.preFront.next;
+            this.backward = Deque4.this.reversed;
+            if (this.backward) {
+                this.current = Deque4.this.postBack.previous;
+                this.end = Deque4.this.preFront;
+            } else {
+                this.current = Deque4.this.preFront.next;
+                this.end = Deque4.this.postBack;
+            }
         }
 
         @Override
         public boolean hasNext() {
-            return this.current.next != Deque4.this.postBack;
+            return this.current != this.end;
         }
 
         @Override
@@ -242,7 +453,11 @@ public class Deque4<T> extends DequeSecondary<T> {
                 throw new NoSuchElementException();
             }
             T x = this.current.data;
-            this.current = this.current.next;
+            if (this.backward) {
+                this.current = this.current.previous;
+            } else {
+                this.current = this.current.next;
+            }
             return x;
         }
 
@@ -253,4 +468,322 @@ public class Deque4<T> extends DequeSecondary<T> {
         }
     }
 
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void flip() {
+        this.reversed = !this.reversed;
+    }
+
+    @Override
+    public final void pushAllFront(Iterable<T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+        assert entries != this : "Violation of: entries is not this";
+
+        /*
+         * Link each entry just past the previous one, starting at whichever
+         * physical end is the front, so no temporary deque is needed
+         */
+        Node cursor;
+        if (this.reversed) {
+            cursor = this.postBack;
+        } else {
+            cursor = this.preFront;
+        }
+        for (T x : entries) {
+            assert x != null : "Violation of: entries has no null entries";
+            Node p = new Node();
+            p.data = x;
+            if (this.reversed) {
+                p.next = cursor;
+                p.previous = cursor.previous;
+            } else {
+                p.previous = cursor;
+                p.next = cursor.next;
+            }
+            p.previous.next = p;
+            p.next.previous = p;
+            cursor = p;
+            this.length++;
+        }
+    }
+
+    @Override
+    public final void popFront(int n, Deque<T> into) {
+        assert into != null : "Violation of: into is not null";
+        assert into != this : "Violation of: into is not this";
+        assert 0 <= n : "Violation of: 0 <= n";
+        assert n <= this.length : "Violation of: n <= |this|";
+
+        if (into instanceof Deque4<?>
+                && ((Deque4<?>) into).reversed == this.reversed) {
+            if (n > 0) {
+                this.splice(n, !this.reversed, (Deque4<T>) into,
+                        !this.reversed);
+            }
+        } else {
+            super.popFront(n, into);
+        }
+    }
+
+    @Override
+    public final void popBack(int n, Deque<T> into) {
+        assert into != null : "Violation of: into is not null";
+        assert into != this : "Violation of: into is not this";
+        assert 0 <= n : "Violation of: 0 <= n";
+        assert n <= this.length : "Violation of: n <= |this|";
+
+        if (into instanceof Deque4<?>
+                && ((Deque4<?>) into).reversed == this.reversed) {
+            if (n > 0) {
+                this.splice(n, this.reversed, (Deque4<T>) into,
+                        this.reversed);
+            }
+        } else {
+            super.popBack(n, into);
+        }
+    }
+
+    @Override
+    public final void append(Deque<T> other) {
+        assert other != null : "Violation of: other is not null";
+        assert other != this : "Violation of: other is not this";
+
+        if (other instanceof Deque4<?>) {
+            Deque4<T> localOther = (Deque4<T>) other;
+            if (this.length == 0) {
+                this.transferFrom(localOther);
+            } else if (localOther.reversed == this.reversed) {
+                /*
+                 * Relink other's whole list; when both are reversed it goes
+                 * in front of this one's, since rev(a) * rev(b) = rev(b * a)
+                 */
+                if (localOther.length > 0) {
+                    localOther.splice(localOther.length, true, this,
+                            !this.reversed);
+                }
+            } else {
+                super.append(other);
+            }
+        } else {
+            super.append(other);
+        }
+    }
+
+    @Override
+    public final Deque<T> splitAt(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k <= this.length : "Violation of: k <= |this|";
+
+        Deque4<T> suffix = (Deque4<T>) this.newInstance();
+        suffix.reversed = this.reversed;
+        if (k < this.length) {
+            this.splice(this.length - k, this.reversed, suffix,
+                    this.reversed);
+        }
+        return suffix;
+    }
+
+    @Override
+    public final T entry(int i) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.length : "Violation of: i < |this|";
+
+        if (this.reversed) {
+            return this.nodeAt(this.length - 1 - i).data;
+        }
+        return this.nodeAt(i).data;
+    }
+
+    @Override
+    public final T replaceEntry(int i, T x) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.length : "Violation of: i < |this|";
+        assert x != null : "Violation of: x is not null";
+
+        Node p;
+        if (this.reversed) {
+            p = this.nodeAt(this.length - 1 - i);
+        } else {
+            p = this.nodeAt(i);
+        }
+        T old = p.data;
+        p.data = x;
+        return old;
+    }
+
+    @Override
+    public final void rotate(int k) {
+        if (this.length > 0) {
+            int r = Math.floorMod(k, this.length);
+            if (this.reversed) {
+                //Rotating rev(s) left by r rotates s left by |s| - r
+                r = this.length - r;
+            }
+            //Relink whichever end of the list is shorter to the other end
+            if (0 < r && r <= this.length - r) {
+                this.splice(r, true, this, true);
+            } else if (r > this.length - r && r < this.length) {
+                this.splice(this.length - r, false, this, false);
+            }
+        }
+    }
+
+    @Override
+    public final void drainTo(Queue<T> q) {
+        assert q != null : "Violation of: q is not null";
+
+        for (T x : this) {
+            q.enqueue(x);
+        }
+        this.createNewRep();
+    }
+
+    @Override
+    public final T front() {
+        assert this.length > 0 : "Violation of: this /= <>";
+        return this.frontNode().data;
+    }
+
+    @Override
+    public final T back() {
+        assert this.length > 0 : "Violation of: this /= <>";
+        return this.backNode().data;
+    }
+
+    @Override
+    public final T replaceFront(T x) {
+        assert this.length > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        Node front = this.frontNode();
+        T oldFront = front.data;
+        front.data = x;
+        return oldFront;
+    }
+
+    @Override
+    public final T replaceBack(T x) {
+        assert this.length > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        Node back = this.backNode();
+        T oldBack = back.data;
+        back.data = x;
+        return oldBack;
+    }
+
+    @Override
+    public final Spliterator<T> spliterator() {
+        if (this.reversed) {
+            return new Deque4Spliterator(this.postBack.previous, this.length,
+                    true);
+        }
+        return new Deque4Spliterator(this.preFront.next, this.length, false);
+    }
+
+    /**
+     * Implementation of {@code Spliterator} interface for {@code Deque4}: a
+     * run of consecutive nodes, split by walking once to its midpoint.
+     */
+    private final class Deque4Spliterator implements Spliterator<T> {
+
+        /**
+         * Node holding the next entry to report.
+         */
+        private Node current;
+
+        /**
+         * Number of entries left to report.
+         */
+        private int remaining;
+
+        /**
+         * Whether to walk {@code previous} rather than {@code next} links.
+         */
+        private final boolean backward;
+
+        /**
+         * Constructor from first node, length of run and direction.
+         *
+         * @param first
+         *            node holding the first entry to report
+         * @param remaining
+         *            number of entries to report
+         * @param backward
+         *            whether to walk {@code previous} links
+         */
+        private Deque4Spliterator(Node first, int remaining,
+                boolean backward) {
+            this.current = first;
+            this.remaining = remaining;
+            this.backward = backward;
+        }
+
+        /**
+         * Moves {@code current} one node along the run.
+         */
+        private void advance() {
+            if (this.backward) {
+                this.current = this.current.previous;
+            } else {
+                this.current = this.current.next;
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+
+            if (this.remaining > 0) {
+                T x = this.current.data;
+                this.advance();
+                this.remaining--;
+                action.accept(x);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+
+            while (this.remaining > 0) {
+                T x = this.current.data;
+                this.advance();
+                this.remaining--;
+                action.accept(x);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int half = this.remaining / 2;
+            if (half == 0) {
+                return null;
+            }
+            Spliterator<T> prefix = new Deque4Spliterator(this.current, half,
+                    this.backward);
+            for (int i = 0; i < half; i++) {
+                this.advance();
+            }
+            this.remaining -= half;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                    | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
+
 }
@@ -0,0 +1,582 @@
+package components.deque;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code Deque} represented as an unrolled doubly linked list, i.e., a doubly
+ * linked list of fixed-size blocks of entries, done "bare-handed", with
+ * implementations of primary methods.
+ *
+ * <p>
+ * Compared with {@code Deque4}, which allocates one node per entry, this
+ * representation allocates one node per {@code BLOCK_SIZE} entries, so the
+ * memory overhead per entry is little more than one array slot and iteration
+ * walks contiguous memory. Blocks that become empty are kept in a small pool
+ * and reused before new ones are allocated. Every vacated slot is nulled.
+ * </p>
+ *
+ * <p>
+ * Execution-time performance of all methods implemented in this class is O(1);
+ * {@code flip} only toggles which end of the list is considered the front.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code Deque} entries
+ *
+ * @convention <pre>
+ * $this.length >= 0  and
+ * [$this.first and $this.last are not null]  and
+ * [$this.first points to the first block of a doubly linked list of
+ *  blocks, and $this.last points to the last block of that list]  and
+ * 0 <= $this.headIndex <= BLOCK_SIZE  and
+ * 0 <= $this.tailIndex <= BLOCK_SIZE  and
+ * [if $this.first /= $this.last then
+ *   $this.headIndex < BLOCK_SIZE  and  $this.tailIndex > 0]  and
+ * [$this.length = number of slots from $this.first.entries[$this.headIndex]
+ *  through $this.last.entries[$this.tailIndex - 1], all of which are
+ *  not null; all other slots are null]  and
+ * $this.poolSize = [number of blocks in the list at $this.pool]  and
+ * $this.poolSize <= MAX_POOL_SIZE
+ * </pre>
+ *
+ * @correspondence <pre>
+ * if $this.reversed then
+ *  this = rev([entries from $this.first.entries[$this.headIndex]
+ *   running through $this.last.entries[$this.tailIndex - 1]])
+ * else
+ *  this = [entries from $this.first.entries[$this.headIndex]
+ *   running through $this.last.entries[$this.tailIndex - 1]]
+ * </pre>
+ */
+public class Deque4a<T> extends DequeSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Number of entries in each block.
+     */
+    private static final int BLOCK_SIZE = 64;
+
+    /**
+     * Maximum number of empty blocks kept for reuse.
+     */
+    private static final int MAX_POOL_SIZE = 4;
+
+    /**
+     * Block class for doubly linked list nodes.
+     */
+    private static final class Block {
+
+        /**
+         * Entries in block.
+         */
+        private final Object[] entries = new Object[BLOCK_SIZE];
+
+        /**
+         * Next block in doubly linked list, or null.
+         */
+        private Block next;
+
+        /**
+         * Previous block in doubly linked list, or null.
+         */
+        private Block previous;
+
+    }
+
+    /**
+     * First block of doubly linked list.
+     */
+    private Block first;
+
+    /**
+     * Last block of doubly linked list.
+     */
+    private Block last;
+
+    /**
+     * Index in {@code first} of the first entry.
+     */
+    private int headIndex;
+
+    /**
+     * Index in {@code last} one past the last entry.
+     */
+    private int tailIndex;
+
+    /**
+     * Number of entries, i.e., length = |this|.
+     */
+    private int length;
+
+    /**
+     * Whether {@code this} runs from {@code last} to {@code first} rather than
+     * from {@code first} to {@code last}.
+     */
+    private boolean reversed;
+
+    /**
+     * Singly linked list (through {@code next}) of empty blocks for reuse.
+     */
+    private Block pool;
+
+    /**
+     * Number of blocks in {@code pool}.
+     */
+    private int poolSize;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.first = new Block();
+        this.last = this.first;
+        this.recenter();
+        this.length = 0;
+        this.reversed = false;
+        this.pool = null;
+        this.poolSize = 0;
+    }
+
+    /**
+     * Positions the (empty) single block's head and tail in its middle, so
+     * that it has room to grow in both directions.
+     *
+     * @updates $this.headIndex, $this.tailIndex
+     * @requires $this.first = $this.last  and  $this.length = 0
+     */
+    private void recenter() {
+        this.headIndex = BLOCK_SIZE / 2;
+        this.tailIndex = BLOCK_SIZE / 2;
+    }
+
+    /**
+     * Returns an empty block, from the pool if there is one.
+     *
+     * @return an empty, unlinked block
+     * @updates $this.pool, $this.poolSize
+     */
+    private Block newBlock() {
+        Block b = this.pool;
+        if (b == null) {
+            b = new Block();
+        } else {
+            this.pool = b.next;
+            this.poolSize--;
+            b.next = null;
+        }
+        return b;
+    }
+
+    /**
+     * Puts the (empty) block {@code b} back in the pool, if it has room.
+     *
+     * @param b
+     *            the block to recycle
+     * @updates $this.pool, $this.poolSize
+     * @requires [all entries of b are null]
+     */
+    private void recycle(Block b) {
+        b.previous = null;
+        b.next = null;
+        if (this.poolSize < MAX_POOL_SIZE) {
+            b.next = this.pool;
+            this.pool = b;
+            this.poolSize++;
+        }
+    }
+
+    /**
+     * Adds {@code x} before the first entry of the linked list.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates $this
+     */
+    private void addFirst(T x) {
+        if (this.headIndex == 0) {
+            Block b = this.newBlock();
+            b.next = this.first;
+            this.first.previous = b;
+            this.first = b;
+            this.headIndex = BLOCK_SIZE;
+        }
+        this.headIndex--;
+        this.first.entries[this.headIndex] = x;
+        this.length++;
+    }
+
+    /**
+     * Adds {@code x} after the last entry of the linked list.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates $this
+     */
+    private void addLast(T x) {
+        if (this.tailIndex == BLOCK_SIZE) {
+            Block b = this.newBlock();
+            b.previous = this.last;
+            this.last.next = b;
+            this.last = b;
+            this.tailIndex = 0;
+        }
+        this.last.entries[this.tailIndex] = x;
+        this.tailIndex++;
+        this.length++;
+    }
+
+    /**
+     * Removes and returns the first entry of the linked list.
+     *
+     * @return the entry removed
+     * @updates $this
+     * @requires $this.length > 0
+     */
+    @SuppressWarnings("unchecked")
+    private T removeFirst() {
+        T x = (T) this.first.entries[this.headIndex];
+        this.first.entries[this.headIndex] = null;
+        this.headIndex++;
+        this.length--;
+
+        if (this.length == 0) {
+            this.recenter();
+        } else if (this.headIndex == BLOCK_SIZE) {
+            //First block is used up, so unlink it
+            Block old = this.first;
+            this.first = old.next;
+            this.first.previous = null;
+            this.recycle(old);
+            this.headIndex = 0;
+        }
+        return x;
+    }
+
+    /**
+     * Removes and returns the last entry of the linked list.
+     *
+     * @return the entry removed
+     * @updates $this
+     * @requires $this.length > 0
+     */
+    @SuppressWarnings("unchecked")
+    private T removeLast() {
+        this.tailIndex--;
+        T x = (T) this.last.entries[this.tailIndex];
+        this.last.entries[this.tailIndex] = null;
+        this.length--;
+
+        if (this.length == 0) {
+            this.recenter();
+        } else if (this.tailIndex == 0) {
+            //Last block is used up, so unlink it
+            Block old = this.last;
+            this.last = old.previous;
+            this.last.next = null;
+            this.recycle(old);
+            this.tailIndex = BLOCK_SIZE;
+        }
+        return x;
+    }
+
+    /**
+     * Reports the first entry of the linked list.
+     *
+     * @return the first entry
+     * @requires $this.length > 0
+     */
+    @SuppressWarnings("unchecked")
+    private T firstEntry() {
+        return (T) this.first.entries[this.headIndex];
+    }
+
+    /**
+     * Reports the last entry of the linked list.
+     *
+     * @return the last entry
+     * @requires $this.length > 0
+     */
+    @SuppressWarnings("unchecked")
+    private T lastEntry() {
+        return (T) this.last.entries[this.tailIndex - 1];
+    }
+
+    /**
+     * Replaces the first entry of the linked list with {@code x}.
+     *
+     * @param x
+     *            the new entry
+     * @return the old first entry
+     * @updates $this.first.entries
+     * @requires $this.length > 0
+     */
+    private T replaceFirstEntry(T x) {
+        T old = this.firstEntry();
+        this.first.entries[this.headIndex] = x;
+        return old;
+    }
+
+    /**
+     * Replaces the last entry of the linked list with {@code x}.
+     *
+     * @param x
+     *            the new entry
+     * @return the old last entry
+     * @updates $this.last.entries
+     * @requires $this.length > 0
+     */
+    private T replaceLastEntry(T x) {
+        T old = this.lastEntry();
+        this.last.entries[this.tailIndex - 1] = x;
+        return old;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Deque4a() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Deque<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(Deque<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Deque4a<?> : ""
+                + "Violation of: source is of dynamic type Deque4a<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Deque4a<?>,
+         * and the ? must be T or the call would not have compiled.
+         */
+        Deque4a<T> localSource = (Deque4a<T>) source;
+        this.first = localSource.first;
+        this.last = localSource.last;
+        this.headIndex = localSource.headIndex;
+        this.tailIndex = localSource.tailIndex;
+        this.length = localSource.length;
+        this.reversed = localSource.reversed;
+        this.pool = localSource.pool;
+        this.poolSize = localSource.poolSize;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final int length() {
+        return this.length;
+    }
+
+    @Override
+    public final void pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.reversed) {
+            this.addLast(x);
+        } else {
+            this.addFirst(x);
+        }
+    }
+
+    @Override
+    public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.reversed) {
+            this.addFirst(x);
+        } else {
+            this.addLast(x);
+        }
+    }
+
+    @Override
+    public final T popFront() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.removeLast();
+        }
+        return this.removeFirst();
+    }
+
+    @Override
+    public final T popBack() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.removeFirst();
+        }
+        return this.removeLast();
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Deque4aIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Deque4a}.
+     */
+    private final class Deque4aIterator implements Iterator<T> {
+
+        /**
+         * Block holding the next entry to be returned.
+         */
+        private Block block;
+
+        /**
+         * Index in {@code block} of the next entry to be returned.
+         */
+        private int index;
+
+        /**
+         * Number of entries not yet returned.
+         */
+        private int remaining;
+
+        /**
+         * Whether the walk goes from {@code last} to {@code first}.
+         */
+        private final boolean backward;
+
+        /**
+         * No-argument constructor.
+         */
+        private Deque4aIterator() {
+            this.backward = Deque4a.this.reversed;
+            this.remaining = Deque4a.this.length;
+            if (this.backward) {
+                this.block = Deque4a.this.last;
+                this.index = Deque4a.this.tailIndex - 1;
+            } else {
+                this.block = Deque4a.this.first;
+                this.index = Deque4a.this.headIndex;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.remaining > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            if (this.backward && this.index < 0) {
+                this.block = this.block.previous;
+                this.index = BLOCK_SIZE - 1;
+            } else if (!this.backward && this.index == BLOCK_SIZE) {
+                this.block = this.block.next;
+                this.index = 0;
+            }
+            T x = (T) this.block.entries[this.index];
+            if (this.backward) {
+                this.index--;
+            } else {
+                this.index++;
+            }
+            this.remaining--;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void flip() {
+        this.reversed = !this.reversed;
+    }
+
+    @Override
+    public final T front() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.lastEntry();
+        }
+        return this.firstEntry();
+    }
+
+    @Override
+    public final T back() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.firstEntry();
+        }
+        return this.lastEntry();
+    }
+
+    @Override
+    public final T replaceFront(T x) {
+        assert this.length > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        if (this.reversed) {
+            return this.replaceLastEntry(x);
+        }
+        return this.replaceFirstEntry(x);
+    }
+
+    @Override
+    public final T replaceBack(T x) {
+        assert this.length > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        if (this.reversed) {
+            return this.replaceFirstEntry(x);
+        }
+        return this.replaceLastEntry(x);
+    }
+
+}
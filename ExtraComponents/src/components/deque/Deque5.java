@@ -0,0 +1,841 @@
+package components.deque;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+
+import components.queue.Queue;
+
+/**
+ * {@code Deque} represented as a circular array ("ring buffer"), done
+ * "bare-handed", with implementations of primary methods.
+ *
+ * <p>
+ * Execution-time performance of {@code pushFront} and {@code pushBack} is
+ * amortized O(1); {@code popFront} and {@code popBack} are amortized O(1) when
+ * shrinking is enabled and O(1) otherwise. All other kernel methods, and
+ * {@code flip}, {@code front}, {@code back} and the {@code replace} methods,
+ * are O(1); {@code flip} only toggles which end of the array is
+ * considered the front. {@code entry} and {@code replaceEntry} are O(1), and
+ * {@code rotate(k)} is O(min(k, |this| - k)) (O(1) when the array is full).
+ * The bulk methods copy whole runs of the array with
+ * {@code System.arraycopy} when the other side is a {@code Collection} or a
+ * {@code Deque5} of the same orientation.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code Deque} entries
+ *
+ * @convention <pre>
+ * [$this.entries.length is a power of 2]  and
+ * $this.entries.length >= MIN_CAPACITY  and
+ * 0 <= $this.head < $this.entries.length  and
+ * 0 <= $this.length <= $this.entries.length  and
+ * [for all i: integer where (0 <= i < $this.length)
+ *   ($this.entries[($this.head + i) mod $this.entries.length]
+ *     is not null)]  and
+ * [all other positions in $this.entries are null]
+ * </pre>
+ *
+ * @correspondence <pre>
+ * if $this.reversed then
+ *  this = rev([$this.entries[($this.head + i) mod $this.entries.length]
+ *   for i = 0, 1, ..., $this.length - 1])
+ * else
+ *  this = [$this.entries[($this.head + i) mod $this.entries.length]
+ *   for i = 0, 1, ..., $this.length - 1]
+ * </pre>
+ */
+public class Deque5<T> extends DequeSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Smallest (and initial) capacity of the representation array; must be a
+     * power of 2.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Largest power of 2 that is a legal array length.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The representation array is halved when no more than
+     * {@code 1 / SHRINK_FACTOR} of it is in use.
+     */
+    private static final int SHRINK_FACTOR = 4;
+
+    /**
+     * Whether the representation array is allowed to shrink.
+     */
+    private final boolean shrink;
+
+    /**
+     * Circular array of entries.
+     */
+    private Object[] entries;
+
+    /**
+     * Index of first occupied slot in {@code entries}.
+     */
+    private int head;
+
+    /**
+     * Number of entries, i.e., length = |this|.
+     */
+    private int length;
+
+    /**
+     * Whether {@code this} runs from the last occupied slot back to
+     * {@code head} rather than from {@code head} forward.
+     */
+    private boolean reversed;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.entries = new Object[MIN_CAPACITY];
+        this.head = 0;
+        this.length = 0;
+        this.reversed = false;
+    }
+
+    /**
+     * Reports the position in {@code entries} of the {@code i}-th occupied
+     * slot, counting from {@code head}.
+     *
+     * @param i
+     *            the offset from {@code head}
+     * @return the corresponding position in {@code entries}
+     * @requires -entries.length <= i < 2 * entries.length
+     * @ensures slot = (head + i) mod entries.length
+     */
+    private int slot(int i) {
+        return (this.head + i) & (this.entries.length - 1);
+    }
+
+    /**
+     * Reports the position in {@code entries} of the entry at position
+     * {@code i} of {@code this}, taking orientation into account.
+     *
+     * @param i
+     *            the position in {@code this}
+     * @return the corresponding position in {@code entries}
+     * @requires 0 <= i < |this|
+     * @ensures <pre>
+     * if reversed then  position = slot(length - 1 - i)
+     * else  position = slot(i)
+     * </pre>
+     */
+    private int position(int i) {
+        if (this.reversed) {
+            return this.slot(this.length - 1 - i);
+        }
+        return this.slot(i);
+    }
+
+    /**
+     * Reports the entry at position {@code i} of {@code this}.
+     *
+     * @param i
+     *            the position in {@code this}
+     * @return the entry at position {@code i}
+     * @requires 0 <= i < |this|
+     * @ensures at = this[i, i + 1)
+     */
+    @SuppressWarnings("unchecked")
+    private T at(int i) {
+        return (T) this.entries[this.position(i)];
+    }
+
+    /**
+     * Replaces the entry at position {@code i} of {@code this} with {@code x}
+     * and returns the old entry.
+     *
+     * @param i
+     *            the position in {@code this}
+     * @param x
+     *            the new entry
+     * @return the old entry
+     * @updates this
+     * @requires 0 <= i < |this|
+     * @ensures <pre>
+     * this = #this[0, i) * {@literal <x>} * #this[i + 1, |#this|)  and
+     * {@literal <replaceAt>} = #this[i, i + 1)
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private T replaceAt(int i, T x) {
+        int p = this.position(i);
+        T old = (T) this.entries[p];
+        this.entries[p] = x;
+        return old;
+    }
+
+    /**
+     * Moves the entries of {@code this} into a new array of the given
+     * capacity, with the front entry at position 0.
+     *
+     * @param capacity
+     *            the new capacity
+     * @updates $this.entries, $this.head
+     * @requires <pre>
+     * [capacity is a power of 2]  and
+     * capacity >= $this.length
+     * </pre>
+     * @ensures this = #this
+     */
+    private void resize(int capacity) {
+        Object[] newEntries = new Object[capacity];
+        int firstPart = Math.min(this.length,
+                this.entries.length - this.head);
+        System.arraycopy(this.entries, this.head, newEntries, 0, firstPart);
+        System.arraycopy(this.entries, 0, newEntries, firstPart,
+                this.length - firstPart);
+        this.entries = newEntries;
+        this.head = 0;
+    }
+
+    /**
+     * Doubles the representation array if it is full.
+     *
+     * @updates $this.entries, $this.head
+     * @ensures this = #this  and  $this.length < $this.entries.length
+     */
+    private void growIfFull() {
+        if (this.length == this.entries.length) {
+            assert this.entries.length < MAX_CAPACITY : ""
+                    + "Violation of: |this| < 2^30";
+            this.resize(this.entries.length * 2);
+        }
+    }
+
+    /**
+     * Halves the representation array if shrinking is enabled and it is
+     * sparsely used.
+     *
+     * @updates $this.entries, $this.head
+     * @ensures this = #this
+     */
+    private void shrinkIfSparse() {
+        if (this.shrink) {
+            //Halve repeatedly, since a bulk removal may leave it very sparse
+            int capacity = this.entries.length;
+            while (capacity > MIN_CAPACITY
+                    && this.length <= capacity / SHRINK_FACTOR) {
+                capacity /= 2;
+            }
+            if (capacity < this.entries.length) {
+                this.resize(capacity);
+            }
+        }
+    }
+
+    /**
+     * Grows the representation array, if necessary, so it can hold at least
+     * {@code capacity} entries.
+     *
+     * @param capacity
+     *            the capacity needed
+     * @updates $this.entries, $this.head
+     * @requires capacity <= 2^30
+     * @ensures this = #this  and  $this.entries.length >= capacity
+     */
+    private void ensureCapacity(int capacity) {
+        assert capacity <= MAX_CAPACITY : "Violation of: capacity <= 2^30";
+
+        int newCapacity = this.entries.length;
+        while (newCapacity < capacity) {
+            newCapacity *= 2;
+        }
+        if (newCapacity > this.entries.length) {
+            this.resize(newCapacity);
+        }
+    }
+
+    /**
+     * Copies {@code n} consecutive slots of {@code src}, starting at
+     * {@code srcPos}, to consecutive slots of {@code dst} starting at
+     * {@code dstPos}, wrapping around the end of either array as needed.
+     *
+     * @param src
+     *            the source array
+     * @param srcPos
+     *            the first slot to copy from
+     * @param dst
+     *            the destination array
+     * @param dstPos
+     *            the first slot to copy to
+     * @param n
+     *            the number of slots to copy
+     * @updates dst
+     * @requires <pre>
+     * 0 <= srcPos < |src|  and  0 <= dstPos < |dst|  and
+     * 0 <= n <= min(|src|, |dst|)
+     * </pre>
+     */
+    private static void ringCopy(Object[] src, int srcPos, Object[] dst,
+            int dstPos, int n) {
+        int from = srcPos;
+        int to = dstPos;
+        int remaining = n;
+        while (remaining > 0) {
+            int chunk = Math.min(remaining,
+                    Math.min(src.length - from, dst.length - to));
+            System.arraycopy(src, from, dst, to, chunk);
+            from = (from + chunk) % src.length;
+            to = (to + chunk) % dst.length;
+            remaining -= chunk;
+        }
+    }
+
+    /**
+     * Reports whether {@code n} consecutive slots of {@code src}, starting at
+     * {@code srcPos} and wrapping around, are all non-null.
+     *
+     * @param src
+     *            the array
+     * @param srcPos
+     *            the first slot to check
+     * @param n
+     *            the number of slots to check
+     * @return true iff none of the slots is null
+     */
+    private static boolean noNulls(Object[] src, int srcPos, int n) {
+        for (int i = 0; i < n; i++) {
+            if (src[(srcPos + i) % src.length] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds {@code n} entries of {@code src}, starting at slot {@code srcPos},
+     * before {@code head} (if {@code atEnd} is false) or after the last
+     * occupied slot (if {@code atEnd} is true), keeping their order.
+     *
+     * @param src
+     *            the array holding the entries
+     * @param srcPos
+     *            the slot of the first entry to add
+     * @param n
+     *            the number of entries to add
+     * @param atEnd
+     *            whether to add after the last occupied slot
+     * @updates $this.entries, $this.head, $this.length
+     * @requires <pre>
+     * 0 <= srcPos < |src|  and  0 <= n <= |src|  and
+     * [the n slots are non-null]
+     * </pre>
+     */
+    private void addAll(Object[] src, int srcPos, int n, boolean atEnd) {
+        this.ensureCapacity(this.length + n);
+        int to;
+        if (atEnd) {
+            to = this.slot(this.length);
+        } else {
+            this.head = this.slot(-n);
+            to = this.head;
+        }
+        ringCopy(src, srcPos, this.entries, to, n);
+        this.length += n;
+    }
+
+    /**
+     * Removes the {@code n} entries starting {@code from} slots after
+     * {@code head} and adds them, in order, before {@code into}'s
+     * {@code head} (if {@code atEnd} is false) or after its last occupied
+     * slot (if {@code atEnd} is true).
+     *
+     * @param from
+     *            the offset from {@code head} of the first entry to move;
+     *            either 0 or {@code $this.length - n}
+     * @param n
+     *            the number of entries to move
+     * @param into
+     *            the {@code Deque5} to move them to
+     * @param atEnd
+     *            whether to add them after {@code into}'s last occupied slot
+     * @updates $this, $into
+     * @requires <pre>
+     * into is not this  and  0 <= n <= $this.length  and
+     * (from = 0  or  from = $this.length - n)
+     * </pre>
+     */
+    private void moveTo(int from, int n, Deque5<T> into, boolean atEnd) {
+        int start = this.slot(from);
+        into.addAll(this.entries, start, n, atEnd);
+
+        //Null out the vacated slots so the entries can be collected
+        int remaining = n;
+        while (remaining > 0) {
+            int chunk = Math.min(remaining, this.entries.length - start);
+            Arrays.fill(this.entries, start, start + chunk, null);
+            start = 0;
+            remaining -= chunk;
+        }
+        if (from == 0) {
+            this.head = this.slot(n);
+        }
+        this.length -= n;
+
+        this.shrinkIfSparse();
+    }
+
+    /**
+     * Adds {@code x} before {@code head}.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates $this.entries, $this.head, $this.length
+     */
+    private void addFirst(T x) {
+        this.growIfFull();
+        this.head = this.slot(-1);
+        this.entries[this.head] = x;
+        this.length++;
+    }
+
+    /**
+     * Adds {@code x} after the last occupied slot.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates $this.entries, $this.head, $this.length
+     */
+    private void addLast(T x) {
+        this.growIfFull();
+        this.entries[this.slot(this.length)] = x;
+        this.length++;
+    }
+
+    /**
+     * Removes and returns the entry at {@code head}.
+     *
+     * @return the entry removed
+     * @updates $this.entries, $this.head, $this.length
+     * @requires $this.length > 0
+     */
+    private T removeFirst() {
+        //Null out the vacated slot so the entry can be collected
+        @SuppressWarnings("unchecked")
+        T first = (T) this.entries[this.head];
+        this.entries[this.head] = null;
+        this.head = this.slot(1);
+        this.length--;
+
+        this.shrinkIfSparse();
+        return first;
+    }
+
+    /**
+     * Removes and returns the entry in the last occupied slot.
+     *
+     * @return the entry removed
+     * @updates $this.entries, $this.head, $this.length
+     * @requires $this.length > 0
+     */
+    private T removeLast() {
+        //Null out the vacated slot so the entry can be collected
+        int lastSlot = this.slot(this.length - 1);
+        @SuppressWarnings("unchecked")
+        T last = (T) this.entries[lastSlot];
+        this.entries[lastSlot] = null;
+        this.length--;
+
+        this.shrinkIfSparse();
+        return last;
+    }
+
+    /**
+     * Rotates the occupied slots so that the {@code r}-th one, counting from
+     * {@code head}, becomes the first, by moving whichever of the first
+     * {@code r} or the last {@code $this.length - r} entries is shorter
+     * across the unoccupied slots.
+     *
+     * @param r
+     *            the number of entries to rotate by
+     * @updates $this.entries, $this.head
+     * @requires 0 < r < $this.length
+     * @ensures <pre>
+     * [entries in occupied slots, from head] =
+     *  #[entries in occupied slots, from head] rotated left by r
+     * </pre>
+     */
+    private void rotateSlots(int r) {
+        int n = this.length;
+        if (n == this.entries.length) {
+            //No unoccupied slots, so only head moves
+            this.head = this.slot(r);
+        } else {
+            /*
+             * Copy out the entries to move and clear their old slots before
+             * writing them back, since old and new slots may overlap
+             */
+            int from = 0;
+            int to = n;
+            int m = r;
+            int newHead = r;
+            if (r > n - r) {
+                from = r;
+                m = n - r;
+                to = -m;
+                newHead = -m;
+            }
+            Object[] moved = new Object[m];
+            ringCopy(this.entries, this.slot(from), moved, 0, m);
+            for (int i = 0; i < m; i++) {
+                this.entries[this.slot(from + i)] = null;
+            }
+            ringCopy(moved, 0, this.entries, this.slot(to), m);
+            this.head = this.slot(newHead);
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Deque5() {
+        this(true);
+    }
+
+    /**
+     * Constructor from shrink policy.
+     *
+     * @param shrink
+     *            whether the representation array is halved when no more than
+     *            a quarter of it is in use; a deque that repeatedly fills and
+     *            drains to the same size is cheaper without shrinking
+     */
+    public Deque5(boolean shrink) {
+        this.shrink = shrink;
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Deque<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(boolean.class)
+                    .newInstance(this.shrink);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(Deque<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Deque5<?> : ""
+                + "Violation of: source is of dynamic type Deque5<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Deque5<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Deque5<T> localSource = (Deque5<T>) source;
+        this.entries = localSource.entries;
+        this.head = localSource.head;
+        this.length = localSource.length;
+        this.reversed = localSource.reversed;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final int length() {
+        return this.length;
+    }
+
+    @Override
+    public final void pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.reversed) {
+            this.addLast(x);
+        } else {
+            this.addFirst(x);
+        }
+    }
+
+    @Override
+    public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.reversed) {
+            this.addFirst(x);
+        } else {
+            this.addLast(x);
+        }
+    }
+
+    @Override
+    public final T popFront() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.removeLast();
+        }
+        return this.removeFirst();
+    }
+
+    @Override
+    public final T popBack() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.removeFirst();
+        }
+        return this.removeLast();
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Deque5Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Deque5}.
+     */
+    private final class Deque5Iterator implements Iterator<T> {
+
+        /**
+         * Position in {@code this} of the next entry to be returned.
+         */
+        private int position;
+
+        /**
+         * No-argument constructor.
+         */
+        private Deque5Iterator() {
+            this.position = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < Deque5.this.length;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = Deque5.this.at(this.position);
+            this.position++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void flip() {
+        this.reversed = !this.reversed;
+    }
+
+    @Override
+    public final void pushAllBack(Iterable<T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+        assert entries != this : "Violation of: entries is not this";
+
+        if (this.reversed) {
+            super.pushAllBack(entries);
+        } else if (entries instanceof Deque5<?>
+                && !((Deque5<?>) entries).reversed) {
+            Deque5<?> source = (Deque5<?>) entries;
+            this.addAll(source.entries, source.head, source.length, true);
+        } else if (entries instanceof Collection<?>) {
+            Object[] source = ((Collection<?>) entries).toArray();
+            assert noNulls(source, 0, source.length) : ""
+                    + "Violation of: entries has no null entries";
+            this.addAll(source, 0, source.length, true);
+        } else {
+            for (T x : entries) {
+                assert x != null : "Violation of: entries has no null entries";
+                this.addLast(x);
+            }
+        }
+    }
+
+    @Override
+    public final void pushAllFront(Iterable<T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+        assert entries != this : "Violation of: entries is not this";
+
+        if (this.reversed) {
+            super.pushAllFront(entries);
+        } else if (entries instanceof Deque5<?>
+                && !((Deque5<?>) entries).reversed) {
+            Deque5<?> source = (Deque5<?>) entries;
+            this.addAll(source.entries, source.head, source.length, false);
+        } else if (entries instanceof Collection<?>) {
+            Object[] source = ((Collection<?>) entries).toArray();
+            assert noNulls(source, 0, source.length) : ""
+                    + "Violation of: entries has no null entries";
+            this.addAll(source, 0, source.length, false);
+        } else {
+            super.pushAllFront(entries);
+        }
+    }
+
+    @Override
+    public final void popFront(int n, Deque<T> into) {
+        assert into != null : "Violation of: into is not null";
+        assert into != this : "Violation of: into is not this";
+        assert 0 <= n : "Violation of: 0 <= n";
+        assert n <= this.length : "Violation of: n <= |this|";
+
+        /*
+         * When both have the same orientation the entries keep their physical
+         * order, so they can be copied as a block
+         */
+        if (into instanceof Deque5<?>
+                && ((Deque5<?>) into).reversed == this.reversed) {
+            int from = 0;
+            if (this.reversed) {
+                from = this.length - n;
+            }
+            this.moveTo(from, n, (Deque5<T>) into, !this.reversed);
+        } else {
+            super.popFront(n, into);
+        }
+    }
+
+    @Override
+    public final void popBack(int n, Deque<T> into) {
+        assert into != null : "Violation of: into is not null";
+        assert into != this : "Violation of: into is not this";
+        assert 0 <= n : "Violation of: 0 <= n";
+        assert n <= this.length : "Violation of: n <= |this|";
+
+        if (into instanceof Deque5<?>
+                && ((Deque5<?>) into).reversed == this.reversed) {
+            int from = this.length - n;
+            if (this.reversed) {
+                from = 0;
+            }
+            this.moveTo(from, n, (Deque5<T>) into, this.reversed);
+        } else {
+            super.popBack(n, into);
+        }
+    }
+
+    @Override
+    public final T entry(int i) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.length : "Violation of: i < |this|";
+
+        return this.at(i);
+    }
+
+    @Override
+    public final T replaceEntry(int i, T x) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.length : "Violation of: i < |this|";
+        assert x != null : "Violation of: x is not null";
+
+        return this.replaceAt(i, x);
+    }
+
+    @Override
+    public final void rotate(int k) {
+        if (this.length > 0) {
+            int r = Math.floorMod(k, this.length);
+            if (r > 0) {
+                //Rotating rev(s) left by r rotates s left by |s| - r
+                if (this.reversed) {
+                    r = this.length - r;
+                }
+                this.rotateSlots(r);
+            }
+        }
+    }
+
+    @Override
+    public final void drainTo(Queue<T> q) {
+        assert q != null : "Violation of: q is not null";
+
+        for (int i = 0; i < this.length; i++) {
+            q.enqueue(this.at(i));
+        }
+        this.createNewRep();
+    }
+
+    @Override
+    public final T front() {
+        assert this.length > 0 : "Violation of: this /= <>";
+        return this.at(0);
+    }
+
+    @Override
+    public final T back() {
+        assert this.length > 0 : "Violation of: this /= <>";
+        return this.at(this.length - 1);
+    }
+
+    @Override
+    public final T replaceFront(T x) {
+        assert this.length > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        return this.replaceAt(0, x);
+    }
+
+    @Override
+    public final T replaceBack(T x) {
+        assert this.length > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        return this.replaceAt(this.length - 1, x);
+    }
+
+    @Override
+    public final Spliterator<T> spliterator() {
+        //entry is O(1), so split by halving the range of positions
+        return new EntrySpliterator<T>(this, 0, this.length());
+    }
+
+}
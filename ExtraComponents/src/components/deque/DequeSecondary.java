@@ -1,5 +1,15 @@
 package components.deque;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import components.queue.Queue;
+
 /**
  * Layered implementations of secondary methods for {@code Deque}.
  *
@@ -8,6 +18,16 @@ package components.deque;
  */
 public abstract class DequeSecondary<T> implements Deque<T> {
 
+    /**
+     * Characters per entry assumed when sizing the {@code toString} buffer.
+     */
+    private static final int TO_STRING_CHARS_PER_ENTRY = 8;
+
+    /**
+     * Most characters reserved up front by {@code toString}.
+     */
+    private static final int TO_STRING_MAX_PRESIZE = 1 << 20;
+
     /**
      * Constructor.
      */
@@ -20,12 +40,12 @@ public abstract class DequeSecondary<T> implements Deque<T> {
 
     @Override
     public void flip() {
-        if (this.length() > 0) {
-            //pop front element, flip deque, push to back
-            T front = this.popFront();
-            this.flip();
-            this.pushBack(front);
+        //Move entries one at a time onto the front of a temporary deque
+        Deque<T> reversed = this.newInstance();
+        while (this.length() > 0) {
+            reversed.pushFront(this.popFront());
         }
+        this.transferFrom(reversed);
     }
 
     @Override
@@ -66,95 +86,254 @@ public abstract class DequeSecondary<T> implements Deque<T> {
         return oldBack;
     }
 
+    @Override
+    public void pushAllBack(Iterable<T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+        assert entries != this : "Violation of: entries is not this";
+
+        for (T x : entries) {
+            this.pushBack(x);
+        }
+    }
+
+    @Override
+    public void pushAllFront(Iterable<T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+        assert entries != this : "Violation of: entries is not this";
+
+        //Reverse the entries first so they can be pushed one at a time
+        Deque<T> reversed = this.newInstance();
+        for (T x : entries) {
+            reversed.pushFront(x);
+        }
+        while (reversed.length() > 0) {
+            this.pushFront(reversed.popFront());
+        }
+    }
+
+    @Override
+    public void popFront(int n, Deque<T> into) {
+        assert into != null : "Violation of: into is not null";
+        assert into != this : "Violation of: into is not this";
+        assert 0 <= n : "Violation of: 0 <= n";
+        assert n <= this.length() : "Violation of: n <= |this|";
+
+        for (int i = 0; i < n; i++) {
+            into.pushBack(this.popFront());
+        }
+    }
+
+    @Override
+    public void popBack(int n, Deque<T> into) {
+        assert into != null : "Violation of: into is not null";
+        assert into != this : "Violation of: into is not this";
+        assert 0 <= n : "Violation of: 0 <= n";
+        assert n <= this.length() : "Violation of: n <= |this|";
+
+        for (int i = 0; i < n; i++) {
+            into.pushFront(this.popBack());
+        }
+    }
+
+    @Override
+    public void drainTo(Queue<T> q) {
+        assert q != null : "Violation of: q is not null";
+
+        while (this.length() > 0) {
+            q.enqueue(this.popFront());
+        }
+    }
+
+    @Override
+    public void append(Deque<T> other) {
+        assert other != null : "Violation of: other is not null";
+        assert other != this : "Violation of: other is not this";
+
+        other.popFront(other.length(), this);
+    }
+
+    @Override
+    public Deque<T> splitAt(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k <= this.length() : "Violation of: k <= |this|";
+
+        Deque<T> suffix = this.newInstance();
+        this.popBack(this.length() - k, suffix);
+        return suffix;
+    }
+
+    @Override
+    public T entry(int i) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.length() : "Violation of: i < |this|";
+
+        Iterator<T> it = this.iterator();
+        for (int k = 0; k < i; k++) {
+            it.next();
+        }
+        return it.next();
+    }
+
+    @Override
+    public T replaceEntry(int i, T x) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.length() : "Violation of: i < |this|";
+        assert x != null : "Violation of: x is not null";
+
+        Deque<T> prefix = this.newInstance();
+        this.popFront(i, prefix);
+        T old = this.replaceFront(x);
+        prefix.append(this);
+        this.transferFrom(prefix);
+        return old;
+    }
+
+    @Override
+    public void rotate(int k) {
+        int n = this.length();
+        if (n > 0) {
+            //Move whichever part of this is shorter
+            int r = Math.floorMod(k, n);
+            if (r <= n - r) {
+                Deque<T> prefix = this.newInstance();
+                this.popFront(r, prefix);
+                this.append(prefix);
+            } else {
+                Deque<T> suffix = this.newInstance();
+                this.popBack(n - r, suffix);
+                suffix.append(this);
+                this.transferFrom(suffix);
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(this.iterator(), this.length(),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    @Override
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
     /*
      * Object methods ----------------------------------------------
      */
 
+    /**
+     * Reports whether {@code hashCode} is maintained incrementally, so that
+     * calling it is O(1) rather than a walk over all entries.
+     *
+     * @return true iff {@code hashCode} is O(1)
+     */
+    boolean hasCachedHashCode() {
+        return false;
+    }
+
     @Override
     public int hashCode() {
-        int hash = 0;
-
         /*
-         * Alternate adding and subtracting hash values of all elements in Deque
-         * times its position
+         * Polynomial hash of the entries, front to back: the sum of
+         * hash(this[i]) * 31^(|this| - 1 - i). HashedDeque maintains the same
+         * value incrementally.
          */
-        int i = 0;
+        int hash = 0;
         for (T current : this) {
-            if (i % 2 == 0) {
-                hash += (i++ * current.hashCode());
-            } else {
-                hash -= (i++ * current.hashCode());
-            }
+            hash = 31 * hash + current.hashCode();
         }
-
         return hash;
     }
 
     @Override
     public final boolean equals(Object obj) {
-        boolean isEqual = false;
-
         if (obj == this) {
             //Objects are equal if both are same reference
             return true;
-        } else if (obj == null) {
-            //Objects cannot be equal is obj is null (this can never be null)
+        }
+        if (!(obj instanceof Deque<?>)) {
+            //Objects cannot be equal if obj is null or isn't a deque
             return false;
-        } else if (!(obj instanceof Deque<?>)) {
-            //Objects cannot be equal if obj isn't a deque
+        }
+        Deque<?> objDeque = (Deque<?>) obj;
+        if (this.length() != objDeque.length()) {
             return false;
-        } else {
-            //Now we know obj is a deque so we can safely cast
-            @SuppressWarnings("unchecked")
-            Deque<T> objDeque = (Deque<T>) obj;
-
-            /*
-             * To optimize execution, we know that objects can only be equal if
-             * they have the same hash code and same length
-             */
-            if (this.hashCode() == objDeque.hashCode()
-                    && this.length() == objDeque.length()) {
-                if (this.length() == 0) {
-                    isEqual = true;
-                } else {
-                    /*
-                     * Objects are equal if first element is equal and rest of
-                     * deques are equal
-                     */
-                    T thisFront = this.popFront();
-                    T objFront = objDeque.popFront();
-
-                    isEqual = thisFront.equals(objFront)
-                            && this.equals(objDeque);
-
-                    //Restore
-                    this.pushFront(thisFront);
-                    objDeque.pushFront(objFront);
-                }
-            }
         }
 
+        /*
+         * Only compare hash codes when both are cheap; computing one by
+         * walking the deque costs as much as the comparison below
+         */
+        if (this.hasCachedHashCode() && objDeque instanceof DequeSecondary<?>
+                && ((DequeSecondary<?>) objDeque).hasCachedHashCode()
+                && this.hashCode() != objDeque.hashCode()) {
+            return false;
+        }
+
+        //Walk both deques in step, stopping at the first mismatch
+        Iterator<T> thisIt = this.iterator();
+        Iterator<?> objIt = objDeque.iterator();
+        boolean isEqual = true;
+        while (isEqual && thisIt.hasNext()) {
+            isEqual = thisIt.next().equals(objIt.next());
+        }
         return isEqual;
     }
 
     @Override
-    public final String toString() {
-        StringBuilder thisStr = new StringBuilder("<");
+    public void appendTo(Appendable out) {
+        this.appendTo(out, Integer.MAX_VALUE);
+    }
 
-        if (this.length() > 0) {
-            T front = this.popFront();
-            thisStr.append(front);
+    @Override
+    public void appendTo(Appendable out, int limit) {
+        assert out != null : "Violation of: out is not null";
+        assert limit >= 0 : "Violation of: limit >= 0";
 
-            //Iterate through rest of deque and add each element to string
-            for (T x : this) {
-                thisStr.append("," + x);
+        try {
+            out.append('<');
+            //Walk with the iterator, so this is never changed
+            Iterator<T> it = this.iterator();
+            int written = 0;
+            while (written < limit && it.hasNext()) {
+                if (written > 0) {
+                    out.append(',');
+                }
+                T x = it.next();
+                if (x instanceof CharSequence) {
+                    out.append((CharSequence) x);
+                } else {
+                    out.append(String.valueOf(x));
+                }
+                written++;
             }
-
-            //Restore and finish
-            this.pushFront(front);
+            if (it.hasNext()) {
+                //At least one left, even if a concurrent pop changed length
+                int left = Math.max(1, this.length() - written);
+                if (written > 0) {
+                    out.append(',');
+                }
+                out.append("...+").append(Integer.toString(left));
+            }
+            out.append('>');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        thisStr.append(">");
+    }
 
+    @Override
+    public final String toString() {
+        //Guess a few characters per entry, without reserving huge amounts
+        int capacity = (int) Math.min(TO_STRING_MAX_PRESIZE,
+                2L + TO_STRING_CHARS_PER_ENTRY * this.length());
+        StringBuilder thisStr = new StringBuilder(capacity);
+        this.appendTo(thisStr);
         return thisStr.toString();
     }
 
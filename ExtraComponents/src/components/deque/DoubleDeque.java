@@ -0,0 +1,105 @@
+package components.deque;
+
+import java.util.Spliterator;
+import java.util.stream.DoubleStream;
+
+/**
+ * {@code DoubleDequeKernel} enhanced with secondary methods.
+ *
+ * @author Zach Baruch
+ */
+public interface DoubleDeque extends DoubleDequeKernel {
+
+    /**
+     * Reverses ("flips") {@code this}.
+     *
+     * @updates this
+     * @ensures this = rev(#this)
+     */
+    void flip();
+
+    /**
+     * Reports the front of {@code this}.
+     *
+     * @return the front entry of {@code this}.
+     * @requires this /= <>
+     * @ensures <pre>
+     * {@literal <front>} is prefix of this
+     * </pre>
+     */
+    double front();
+
+    /**
+     * Reports the back of {@code this}.
+     *
+     * @return the back entry of {@code this}.
+     * @requires this /= <>
+     * @ensures <pre>
+     * {@literal <back>} is suffix of this
+     * </pre>
+     */
+    double back();
+
+    /**
+     * Replaces the front of {@code this} with {@code x}, and returns the old
+     * front.
+     *
+     * @param x
+     *            the new front entry
+     * @return the old front entry
+     * @updates this
+     * @requires this /= <>
+     * @ensures <pre>
+     * {@literal <replaceFront>} is prefix of #this  and
+     * this = {@literal <x>} * #this[1, |#this|)
+     * </pre>
+     */
+    double replaceFront(double x);
+
+    /**
+     * Replaces the back of {@code this} with {@code x}, and returns the old
+     * back.
+     *
+     * @param x
+     *            the new back entry
+     * @return the old back entry
+     * @updates this
+     * @requires this /= <>
+     * @ensures <pre>
+     * {@literal <replaceBack>} is suffix of #this  and
+     * this = #this[0, |#this| - 1) * {@literal <x>}
+     * </pre>
+     */
+    double replaceBack(double x);
+
+    /**
+     * Returns a {@code Spliterator.OfDouble} over the entries of {@code this},
+     * front to back. {@code this} must not be changed while it is in use.
+     *
+     * @return a spliterator over {@code this}
+     * @ensures [spliterator reports the entries of this, in order]
+     */
+    @Override
+    Spliterator.OfDouble spliterator();
+
+    /**
+     * Returns a sequential {@code DoubleStream} of the entries of {@code this},
+     * front to back. {@code this} must not be changed while the stream is in
+     * use.
+     *
+     * @return a sequential stream over {@code this}
+     * @ensures [stream yields the entries of this, in order]
+     */
+    DoubleStream stream();
+
+    /**
+     * Returns a possibly parallel {@code DoubleStream} of the entries of
+     * {@code this}, front to back; it is split using {@code spliterator}.
+     * {@code this} must not be changed while the stream is in use.
+     *
+     * @return a parallel stream over {@code this}
+     * @ensures [parallelStream yields the entries of this, in order]
+     */
+    DoubleStream parallelStream();
+
+}
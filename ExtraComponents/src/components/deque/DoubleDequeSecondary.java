@@ -0,0 +1,138 @@
+package components.deque;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Layered implementations of secondary methods for {@code DoubleDeque}.
+ */
+public abstract class DoubleDequeSecondary implements DoubleDeque {
+
+    /**
+     * Constructor.
+     */
+    public DoubleDequeSecondary() {
+    }
+
+    /*
+     * Secondary methods ------------------------------------
+     */
+
+    @Override
+    public void flip() {
+        //Move entries one at a time onto the front of a temporary deque
+        DoubleDeque reversed = this.newInstance();
+        while (this.length() > 0) {
+            reversed.pushFront(this.popFront());
+        }
+        this.transferFrom(reversed);
+    }
+
+    @Override
+    public double front() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        double front = this.popFront();
+        this.pushFront(front);
+        return front;
+    }
+
+    @Override
+    public double back() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        double back = this.popBack();
+        this.pushBack(back);
+        return back;
+    }
+
+    @Override
+    public double replaceFront(double x) {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        double oldFront = this.popFront();
+        this.pushFront(x);
+        return oldFront;
+    }
+
+    @Override
+    public double replaceBack(double x) {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        double oldBack = this.popBack();
+        this.pushBack(x);
+        return oldBack;
+    }
+
+    @Override
+    public Spliterator.OfDouble spliterator() {
+        return Spliterators.spliterator(this.iterator(), this.length(),
+                Spliterator.ORDERED);
+    }
+
+    @Override
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(this.spliterator(), false);
+    }
+
+    @Override
+    public DoubleStream parallelStream() {
+        return StreamSupport.doubleStream(this.spliterator(), true);
+    }
+
+    /*
+     * Object methods ----------------------------------------------
+     */
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        PrimitiveIterator.OfDouble it = this.iterator();
+        while (it.hasNext()) {
+            hash = 31 * hash + Double.hashCode(it.nextDouble());
+        }
+        return hash;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DoubleDeque)) {
+            return false;
+        }
+        DoubleDeque objDeque = (DoubleDeque) obj;
+        if (this.length() != objDeque.length()) {
+            return false;
+        }
+
+        //Walk both deques in step, stopping at the first mismatch
+        PrimitiveIterator.OfDouble thisIt = this.iterator();
+        PrimitiveIterator.OfDouble objIt = objDeque.iterator();
+        boolean isEqual = true;
+        while (isEqual && thisIt.hasNext()) {
+            isEqual = Double.doubleToLongBits(thisIt.nextDouble()) == Double
+                    .doubleToLongBits(objIt.nextDouble());
+        }
+        return isEqual;
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder thisStr = new StringBuilder("<");
+        PrimitiveIterator.OfDouble it = this.iterator();
+        if (it.hasNext()) {
+            thisStr.append(it.nextDouble());
+            while (it.hasNext()) {
+                thisStr.append(',').append(it.nextDouble());
+            }
+        }
+        thisStr.append('>');
+        return thisStr.toString();
+    }
+
+}
@@ -0,0 +1,96 @@
+package components.deque;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@code Spliterator} over a range of positions of a {@code Deque} whose
+ * {@code entry} method is O(1), which splits by halving the range of
+ * positions. Used by the array-backed {@code Deque} kernels.
+ *
+ * @param <T>
+ *            type of {@code Deque} entries
+ *
+ * @author Zach Baruch
+ */
+final class EntrySpliterator<T> implements Spliterator<T> {
+
+    /**
+     * The {@code Deque} whose entries are reported.
+     */
+    private final Deque<T> deque;
+
+    /**
+     * Position of the next entry to report.
+     */
+    private int index;
+
+    /**
+     * One past the position of the last entry to report.
+     */
+    private final int fence;
+
+    /**
+     * Constructor from {@code Deque} and range of positions.
+     *
+     * @param deque
+     *            the {@code Deque} whose entries are reported
+     * @param index
+     *            position of the first entry to report
+     * @param fence
+     *            one past the position of the last entry to report
+     * @requires 0 <= index <= fence <= |deque|
+     */
+    EntrySpliterator(Deque<T> deque, int index, int fence) {
+        this.deque = deque;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        assert action != null : "Violation of: action is not null";
+
+        if (this.index < this.fence) {
+            T x = this.deque.entry(this.index);
+            this.index++;
+            action.accept(x);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        assert action != null : "Violation of: action is not null";
+
+        for (int i = this.index; i < this.fence; i++) {
+            action.accept(this.deque.entry(i));
+        }
+        this.index = this.fence;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int mid = (this.index + this.fence) >>> 1;
+        if (mid <= this.index) {
+            return null;
+        }
+        Spliterator<T> prefix = new EntrySpliterator<T>(this.deque,
+                this.index, mid);
+        this.index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.fence - this.index;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+                | Spliterator.NONNULL;
+    }
+
+}
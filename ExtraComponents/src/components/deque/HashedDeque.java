@@ -0,0 +1,267 @@
+package components.deque;
+
+import java.util.Iterator;
+
+/**
+ * {@code Deque} layered on another {@code Deque}, with its hash code
+ * maintained incrementally by every kernel method, {@code flip},
+ * {@code replaceFront} and {@code replaceBack}.
+ *
+ * <p>
+ * {@code hashCode} is O(1), so deques of this type are cheap to use as keys of
+ * hash tables, and {@code equals} between two of them usually rejects unequal
+ * deques without walking them. Every other method costs the same as on the
+ * underlying {@code Deque} plus one call to {@code hashCode} on the entry added
+ * or removed. Entries must not change their hash codes while in {@code this}.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code Deque} entries
+ * @mathdefinitions <pre>
+ * HASH (
+ *   s: string of T
+ *  ) : integer is
+ *  [sum of hash(s[i]) * 31^(|s| - 1 - i) for i = 0, ..., |s| - 1, mod 2^32]
+ * </pre>
+ * @convention <pre>
+ * $this.forwardHash = HASH($this.rep)  and
+ * $this.reverseHash = HASH(rev($this.rep))  and
+ * $this.power = 31^|$this.rep| mod 2^32
+ * </pre>
+ * @correspondence <pre>
+ * this = $this.rep
+ * </pre>
+ */
+public class HashedDeque<T> extends DequeSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Multiplicative inverse of 31 modulo 2^32, used to undo a multiplication
+     * by 31 when an entry is removed.
+     */
+    private static final int INVERSE_31 = 0xbdef7bdf;
+
+    /**
+     * Entries of {@code this}.
+     */
+    private Deque<T> rep;
+
+    /**
+     * Hash of the entries, front to back.
+     */
+    private int forwardHash;
+
+    /**
+     * Hash of the entries, back to front; becomes {@code forwardHash} on
+     * {@code flip}.
+     */
+    private int reverseHash;
+
+    /**
+     * 31 raised to the length of {@code this}.
+     */
+    private int power;
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param entries
+     *            the (empty) {@code Deque} to hold the entries
+     */
+    private void createNewRep(Deque<T> entries) {
+        this.rep = entries;
+        this.forwardHash = 0;
+        this.reverseHash = 0;
+        this.power = 1;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor; entries are held in a {@code Deque5}.
+     */
+    public HashedDeque() {
+        this(new Deque5<T>());
+    }
+
+    /**
+     * Constructor from the {@code Deque} to hold the entries.
+     *
+     * @param entries
+     *            the {@code Deque} to hold the entries
+     * @requires entries = <>
+     */
+    public HashedDeque(Deque<T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+        assert entries.length() == 0 : "Violation of: entries = <>";
+
+        this.createNewRep(entries);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.rep.newInstance());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Deque<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Deque.class)
+                    .newInstance(this.rep.newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(Deque<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof HashedDeque<?> : ""
+                + "Violation of: source is of dynamic type HashedDeque<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * HashedDeque<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        HashedDeque<T> localSource = (HashedDeque<T>) source;
+        this.rep = localSource.rep;
+        this.forwardHash = localSource.forwardHash;
+        this.reverseHash = localSource.reverseHash;
+        this.power = localSource.power;
+        localSource.createNewRep(localSource.rep.newInstance());
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final int length() {
+        return this.rep.length();
+    }
+
+    @Override
+    public final void pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.rep.pushFront(x);
+        int h = x.hashCode();
+        this.forwardHash += h * this.power;
+        this.reverseHash = 31 * this.reverseHash + h;
+        this.power *= 31;
+    }
+
+    @Override
+    public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.rep.pushBack(x);
+        int h = x.hashCode();
+        this.forwardHash = 31 * this.forwardHash + h;
+        this.reverseHash += h * this.power;
+        this.power *= 31;
+    }
+
+    @Override
+    public final T popFront() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        T x = this.rep.popFront();
+        int h = x.hashCode();
+        this.power *= INVERSE_31;
+        this.forwardHash -= h * this.power;
+        this.reverseHash = (this.reverseHash - h) * INVERSE_31;
+        return x;
+    }
+
+    @Override
+    public final T popBack() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        T x = this.rep.popBack();
+        int h = x.hashCode();
+        this.power *= INVERSE_31;
+        this.forwardHash = (this.forwardHash - h) * INVERSE_31;
+        this.reverseHash -= h * this.power;
+        return x;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return this.rep.iterator();
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    final boolean hasCachedHashCode() {
+        return true;
+    }
+
+    @Override
+    public final int hashCode() {
+        return this.forwardHash;
+    }
+
+    @Override
+    public final void flip() {
+        this.rep.flip();
+        int tmp = this.forwardHash;
+        this.forwardHash = this.reverseHash;
+        this.reverseHash = tmp;
+    }
+
+    @Override
+    public final T front() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+        return this.rep.front();
+    }
+
+    @Override
+    public final T back() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+        return this.rep.back();
+    }
+
+    @Override
+    public final T replaceFront(T x) {
+        assert this.length() > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        T oldFront = this.rep.replaceFront(x);
+        int delta = x.hashCode() - oldFront.hashCode();
+        this.forwardHash += delta * this.power * INVERSE_31;
+        this.reverseHash += delta;
+        return oldFront;
+    }
+
+    @Override
+    public final T replaceBack(T x) {
+        assert this.length() > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        T oldBack = this.rep.replaceBack(x);
+        int delta = x.hashCode() - oldBack.hashCode();
+        this.forwardHash += delta;
+        this.reverseHash += delta * this.power * INVERSE_31;
+        return oldBack;
+    }
+
+}
@@ -0,0 +1,137 @@
+package components.deque;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Layered implementations of secondary methods for {@code IntDeque}.
+ */
+public abstract class IntDequeSecondary implements IntDeque {
+
+    /**
+     * Constructor.
+     */
+    public IntDequeSecondary() {
+    }
+
+    /*
+     * Secondary methods ------------------------------------
+     */
+
+    @Override
+    public void flip() {
+        //Move entries one at a time onto the front of a temporary deque
+        IntDeque reversed = this.newInstance();
+        while (this.length() > 0) {
+            reversed.pushFront(this.popFront());
+        }
+        this.transferFrom(reversed);
+    }
+
+    @Override
+    public int front() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        int front = this.popFront();
+        this.pushFront(front);
+        return front;
+    }
+
+    @Override
+    public int back() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        int back = this.popBack();
+        this.pushBack(back);
+        return back;
+    }
+
+    @Override
+    public int replaceFront(int x) {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        int oldFront = this.popFront();
+        this.pushFront(x);
+        return oldFront;
+    }
+
+    @Override
+    public int replaceBack(int x) {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        int oldBack = this.popBack();
+        this.pushBack(x);
+        return oldBack;
+    }
+
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(this.iterator(), this.length(),
+                Spliterator.ORDERED);
+    }
+
+    @Override
+    public IntStream stream() {
+        return StreamSupport.intStream(this.spliterator(), false);
+    }
+
+    @Override
+    public IntStream parallelStream() {
+        return StreamSupport.intStream(this.spliterator(), true);
+    }
+
+    /*
+     * Object methods ----------------------------------------------
+     */
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        PrimitiveIterator.OfInt it = this.iterator();
+        while (it.hasNext()) {
+            hash = 31 * hash + Integer.hashCode(it.nextInt());
+        }
+        return hash;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof IntDeque)) {
+            return false;
+        }
+        IntDeque objDeque = (IntDeque) obj;
+        if (this.length() != objDeque.length()) {
+            return false;
+        }
+
+        //Walk both deques in step, stopping at the first mismatch
+        PrimitiveIterator.OfInt thisIt = this.iterator();
+        PrimitiveIterator.OfInt objIt = objDeque.iterator();
+        boolean isEqual = true;
+        while (isEqual && thisIt.hasNext()) {
+            isEqual = thisIt.nextInt() == objIt.nextInt();
+        }
+        return isEqual;
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder thisStr = new StringBuilder("<");
+        PrimitiveIterator.OfInt it = this.iterator();
+        if (it.hasNext()) {
+            thisStr.append(it.nextInt());
+            while (it.hasNext()) {
+                thisStr.append(',').append(it.nextInt());
+            }
+        }
+        thisStr.append('>');
+        return thisStr.toString();
+    }
+
+}
@@ -0,0 +1,507 @@
+package components.deque;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * {@code LongDeque} represented as a circular {@code long} array ("ring
+ * buffer"), done "bare-handed", with implementations of primary methods.
+ *
+ * <p>
+ * Execution-time performance of {@code pushFront} and {@code pushBack} is
+ * amortized O(1) and {@code popFront} and {@code popBack} are amortized O(1).
+ * All other methods implemented in this class are O(1); {@code flip} only
+ * toggles which end of the array is considered the front.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @convention <pre>
+ * [$this.entries.length is a power of 2]  and
+ * $this.entries.length >= MIN_CAPACITY  and
+ * 0 <= $this.head < $this.entries.length  and
+ * 0 <= $this.length <= $this.entries.length
+ * </pre>
+ *
+ * @correspondence <pre>
+ * if $this.reversed then
+ *  this = rev([$this.entries[($this.head + i) mod $this.entries.length]
+ *   for i = 0, 1, ..., $this.length - 1])
+ * else
+ *  this = [$this.entries[($this.head + i) mod $this.entries.length]
+ *   for i = 0, 1, ..., $this.length - 1]
+ * </pre>
+ */
+public class LongDeque1 extends LongDequeSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Smallest (and initial) capacity of the representation array; must be a
+     * power of 2.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Largest power of 2 that is a legal array length.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The representation array is halved when no more than
+     * {@code 1 / SHRINK_FACTOR} of it is in use.
+     */
+    private static final int SHRINK_FACTOR = 4;
+
+    /**
+     * Circular array of entries.
+     */
+    private long[] entries;
+
+    /**
+     * Index of first occupied slot in {@code entries}.
+     */
+    private int head;
+
+    /**
+     * Number of entries, i.e., length = |this|.
+     */
+    private int length;
+
+    /**
+     * Whether {@code this} runs from the last occupied slot back to
+     * {@code head} rather than from {@code head} forward.
+     */
+    private boolean reversed;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.entries = new long[MIN_CAPACITY];
+        this.head = 0;
+        this.length = 0;
+        this.reversed = false;
+    }
+
+    /**
+     * Reports the position in {@code entries} of the {@code i}-th occupied
+     * slot, counting from {@code head}.
+     *
+     * @param i
+     *            the offset from {@code head}
+     * @return the corresponding position in {@code entries}
+     * @requires -entries.length <= i < 2 * entries.length
+     * @ensures slot = (head + i) mod entries.length
+     */
+    private int slot(int i) {
+        return (this.head + i) & (this.entries.length - 1);
+    }
+
+    /**
+     * Reports the position in {@code entries} of the entry at position
+     * {@code i} of {@code this}, taking orientation into account.
+     *
+     * @param i
+     *            the position in {@code this}
+     * @return the corresponding position in {@code entries}
+     * @requires 0 <= i < |this|
+     * @ensures <pre>
+     * if reversed then  position = slot(length - 1 - i)
+     * else  position = slot(i)
+     * </pre>
+     */
+    private int position(int i) {
+        if (this.reversed) {
+            return this.slot(this.length - 1 - i);
+        }
+        return this.slot(i);
+    }
+
+    /**
+     * Moves the entries of {@code this} into a new array of the given
+     * capacity, with the front entry at position 0.
+     *
+     * @param capacity
+     *            the new capacity
+     * @updates $this.entries, $this.head
+     * @requires <pre>
+     * [capacity is a power of 2]  and
+     * capacity >= $this.length
+     * </pre>
+     * @ensures this = #this
+     */
+    private void resize(int capacity) {
+        long[] newEntries = new long[capacity];
+        int firstPart = Math.min(this.length,
+                this.entries.length - this.head);
+        System.arraycopy(this.entries, this.head, newEntries, 0, firstPart);
+        System.arraycopy(this.entries, 0, newEntries, firstPart,
+                this.length - firstPart);
+        this.entries = newEntries;
+        this.head = 0;
+    }
+
+    /**
+     * Doubles the representation array if it is full.
+     *
+     * @updates $this.entries, $this.head
+     * @ensures this = #this  and  $this.length < $this.entries.length
+     */
+    private void growIfFull() {
+        if (this.length == this.entries.length) {
+            assert this.entries.length < MAX_CAPACITY : ""
+                    + "Violation of: |this| < 2^30";
+            this.resize(this.entries.length * 2);
+        }
+    }
+
+    /**
+     * Halves the representation array if it is sparsely used.
+     *
+     * @updates $this.entries, $this.head
+     * @ensures this = #this
+     */
+    private void shrinkIfSparse() {
+        if (this.entries.length > MIN_CAPACITY
+                && this.length <= this.entries.length / SHRINK_FACTOR) {
+            this.resize(this.entries.length / 2);
+        }
+    }
+
+    /**
+     * Adds {@code x} before {@code head}.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates $this.entries, $this.head, $this.length
+     */
+    private void addFirst(long x) {
+        this.growIfFull();
+        this.head = this.slot(-1);
+        this.entries[this.head] = x;
+        this.length++;
+    }
+
+    /**
+     * Adds {@code x} after the last occupied slot.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates $this.entries, $this.head, $this.length
+     */
+    private void addLast(long x) {
+        this.growIfFull();
+        this.entries[this.slot(this.length)] = x;
+        this.length++;
+    }
+
+    /**
+     * Removes and returns the entry at {@code head}.
+     *
+     * @return the entry removed
+     * @updates $this.entries, $this.head, $this.length
+     * @requires $this.length > 0
+     */
+    private long removeFirst() {
+        long first = this.entries[this.head];
+        this.head = this.slot(1);
+        this.length--;
+
+        this.shrinkIfSparse();
+        return first;
+    }
+
+    /**
+     * Removes and returns the entry in the last occupied slot.
+     *
+     * @return the entry removed
+     * @updates $this.entries, $this.head, $this.length
+     * @requires $this.length > 0
+     */
+    private long removeLast() {
+        long last = this.entries[this.slot(this.length - 1)];
+        this.length--;
+
+        this.shrinkIfSparse();
+        return last;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public LongDeque1() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final LongDeque newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(LongDeque source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof LongDeque1 : ""
+                + "Violation of: source is of dynamic type LongDeque1";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        LongDeque1 localSource = (LongDeque1) source;
+        this.entries = localSource.entries;
+        this.head = localSource.head;
+        this.length = localSource.length;
+        this.reversed = localSource.reversed;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final int length() {
+        return this.length;
+    }
+
+    @Override
+    public final void pushFront(long x) {
+        if (this.reversed) {
+            this.addLast(x);
+        } else {
+            this.addFirst(x);
+        }
+    }
+
+    @Override
+    public final void pushBack(long x) {
+        if (this.reversed) {
+            this.addFirst(x);
+        } else {
+            this.addLast(x);
+        }
+    }
+
+    @Override
+    public final long popFront() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.removeLast();
+        }
+        return this.removeFirst();
+    }
+
+    @Override
+    public final long popBack() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.removeFirst();
+        }
+        return this.removeLast();
+    }
+
+    @Override
+    public final PrimitiveIterator.OfLong iterator() {
+        return new LongDeque1Iterator();
+    }
+
+    /**
+     * Implementation of {@code PrimitiveIterator.OfLong} interface for
+     * {@code LongDeque1}.
+     */
+    private final class LongDeque1Iterator
+            implements PrimitiveIterator.OfLong {
+
+        /**
+         * Position in {@code this} of the next entry to be returned.
+         */
+        private int position;
+
+        /**
+         * No-argument constructor.
+         */
+        private LongDeque1Iterator() {
+            this.position = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < LongDeque1.this.length;
+        }
+
+        @Override
+        public long nextLong() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            long x = LongDeque1.this.entries[LongDeque1.this
+                    .position(this.position)];
+            this.position++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void flip() {
+        this.reversed = !this.reversed;
+    }
+
+    @Override
+    public final long front() {
+        assert this.length > 0 : "Violation of: this /= <>";
+        return this.entries[this.position(0)];
+    }
+
+    @Override
+    public final long back() {
+        assert this.length > 0 : "Violation of: this /= <>";
+        return this.entries[this.position(this.length - 1)];
+    }
+
+    @Override
+    public final long replaceFront(long x) {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        int frontSlot = this.position(0);
+        long oldFront = this.entries[frontSlot];
+        this.entries[frontSlot] = x;
+        return oldFront;
+    }
+
+    @Override
+    public final long replaceBack(long x) {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        int backSlot = this.position(this.length - 1);
+        long oldBack = this.entries[backSlot];
+        this.entries[backSlot] = x;
+        return oldBack;
+    }
+
+    @Override
+    public final Spliterator.OfLong spliterator() {
+        return new LongDeque1Spliterator(0, this.length);
+    }
+
+    /**
+     * Implementation of {@code Spliterator.OfLong} interface for
+     * {@code LongDeque1}: a range of positions in {@code this}, split by
+     * halving the range.
+     */
+    private final class LongDeque1Spliterator implements Spliterator.OfLong {
+
+        /**
+         * Position in {@code this} of the next entry to report.
+         */
+        private int index;
+
+        /**
+         * One past the position in {@code this} of the last entry to report.
+         */
+        private final int fence;
+
+        /**
+         * Constructor from range of positions.
+         *
+         * @param index
+         *            position of the first entry to report
+         * @param fence
+         *            one past the position of the last entry to report
+         */
+        private LongDeque1Spliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            assert action != null : "Violation of: action is not null";
+
+            if (this.index < this.fence) {
+                long x = LongDeque1.this.entries[LongDeque1.this
+                        .position(this.index)];
+                this.index++;
+                action.accept(x);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            assert action != null : "Violation of: action is not null";
+
+            for (int i = this.index; i < this.fence; i++) {
+                action.accept(LongDeque1.this.entries[LongDeque1.this
+                        .position(i)]);
+            }
+            this.index = this.fence;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            int mid = (this.index + this.fence) >>> 1;
+            if (mid <= this.index) {
+                return null;
+            }
+            Spliterator.OfLong prefix = new LongDeque1Spliterator(this.index,
+                    mid);
+            this.index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                    | Spliterator.SUBSIZED;
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package components.deque;
+
+import java.util.PrimitiveIterator;
+
+import components.standard.Standard;
+
+/**
+ * Double-ended queue of {@code long} with primary methods; a primitive
+ * analogue of {@code DequeKernel<Long>} that stores its entries unboxed.
+ *
+ * @author Zach Baruch
+ *
+ * @mathmodel <pre>
+ * type LongDequeKernel is modeled by string of long
+ * </pre>
+ * @initially <pre>
+ * ():
+ *   ensures
+ *   this = <>
+ * </pre>
+ */
+public interface LongDequeKernel
+        extends Standard<LongDeque>, Iterable<Long> {
+
+    /**
+     * Reports length of {@code this}.
+     *
+     * @return the length of {@code this}
+     * @ensures length = |this|
+     */
+    int length();
+
+    /**
+     * Adds {@code x} to the front of {@code this}.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates this
+     * @ensures this = {@literal <x>} * #this
+     */
+    void pushFront(long x);
+
+    /**
+     * Adds {@code x} to the back of {@code this}.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates this
+     * @ensures this = #this * {@literal <x>}
+     */
+    void pushBack(long x);
+
+    /**
+     * Removes x from the front of {@code this}.
+     *
+     * @return the entry removed
+     * @updates this
+     * @requires this /= <>
+     * @ensures #this = {@literal <popFront>} * this
+     */
+    long popFront();
+
+    /**
+     * Removes x from the back of {@code this}.
+     *
+     * @return the entry removed
+     * @updates this
+     * @requires this /= <>
+     * @ensures #this = this * {@literal <popBack>}
+     */
+    long popBack();
+
+    /**
+     * Returns an iterator over the entries of {@code this}, front to back,
+     * that can report them without boxing.
+     *
+     * @return an iterator over the entries of {@code this}
+     * @ensures ~iterator.unseen = this  and  ~iterator.seen = <>
+     */
+    @Override
+    PrimitiveIterator.OfLong iterator();
+
+}
@@ -0,0 +1,137 @@
+package components.deque;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Layered implementations of secondary methods for {@code LongDeque}.
+ */
+public abstract class LongDequeSecondary implements LongDeque {
+
+    /**
+     * Constructor.
+     */
+    public LongDequeSecondary() {
+    }
+
+    /*
+     * Secondary methods ------------------------------------
+     */
+
+    @Override
+    public void flip() {
+        //Move entries one at a time onto the front of a temporary deque
+        LongDeque reversed = this.newInstance();
+        while (this.length() > 0) {
+            reversed.pushFront(this.popFront());
+        }
+        this.transferFrom(reversed);
+    }
+
+    @Override
+    public long front() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        long front = this.popFront();
+        this.pushFront(front);
+        return front;
+    }
+
+    @Override
+    public long back() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        long back = this.popBack();
+        this.pushBack(back);
+        return back;
+    }
+
+    @Override
+    public long replaceFront(long x) {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        long oldFront = this.popFront();
+        this.pushFront(x);
+        return oldFront;
+    }
+
+    @Override
+    public long replaceBack(long x) {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        long oldBack = this.popBack();
+        this.pushBack(x);
+        return oldBack;
+    }
+
+    @Override
+    public Spliterator.OfLong spliterator() {
+        return Spliterators.spliterator(this.iterator(), this.length(),
+                Spliterator.ORDERED);
+    }
+
+    @Override
+    public LongStream stream() {
+        return StreamSupport.longStream(this.spliterator(), false);
+    }
+
+    @Override
+    public LongStream parallelStream() {
+        return StreamSupport.longStream(this.spliterator(), true);
+    }
+
+    /*
+     * Object methods ----------------------------------------------
+     */
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        PrimitiveIterator.OfLong it = this.iterator();
+        while (it.hasNext()) {
+            hash = 31 * hash + Long.hashCode(it.nextLong());
+        }
+        return hash;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof LongDeque)) {
+            return false;
+        }
+        LongDeque objDeque = (LongDeque) obj;
+        if (this.length() != objDeque.length()) {
+            return false;
+        }
+
+        //Walk both deques in step, stopping at the first mismatch
+        PrimitiveIterator.OfLong thisIt = this.iterator();
+        PrimitiveIterator.OfLong objIt = objDeque.iterator();
+        boolean isEqual = true;
+        while (isEqual && thisIt.hasNext()) {
+            isEqual = thisIt.nextLong() == objIt.nextLong();
+        }
+        return isEqual;
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder thisStr = new StringBuilder("<");
+        PrimitiveIterator.OfLong it = this.iterator();
+        if (it.hasNext()) {
+            thisStr.append(it.nextLong());
+            while (it.hasNext()) {
+                thisStr.append(',').append(it.nextLong());
+            }
+        }
+        thisStr.append('>');
+        return thisStr.toString();
+    }
+
+}
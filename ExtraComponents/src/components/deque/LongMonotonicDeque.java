@@ -0,0 +1,275 @@
+package components.deque;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Sliding window of {@code long} samples that reports their minimum or
+ * maximum in O(1); the primitive counterpart of {@code MonotonicDeque}, which
+ * avoids boxing each sample and calling a {@code Comparator}.
+ *
+ * <p>
+ * {@code offer} is amortized O(1); {@code currentExtreme} and {@code length}
+ * are O(1).
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @mathmodel <pre>
+ * type LongMonotonicDeque is modeled by string of integer
+ * </pre>
+ * @initially <pre>
+ * (boolean maximum):
+ *   ensures
+ *   this = <>
+ * </pre>
+ * @convention <pre>
+ * [$this.values.length is a power of 2]  and
+ * $this.values.length = $this.seqs.length  and
+ * 0 <= $this.head < $this.values.length  and
+ * 0 <= $this.count <= $this.values.length  and
+ * $this.expired <= $this.offered  and
+ * [the sequence numbers of the candidates values[(head + i) mod
+ *  values.length], for i = 0, 1, ..., count - 1, are strictly increasing, at
+ *  least $this.expired, and less than $this.offered]  and
+ * [if $this.maximum then the candidates are strictly decreasing, and
+ *  otherwise strictly increasing]  and
+ * [if $this.count = 0 then $this.expired = $this.offered, and otherwise the
+ *  last candidate has sequence number $this.offered - 1]
+ * </pre>
+ * @correspondence <pre>
+ * this = [the samples offered with sequence numbers $this.expired, ...,
+ *  $this.offered - 1, of which only the candidates are retained]
+ * </pre>
+ */
+public class LongMonotonicDeque {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the circular arrays; must be a power of 2.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Whether the greatest, rather than the least, sample is reported.
+     */
+    private final boolean maximum;
+
+    /**
+     * Circular array of candidate samples.
+     */
+    private long[] values;
+
+    /**
+     * Sequence numbers of the candidates, parallel to {@code values}.
+     */
+    private long[] seqs;
+
+    /**
+     * Index of the front candidate in {@code values}.
+     */
+    private int head;
+
+    /**
+     * Number of candidates.
+     */
+    private int count;
+
+    /**
+     * Number of samples ever offered, i.e., the next sequence number.
+     */
+    private long offered;
+
+    /**
+     * Sequence number of the oldest sample still in the window.
+     */
+    private long expired;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.values = new long[INITIAL_CAPACITY];
+        this.seqs = new long[INITIAL_CAPACITY];
+        this.head = 0;
+        this.count = 0;
+        this.offered = 0;
+        this.expired = 0;
+    }
+
+    /**
+     * Reports the position in the circular arrays of the {@code i}-th
+     * candidate.
+     *
+     * @param i
+     *            the offset from {@code head}
+     * @return the corresponding position
+     * @ensures slot = (head + i) mod values.length
+     */
+    private int slot(int i) {
+        return (this.head + i) & (this.values.length - 1);
+    }
+
+    /**
+     * Doubles the circular arrays, moving the front candidate to position 0.
+     *
+     * @updates $this.values, $this.seqs, $this.head
+     */
+    private void grow() {
+        int capacity = this.values.length;
+        long[] newValues = new long[capacity * 2];
+        long[] newSeqs = new long[capacity * 2];
+        int firstPart = Math.min(this.count, capacity - this.head);
+        System.arraycopy(this.values, this.head, newValues, 0, firstPart);
+        System.arraycopy(this.values, 0, newValues, firstPart,
+                this.count - firstPart);
+        System.arraycopy(this.seqs, this.head, newSeqs, 0, firstPart);
+        System.arraycopy(this.seqs, 0, newSeqs, firstPart,
+                this.count - firstPart);
+        this.values = newValues;
+        this.seqs = newSeqs;
+        this.head = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from kind of extreme.
+     *
+     * @param maximum
+     *            whether {@code currentExtreme} reports the greatest, rather
+     *            than the least, sample
+     */
+    public LongMonotonicDeque(boolean maximum) {
+        this.maximum = maximum;
+        this.createNewRep();
+    }
+
+    /*
+     * Public methods ---------------------------------------------------------
+     */
+
+    /**
+     * Resets {@code this} to an empty window.
+     *
+     * @clears this
+     */
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    /**
+     * Reports the number of samples in the window.
+     *
+     * @return |this|
+     * @ensures length = |this|
+     */
+    public final int length() {
+        return (int) (this.offered - this.expired);
+    }
+
+    /**
+     * Adds {@code x} to the back of the window.
+     *
+     * @param x
+     *            the sample to be added
+     * @updates this
+     * @requires |this| < Integer.MAX_VALUE
+     * @ensures this = #this * {@literal <x>}
+     */
+    public final void offer(long x) {
+        assert this.length() < Integer.MAX_VALUE : ""
+                + "Violation of: |this| < Integer.MAX_VALUE";
+
+        //Evict candidates that x dominates; they can never be reported
+        if (this.maximum) {
+            while (this.count > 0
+                    && x >= this.values[this.slot(this.count - 1)]) {
+                this.count--;
+            }
+        } else {
+            while (this.count > 0
+                    && x <= this.values[this.slot(this.count - 1)]) {
+                this.count--;
+            }
+        }
+
+        if (this.count == this.values.length) {
+            this.grow();
+        }
+        int last = this.slot(this.count);
+        this.values[last] = x;
+        this.seqs[last] = this.offered;
+        this.count++;
+        this.offered++;
+    }
+
+    /**
+     * Removes the {@code n} oldest samples from the window.
+     *
+     * @param n
+     *            the number of samples to remove
+     * @updates this
+     * @requires 0 <= n <= |this|
+     * @ensures this = #this[n, |#this|)
+     */
+    public final void expireFront(int n) {
+        assert 0 <= n : "Violation of: 0 <= n";
+        assert n <= this.length() : "Violation of: n <= |this|";
+
+        this.expired += n;
+        while (this.count > 0 && this.seqs[this.head] < this.expired) {
+            this.head = this.slot(1);
+            this.count--;
+        }
+    }
+
+    /**
+     * Removes the oldest samples from the window for as long as they are
+     * {@code stale}. Only candidates are tested; samples already evicted by
+     * {@code offer} leave the window along with the next stale candidate.
+     *
+     * @param stale
+     *            reports whether a sample should leave the window
+     * @updates this
+     * @requires <pre>
+     * [if stale holds for an entry of this, it holds for every earlier entry]
+     * </pre>
+     * @ensures <pre>
+     * this = #this[j, |#this|) for some j such that
+     *  [stale holds for every candidate of #this[0, j)]  and
+     *  (this = <>  or  [stale does not hold for the extreme entry of this])
+     * </pre>
+     */
+    public final void expireFront(LongPredicate stale) {
+        assert stale != null : "Violation of: stale is not null";
+
+        while (this.count > 0 && stale.test(this.values[this.head])) {
+            this.expired = this.seqs[this.head] + 1;
+            this.head = this.slot(1);
+            this.count--;
+        }
+    }
+
+    /**
+     * Reports the least (or, if constructed with {@code maximum} true, the
+     * greatest) sample in the window.
+     *
+     * @return the extreme sample in {@code this}
+     * @requires this /= <>
+     * @ensures <pre>
+     * currentExtreme is in entries(this)  and
+     * [currentExtreme is the least (greatest) entry of this]
+     * </pre>
+     */
+    public final long currentExtreme() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        return this.values[this.head];
+    }
+
+}
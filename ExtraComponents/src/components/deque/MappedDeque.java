@@ -0,0 +1,1156 @@
+package components.deque;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+import components.codec.Codec;
+
+/**
+ * {@code Deque} stored in a memory-mapped file, so that its value survives
+ * the process, with implementations of primary methods.
+ *
+ * <p>
+ * The file holds a header page followed by a fixed-size data region used as a
+ * ring of records, each framed as {@code [length][bytes][length]} so it can be
+ * walked from either end; a record never straddles the end of the region (the
+ * unused bytes it would have straddled form a "gap" that walks skip). Entries
+ * are converted to and from bytes by a {@code Codec}, and {@code frontBuffer}
+ * and {@code backBuffer} give read-only views of the bytes of the front and
+ * back entries without copying them.
+ * </p>
+ *
+ * <p>
+ * Updates change the mapped data immediately but are made durable only by
+ * {@code force}, which commits all updates since the previous one as a group:
+ * it flushes the data, then writes the new head, tail and length to whichever
+ * of two header slots holds the older state, with a checksum, and flushes
+ * again. Opening an existing file recovers the newest header slot with a valid
+ * checksum, i.e., the value at the last {@code force} (or {@code close}), and
+ * checks that its records are framed consistently. A push that would
+ * overwrite bytes still belonging to the last committed value commits first,
+ * so a crash can never corrupt it.
+ * </p>
+ *
+ * <p>
+ * Methods made of several pops and pushes ({@code replaceEntry},
+ * {@code rotate}, {@code transferFrom}, and {@code replaceFront} and
+ * {@code replaceBack} when the new encoding is of a different length) never
+ * commit a value between their steps, which could be missing entries they
+ * hold aside: they commit the current value first, then push only into bytes
+ * it does not use. If the data region has no room for that, they reuse its
+ * bytes and commit their result as soon as they finish, so only a crash
+ * during the method itself can damage the last committed value. When the new
+ * encoding is of the same length, {@code replaceFront} and
+ * {@code replaceBack} rewrite the record in place.
+ * </p>
+ *
+ * <p>
+ * Kernel methods are O(1) plus the cost of the {@code Codec}; {@code flip} is
+ * O(1). {@code pushAllFront}, {@code replaceEntry} and {@code rotate} work in
+ * place, holding the entries they move in a temporary {@code Deque5} on the
+ * heap, so they create no files. Methods throw
+ * {@code UncheckedIOException} if the file cannot be read or written. Pushes
+ * require room for the new entry in the data region (see
+ * {@code hasRoomFor}); the region is at most 2 GB and is not resized.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code Deque} entries
+ * @convention <pre>
+ * 0 <= $this.head <= $this.capacity  and  0 <= $this.tail <= $this.capacity
+ *  and
+ * [if $this.gapStart = NO_GAP then the records lie in [head, tail), else
+ *  they lie in [head, gapStart) and [gapEnd, tail), both non-empty, with
+ *  tail <= head]  and
+ * [the records are consecutive and each is framed with matching leading and
+ *  trailing lengths]  and
+ * $this.count = [number of records]  and
+ * [the committed fields describe the value at the last commit, which is
+ *  also what the newest valid header slot holds]  and
+ * [if not $this.overwritten, the bytes of the committed records have not
+ *  been overwritten since]  and
+ * [if $this.overwritten then $this.updating]  and
+ * [$this.map = null only after close]
+ * </pre>
+ * @correspondence <pre>
+ * if $this.reversed then
+ *  this = rev([decoded records, from head to tail, skipping the gap])
+ * else
+ *  this = [decoded records, from head to tail, skipping the gap]
+ * </pre>
+ */
+public class MappedDeque<T> extends DequeSecondary<T> implements Closeable {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Size of the header page at the start of the file.
+     */
+    private static final int HEADER_SIZE = 4096;
+
+    /**
+     * Size of each of the two header slots.
+     */
+    private static final int SLOT_SIZE = 64;
+
+    /**
+     * Number of bytes of a header slot covered by its checksum.
+     */
+    private static final int SLOT_DATA = 44;
+
+    /**
+     * Identifies a file written by this class.
+     */
+    private static final int MAGIC = 0x4D44514B;
+
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Bytes of framing around each record: a leading and a trailing length.
+     */
+    private static final int FRAME = 2 * Integer.BYTES;
+
+    /**
+     * Value of {@code gapStart} when the records do not wrap around.
+     */
+    private static final int NO_GAP = -1;
+
+    /**
+     * Converts entries to and from bytes.
+     */
+    private final Codec<T> codec;
+
+    /**
+     * The file being mapped.
+     */
+    private final Path file;
+
+    /**
+     * Mapping of the whole file, or {@code null} once {@code this} is closed.
+     */
+    private MappedByteBuffer map;
+
+    /**
+     * Size of the data region, which follows the header page.
+     */
+    private final int capacity;
+
+    /**
+     * Offset in the data region of the first record.
+     */
+    private int head;
+
+    /**
+     * Offset in the data region just past the last record.
+     */
+    private int tail;
+
+    /**
+     * Offset at which the gap starts, or {@code NO_GAP}.
+     */
+    private int gapStart;
+
+    /**
+     * Offset at which the gap ends, i.e., where the records continue.
+     */
+    private int gapEnd;
+
+    /**
+     * Number of records.
+     */
+    private int count;
+
+    /**
+     * Whether {@code this} runs from tail to head.
+     */
+    private boolean reversed;
+
+    /**
+     * Sequence number of the last commit.
+     */
+    private long seq;
+
+    /**
+     * {@code head} at the last commit.
+     */
+    private int committedHead;
+
+    /**
+     * {@code tail} at the last commit.
+     */
+    private int committedTail;
+
+    /**
+     * {@code gapStart} at the last commit.
+     */
+    private int committedGapStart;
+
+    /**
+     * {@code gapEnd} at the last commit.
+     */
+    private int committedGapEnd;
+
+    /**
+     * {@code count} at the last commit.
+     */
+    private int committedCount;
+
+    /**
+     * Whether there are updates since the last commit.
+     */
+    private boolean dirty;
+
+    /**
+     * Whether an update made of several pops and pushes is in progress, so
+     * that pushes must not commit.
+     */
+    private boolean updating;
+
+    /**
+     * Whether the update in progress has overwritten bytes of the last
+     * committed value.
+     */
+    private boolean overwritten;
+
+    /**
+     * Whether {@code file} is a temporary file created by {@code newInstance},
+     * to be deleted by {@code close}.
+     */
+    private boolean temporary;
+
+    /**
+     * Reports the int stored at offset {@code pos} of the data region.
+     *
+     * @param pos
+     *            the offset
+     * @return the int at {@code pos}
+     */
+    private int intAt(int pos) {
+        return this.map.getInt(HEADER_SIZE + pos);
+    }
+
+    /**
+     * Returns a read-only view of the bytes of the record starting at offset
+     * {@code pos} of the data region.
+     *
+     * @param pos
+     *            offset of the record
+     * @return the bytes of the record, without framing
+     */
+    private ByteBuffer record(int pos) {
+        int n = this.intAt(pos);
+        ByteBuffer b = this.map.duplicate();
+        b.position(HEADER_SIZE + pos + Integer.BYTES);
+        b.limit(HEADER_SIZE + pos + Integer.BYTES + n);
+        return b.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Reports the offset of the record after the one at offset {@code pos}.
+     *
+     * @param pos
+     *            offset of a record
+     * @return offset of the next record, or {@code tail}
+     */
+    private int nextRecord(int pos) {
+        int next = pos + this.intAt(pos) + FRAME;
+        if (next == this.gapStart) {
+            next = this.gapEnd;
+        }
+        return next;
+    }
+
+    /**
+     * Reports the offset of the record that ends at offset {@code end}.
+     *
+     * @param end
+     *            offset just past a record
+     * @return offset of that record
+     */
+    private int recordEndingAt(int end) {
+        int e = end;
+        if (this.gapStart != NO_GAP && e == this.gapEnd) {
+            e = this.gapStart;
+        }
+        return e - this.intAt(e - Integer.BYTES) - FRAME;
+    }
+
+    /**
+     * Reports whether the bytes in {@code [from, to)} of the data region hold
+     * part of a committed record.
+     *
+     * @param from
+     *            start of the range
+     * @param to
+     *            end of the range
+     * @return whether they overlap a committed record
+     */
+    private boolean overlapsCommitted(int from, int to) {
+        if (this.committedCount == 0) {
+            return false;
+        }
+        if (this.committedGapStart == NO_GAP) {
+            return from < this.committedTail && this.committedHead < to;
+        }
+        return (from < this.committedGapStart && this.committedHead < to)
+                || (from < this.committedTail && this.committedGapEnd < to);
+    }
+
+    /**
+     * Reports where a new record of {@code size} bytes, with framing, would go
+     * at the head end ({@code atTail} false) or tail end ({@code atTail}
+     * true), or -1 if there is no room.
+     *
+     * @param size
+     *            size of the record, with framing
+     * @param atTail
+     *            whether the record goes after the last record
+     * @return offset of the new record, or -1
+     */
+    private int placement(int size, boolean atTail) {
+        if (this.count == 0) {
+            return 0;
+        }
+        if (this.gapStart != NO_GAP) {
+            if (this.head - this.tail < size) {
+                return -1;
+            }
+            if (atTail) {
+                return this.tail;
+            }
+            return this.head - size;
+        }
+        if (atTail) {
+            if (this.capacity - this.tail >= size) {
+                return this.tail;
+            } else if (this.head >= size) {
+                return 0;
+            }
+        } else {
+            if (this.head >= size) {
+                return this.head - size;
+            } else if (this.capacity - this.tail >= size) {
+                return this.capacity - size;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Encodes {@code x} as a new record at the head end ({@code atTail} false)
+     * or tail end ({@code atTail} true).
+     *
+     * @param x
+     *            the entry to be added
+     * @param atTail
+     *            whether to add after the last record
+     * @updates this
+     */
+    private void add(T x, boolean atTail) {
+        int n = this.codec.length(x);
+        int size = n + FRAME;
+        int pos = this.placement(size, atTail);
+        assert pos >= 0 : "Violation of: [there is room for x]";
+        if (this.overlapsCommitted(pos, pos + size)) {
+            if (this.updating) {
+                //Part of an update is no value of this; commit once it ends
+                this.overwritten = true;
+            } else {
+                //Make the current value durable so its bytes can be reused
+                this.force();
+            }
+        }
+
+        ByteBuffer b = this.map.duplicate();
+        b.position(HEADER_SIZE + pos);
+        b.putInt(n);
+        this.codec.encode(x, b);
+        assert b.position() == HEADER_SIZE + pos + Integer.BYTES + n : ""
+                + "Violation of: [codec writes length(x) bytes]";
+        b.putInt(n);
+
+        if (this.count == 0) {
+            this.head = pos;
+            this.tail = pos + size;
+            this.gapStart = NO_GAP;
+        } else if (atTail) {
+            if (this.gapStart == NO_GAP && pos < this.tail) {
+                //Wrapped to the start; the rest of the region is the gap
+                this.gapStart = this.tail;
+                this.gapEnd = 0;
+            }
+            this.tail = pos + size;
+        } else {
+            if (this.gapStart == NO_GAP && pos > this.head) {
+                //Wrapped to the end; the start of the region is the gap
+                this.gapStart = this.capacity;
+                this.gapEnd = this.head;
+            }
+            this.head = pos;
+        }
+        this.count++;
+        this.dirty = true;
+    }
+
+    /**
+     * Removes the record at the head end ({@code atTail} false) or tail end
+     * ({@code atTail} true) and decodes it.
+     *
+     * @param atTail
+     *            whether to remove the last record
+     * @return the entry removed
+     * @updates this
+     * @requires this /= <>
+     */
+    private T remove(boolean atTail) {
+        T x;
+        if (atTail) {
+            int pos = this.recordEndingAt(this.tail);
+            x = this.codec.decode(this.record(pos));
+            this.tail = pos;
+            if (this.gapStart != NO_GAP && this.tail == this.gapEnd) {
+                this.tail = this.gapStart;
+                this.gapStart = NO_GAP;
+            }
+        } else {
+            x = this.codec.decode(this.record(this.head));
+            this.head += this.intAt(this.head) + FRAME;
+            if (this.head == this.gapStart) {
+                this.head = this.gapEnd;
+                this.gapStart = NO_GAP;
+            }
+        }
+        this.count--;
+        this.dirty = true;
+        return x;
+    }
+
+    /**
+     * Replaces the entry at the head end ({@code atTail} false) or tail end
+     * ({@code atTail} true) with {@code x}, rewriting its record in place if
+     * the encoding of {@code x} is of the same length.
+     *
+     * @param x
+     *            the new entry
+     * @param atTail
+     *            whether to replace the last record
+     * @return the entry replaced
+     * @updates this
+     * @requires this /= <>  and  [there is room for x in the data region]
+     */
+    private T replace(T x, boolean atTail) {
+        int pos;
+        if (atTail) {
+            pos = this.recordEndingAt(this.tail);
+        } else {
+            pos = this.head;
+        }
+        T old = this.codec.decode(this.record(pos));
+        int n = this.intAt(pos);
+        if (this.codec.length(x) == n) {
+            if (this.overlapsCommitted(pos, pos + n + FRAME)) {
+                //Commit first, so the rewrite changes that value only to this
+                this.force();
+            }
+            ByteBuffer b = this.map.duplicate();
+            b.position(HEADER_SIZE + pos + Integer.BYTES);
+            this.codec.encode(x, b);
+            assert b.position() == HEADER_SIZE + pos + Integer.BYTES + n : ""
+                    + "Violation of: [codec writes length(x) bytes]";
+            this.dirty = true;
+        } else {
+            this.beginUpdate();
+            try {
+                this.remove(atTail);
+                this.add(x, atTail);
+            } finally {
+                this.endUpdate();
+            }
+        }
+        return old;
+    }
+
+    /**
+     * Starts an update made of several pops and pushes, so that no value
+     * between them is committed: commits the current value, so that pushes
+     * overlap committed bytes only if there is no room for them besides it,
+     * and stops pushes from committing.
+     */
+    private void beginUpdate() {
+        this.force();
+        this.updating = true;
+        this.overwritten = false;
+    }
+
+    /**
+     * Ends the update started by {@code beginUpdate}, committing at once if
+     * it overwrote bytes of the last committed value.
+     */
+    private void endUpdate() {
+        this.updating = false;
+        if (this.overwritten) {
+            this.overwritten = false;
+            this.force();
+        }
+    }
+
+    /**
+     * Writes the current state to header slot {@code slot} with sequence
+     * number {@code s} and a checksum.
+     *
+     * @param slot
+     *            the slot, 0 or 1
+     * @param s
+     *            the sequence number
+     */
+    private void writeHeader(int slot, long s) {
+        ByteBuffer b = this.map.duplicate();
+        b.position(slot * SLOT_SIZE);
+        b.putInt(MAGIC);
+        b.putInt(VERSION);
+        b.putLong(s);
+        b.putInt(this.capacity);
+        b.putInt(this.head);
+        b.putInt(this.tail);
+        b.putInt(this.gapStart);
+        b.putInt(this.gapEnd);
+        b.putInt(this.count);
+        b.putInt(this.reversed ? 1 : 0);
+        b.putInt(checksum(this.map, slot));
+    }
+
+    /**
+     * Computes the checksum of the data of header slot {@code slot}.
+     *
+     * @param map
+     *            the mapping
+     * @param slot
+     *            the slot, 0 or 1
+     * @return the checksum
+     */
+    private static int checksum(ByteBuffer map, int slot) {
+        ByteBuffer b = map.duplicate();
+        b.position(slot * SLOT_SIZE);
+        b.limit(slot * SLOT_SIZE + SLOT_DATA);
+        CRC32 crc = new CRC32();
+        crc.update(b);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Reports whether header slot {@code slot} holds a valid header.
+     *
+     * @param map
+     *            the mapping
+     * @param slot
+     *            the slot, 0 or 1
+     * @return whether the slot is valid
+     */
+    private static boolean validSlot(ByteBuffer map, int slot) {
+        int base = slot * SLOT_SIZE;
+        return map.getInt(base) == MAGIC
+                && map.getInt(base + Integer.BYTES) == VERSION
+                && map.getInt(base + SLOT_DATA) == checksum(map, slot);
+    }
+
+    /**
+     * Loads the current and committed state from the newest valid header
+     * slot and checks the framing of the records it describes.
+     *
+     * @throws IOException
+     *             if there is no valid header or the records are damaged
+     */
+    private void recover() throws IOException {
+        int slot = -1;
+        long best = -1;
+        for (int s = 0; s < 2; s++) {
+            if (validSlot(this.map, s)) {
+                long slotSeq = this.map.getLong(s * SLOT_SIZE + 8);
+                if (slotSeq > best) {
+                    best = slotSeq;
+                    slot = s;
+                }
+            }
+        }
+        if (slot < 0) {
+            throw new IOException(
+                    "No valid MappedDeque header in " + this.file);
+        }
+        ByteBuffer b = this.map.duplicate();
+        b.position(slot * SLOT_SIZE + 16);
+        if (b.getInt() != this.capacity) {
+            throw new IOException(
+                    "Data region size does not match " + this.file);
+        }
+        this.seq = best;
+        this.head = b.getInt();
+        this.tail = b.getInt();
+        this.gapStart = b.getInt();
+        this.gapEnd = b.getInt();
+        this.count = b.getInt();
+        this.reversed = b.getInt() != 0;
+        this.markCommitted();
+
+        //Walk the records, checking their framing
+        int pos = this.head;
+        for (int i = 0; i < this.count; i++) {
+            if (pos < 0 || pos > this.capacity - FRAME) {
+                throw new IOException("Damaged record in " + this.file);
+            }
+            int n = this.intAt(pos);
+            if (n < 0 || n > this.capacity - FRAME - pos
+                    || this.intAt(pos + Integer.BYTES + n) != n) {
+                throw new IOException("Damaged record in " + this.file);
+            }
+            pos = this.nextRecord(pos);
+        }
+        if (this.count > 0 && pos != this.tail) {
+            throw new IOException("Damaged record in " + this.file);
+        }
+    }
+
+    /**
+     * Records the current state as the committed one.
+     */
+    private void markCommitted() {
+        this.committedHead = this.head;
+        this.committedTail = this.tail;
+        this.committedGapStart = this.gapStart;
+        this.committedGapEnd = this.gapEnd;
+        this.committedCount = this.count;
+        this.dirty = false;
+    }
+
+    /**
+     * Resets the current state to empty, without committing it.
+     */
+    private void createNewRep() {
+        this.head = 0;
+        this.tail = 0;
+        this.gapStart = NO_GAP;
+        this.gapEnd = 0;
+        this.count = 0;
+        this.reversed = false;
+        this.dirty = true;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from file, data region size and codec. If {@code file} is
+     * empty or does not exist, it is created with a data region of
+     * {@code capacity} bytes and {@code this = <>}; otherwise {@code this} is
+     * the value committed in it, and {@code capacity} must match.
+     *
+     * @param file
+     *            the file holding the deque
+     * @param capacity
+     *            size of the data region, in bytes
+     * @param codec
+     *            converts entries to and from bytes
+     * @throws IOException
+     *             if the file cannot be opened or mapped, or does not hold a
+     *             valid {@code MappedDeque} of that capacity
+     */
+    public MappedDeque(Path file, int capacity, Codec<T> codec)
+            throws IOException {
+        assert file != null : "Violation of: file is not null";
+        assert codec != null : "Violation of: codec is not null";
+        assert 0 < capacity
+                && capacity <= Integer.MAX_VALUE - HEADER_SIZE : ""
+                        + "Violation of: 0 < capacity < 2^31 - 4096";
+
+        this.file = file;
+        this.codec = codec;
+        this.capacity = capacity;
+        boolean fresh;
+        //The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            fresh = channel.size() == 0;
+            if (!fresh && channel.size() != HEADER_SIZE + capacity) {
+                throw new IOException("File size does not match " + file);
+            }
+            this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + capacity);
+        }
+        if (fresh) {
+            this.createNewRep();
+            this.seq = 0;
+            this.force();
+        } else {
+            this.recover();
+        }
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The new {@code MappedDeque} is stored in a new temporary file next to
+     * the file of {@code this}, which its {@code close} deletes; the caller
+     * should close it.
+     * </p>
+     */
+    @Override
+    public final Deque<T> newInstance() {
+        try {
+            Path dir = this.file.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(dir, "deque", ".tmp");
+            try {
+                MappedDeque<T> d = new MappedDeque<T>(temp, this.capacity,
+                        this.codec);
+                d.temporary = true;
+                return d;
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Each {@code MappedDeque} keeps its own file, so the entries of
+     * {@code source} are copied into the file of {@code this}.
+     * </p>
+     *
+     * @requires [the entries of source fit in the data region of this]
+     */
+    @Override
+    public final void transferFrom(Deque<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof MappedDeque<?> : ""
+                + "Violation of: source is of dynamic type MappedDeque<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * MappedDeque<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        MappedDeque<T> localSource = (MappedDeque<T>) source;
+        this.beginUpdate();
+        try {
+            this.createNewRep();
+            for (T x : localSource) {
+                this.add(x, true);
+            }
+        } finally {
+            this.endUpdate();
+        }
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final int length() {
+        return this.count;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires hasRoomFor(x)
+     */
+    @Override
+    public final void pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.add(x, this.reversed);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires hasRoomFor(x)
+     */
+    @Override
+    public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.add(x, !this.reversed);
+    }
+
+    @Override
+    public final T popFront() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        return this.remove(this.reversed);
+    }
+
+    @Override
+    public final T popBack() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        return this.remove(!this.reversed);
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new MappedDequeIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code MappedDeque}.
+     */
+    private final class MappedDequeIterator implements Iterator<T> {
+
+        /**
+         * Offset of the next record (or, walking backward, just past it).
+         */
+        private int position;
+
+        /**
+         * Number of entries not yet returned.
+         */
+        private int remaining;
+
+        /**
+         * No-argument constructor.
+         */
+        private MappedDequeIterator() {
+            if (MappedDeque.this.reversed) {
+                this.position = MappedDeque.this.tail;
+            } else {
+                this.position = MappedDeque.this.head;
+            }
+            this.remaining = MappedDeque.this.count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            int pos;
+            if (MappedDeque.this.reversed) {
+                pos = MappedDeque.this.recordEndingAt(this.position);
+                this.position = pos;
+            } else {
+                pos = this.position;
+                this.position = MappedDeque.this.nextRecord(pos);
+            }
+            this.remaining--;
+            return MappedDeque.this.codec.decode(MappedDeque.this.record(pos));
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+    /*
+     * Durability and zero-copy methods ---------------------------------------
+     */
+
+    /**
+     * Makes all updates to {@code this} since the last {@code force} durable,
+     * as a group: after a crash, reopening the file gives the value of
+     * {@code this} at the last {@code force}.
+     *
+     * @throws UncheckedIOException
+     *             if the file cannot be written
+     */
+    public final void force() {
+        if (this.dirty || this.seq == 0) {
+            //Data first, so a durable header never points at missing records
+            this.map.force();
+            this.seq++;
+            this.writeHeader((int) (this.seq & 1), this.seq);
+            this.map.force();
+            this.markCommitted();
+        }
+    }
+
+    /**
+     * Commits any updates with {@code force}, unless {@code this} was created
+     * by {@code newInstance}, then drops the mapping and, in that case,
+     * deletes the temporary file; {@code this} must not be used afterwards,
+     * and closing it again has no effect.
+     *
+     * <p>
+     * Java offers no supported way to unmap a file before the mapping is
+     * garbage collected, so the pages of a deleted temporary file stay
+     * allocated until then; on platforms that do not allow deleting a mapped
+     * file, {@code close} throws {@code IOException}.
+     * </p>
+     *
+     * @throws IOException
+     *             if the file cannot be written or deleted
+     */
+    @Override
+    public final void close() throws IOException {
+        if (this.map == null) {
+            return;
+        }
+        if (!this.temporary) {
+            try {
+                this.force();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        this.map = null;
+        if (this.temporary) {
+            Files.deleteIfExists(this.file);
+        }
+    }
+
+    /**
+     * Reports whether {@code x} can be pushed onto either end of {@code this}.
+     *
+     * @param x
+     *            the entry that might be pushed
+     * @return whether there is room in the data region for {@code x}
+     */
+    public final boolean hasRoomFor(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        int size = this.codec.length(x) + FRAME;
+        return this.placement(size, true) >= 0
+                && this.placement(size, false) >= 0;
+    }
+
+    /**
+     * Returns a read-only view of the encoding of the front of {@code this},
+     * taken directly from the mapped file; it is valid until {@code this} is
+     * next changed.
+     *
+     * @return the bytes of the front entry
+     * @requires this /= <>
+     * @ensures [frontBuffer holds the encoding of the front of this]
+     */
+    public final ByteBuffer frontBuffer() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.record(this.recordEndingAt(this.tail));
+        }
+        return this.record(this.head);
+    }
+
+    /**
+     * Returns a read-only view of the encoding of the back of {@code this},
+     * taken directly from the mapped file; it is valid until {@code this} is
+     * next changed.
+     *
+     * @return the bytes of the back entry
+     * @requires this /= <>
+     * @ensures [backBuffer holds the encoding of the back of this]
+     */
+    public final ByteBuffer backBuffer() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.record(this.head);
+        }
+        return this.record(this.recordEndingAt(this.tail));
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires [there is room for x in the data region of this]
+     */
+    @Override
+    public final T replaceFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        return this.replace(x, this.reversed);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires [there is room for x in the data region of this]
+     */
+    @Override
+    public final T replaceBack(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        return this.replace(x, !this.reversed);
+    }
+
+    @Override
+    public final void flip() {
+        this.reversed = !this.reversed;
+        this.dirty = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires [there is room for entries in the data region of this]
+     */
+    @Override
+    public final void pushAllFront(Iterable<T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+        assert entries != this : "Violation of: entries is not this";
+
+        Deque<T> reversed = new Deque5<T>();
+        for (T x : entries) {
+            reversed.pushFront(x);
+        }
+        while (reversed.length() > 0) {
+            this.pushFront(reversed.popFront());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The suffix is a {@code MappedDeque} made by {@code newInstance}; the
+     * caller should close it, which deletes its file.
+     * </p>
+     */
+    @Override
+    public final Deque<T> splitAt(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k <= this.count : "Violation of: k <= |this|";
+
+        Deque<T> suffix = this.newInstance();
+        while (this.count > k) {
+            suffix.pushFront(this.popBack());
+        }
+        return suffix;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires [there is room for x in the data region of this]
+     */
+    @Override
+    public final T replaceEntry(int i, T x) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.count : "Violation of: i < |this|";
+        assert x != null : "Violation of: x is not null";
+
+        //Set aside the entries on whichever side of entry i is shorter
+        Deque<T> aside = new Deque5<T>();
+        T old;
+        this.beginUpdate();
+        try {
+            if (i < this.count - i) {
+                for (int k = 0; k < i; k++) {
+                    aside.pushBack(this.popFront());
+                }
+                old = this.popFront();
+                this.pushFront(x);
+                while (aside.length() > 0) {
+                    this.pushFront(aside.popBack());
+                }
+            } else {
+                for (int k = this.count - 1; k > i; k--) {
+                    aside.pushFront(this.popBack());
+                }
+                old = this.popBack();
+                this.pushBack(x);
+                while (aside.length() > 0) {
+                    this.pushBack(aside.popFront());
+                }
+            }
+        } finally {
+            this.endUpdate();
+        }
+        return old;
+    }
+
+    @Override
+    public final void rotate(int k) {
+        int n = this.count;
+        if (n > 0 && Math.floorMod(k, n) != 0) {
+            //Move whichever part of this is shorter, all off and then all on
+            int r = Math.floorMod(k, n);
+            Deque<T> moved = new Deque5<T>();
+            this.beginUpdate();
+            try {
+                if (r <= n - r) {
+                    for (int i = 0; i < r; i++) {
+                        moved.pushBack(this.popFront());
+                    }
+                    while (moved.length() > 0) {
+                        this.pushBack(moved.popFront());
+                    }
+                } else {
+                    for (int i = r; i < n; i++) {
+                        moved.pushFront(this.popBack());
+                    }
+                    while (moved.length() > 0) {
+                        this.pushFront(moved.popBack());
+                    }
+                }
+            } finally {
+                this.endUpdate();
+            }
+        }
+    }
+
+    @Override
+    public final T front() {
+        return this.codec.decode(this.frontBuffer());
+    }
+
+    @Override
+    public final T back() {
+        return this.codec.decode(this.backBuffer());
+    }
+
+}
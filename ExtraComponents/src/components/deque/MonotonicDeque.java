@@ -0,0 +1,306 @@
+package components.deque;
+
+import java.util.Comparator;
+import java.util.function.Predicate;
+
+/**
+ * Sliding window of samples that reports the least of them (under a given
+ * order) in O(1), represented as a "monotonic deque": a circular array holding
+ * only the samples that can still become the least, in arrival order.
+ *
+ * <p>
+ * A sample stops being a candidate once a later sample that is no greater
+ * arrives, since the later one stays in the window at least as long. So
+ * {@code offer} evicts dominated candidates from the back before adding the
+ * new sample, and the front candidate is always the least sample in the
+ * window. {@code offer} is amortized O(1), since every sample is evicted at
+ * most once; {@code currentExtreme} and {@code length} are O(1). For a
+ * sliding maximum, pass the reversed order (e.g.,
+ * {@code Comparator.reverseOrder()}).
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code MonotonicDeque} samples
+ * @mathmodel <pre>
+ * type MonotonicDeque is modeled by string of T
+ * </pre>
+ * @initially <pre>
+ * (Comparator<? super T> order):
+ *   ensures
+ *   this = <>
+ * </pre>
+ * @convention <pre>
+ * [$this.values.length is a power of 2]  and
+ * $this.values.length = $this.seqs.length  and
+ * 0 <= $this.head < $this.values.length  and
+ * 0 <= $this.count <= $this.values.length  and
+ * $this.expired <= $this.offered  and
+ * [the candidates are the entries values[(head + i) mod values.length] for
+ *  i = 0, 1, ..., count - 1, and are non-null]  and
+ * [the sequence numbers of the candidates are strictly increasing, at least
+ *  $this.expired, and less than $this.offered]  and
+ * [the candidates are strictly increasing under $this.order]  and
+ * [if $this.count = 0 then $this.expired = $this.offered, and otherwise the
+ *  last candidate has sequence number $this.offered - 1]  and
+ * [all other positions in $this.values are null]
+ * </pre>
+ * @correspondence <pre>
+ * this = [the samples offered with sequence numbers $this.expired, ...,
+ *  $this.offered - 1, of which only the candidates are retained]
+ * </pre>
+ */
+public class MonotonicDeque<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the circular arrays; must be a power of 2.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Order under which the least sample is reported.
+     */
+    private final Comparator<? super T> order;
+
+    /**
+     * Circular array of candidate samples.
+     */
+    private Object[] values;
+
+    /**
+     * Sequence numbers of the candidates, parallel to {@code values}.
+     */
+    private long[] seqs;
+
+    /**
+     * Index of the front candidate in {@code values}.
+     */
+    private int head;
+
+    /**
+     * Number of candidates.
+     */
+    private int count;
+
+    /**
+     * Number of samples ever offered, i.e., the next sequence number.
+     */
+    private long offered;
+
+    /**
+     * Sequence number of the oldest sample still in the window.
+     */
+    private long expired;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.values = new Object[INITIAL_CAPACITY];
+        this.seqs = new long[INITIAL_CAPACITY];
+        this.head = 0;
+        this.count = 0;
+        this.offered = 0;
+        this.expired = 0;
+    }
+
+    /**
+     * Reports the position in the circular arrays of the {@code i}-th
+     * candidate.
+     *
+     * @param i
+     *            the offset from {@code head}
+     * @return the corresponding position
+     * @ensures slot = (head + i) mod values.length
+     */
+    private int slot(int i) {
+        return (this.head + i) & (this.values.length - 1);
+    }
+
+    /**
+     * Doubles the circular arrays, moving the front candidate to position 0.
+     *
+     * @updates $this.values, $this.seqs, $this.head
+     */
+    private void grow() {
+        int capacity = this.values.length;
+        Object[] newValues = new Object[capacity * 2];
+        long[] newSeqs = new long[capacity * 2];
+        int firstPart = Math.min(this.count, capacity - this.head);
+        System.arraycopy(this.values, this.head, newValues, 0, firstPart);
+        System.arraycopy(this.values, 0, newValues, firstPart,
+                this.count - firstPart);
+        System.arraycopy(this.seqs, this.head, newSeqs, 0, firstPart);
+        System.arraycopy(this.seqs, 0, newSeqs, firstPart,
+                this.count - firstPart);
+        this.values = newValues;
+        this.seqs = newSeqs;
+        this.head = 0;
+    }
+
+    /**
+     * Discards the front candidate.
+     *
+     * @updates $this.values, $this.head, $this.count
+     * @requires $this.count > 0
+     */
+    private void removeFirst() {
+        this.values[this.head] = null;
+        this.head = this.slot(1);
+        this.count--;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            the order under which {@code currentExtreme} reports the least
+     *            sample
+     */
+    public MonotonicDeque(Comparator<? super T> order) {
+        assert order != null : "Violation of: order is not null";
+
+        this.order = order;
+        this.createNewRep();
+    }
+
+    /*
+     * Public methods ---------------------------------------------------------
+     */
+
+    /**
+     * Resets {@code this} to an empty window.
+     *
+     * @clears this
+     */
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    /**
+     * Reports the number of samples in the window.
+     *
+     * @return |this|
+     * @ensures length = |this|
+     */
+    public final int length() {
+        return (int) (this.offered - this.expired);
+    }
+
+    /**
+     * Adds {@code x} to the back of the window.
+     *
+     * @param x
+     *            the sample to be added
+     * @aliases reference x
+     * @updates this
+     * @requires |this| < Integer.MAX_VALUE
+     * @ensures this = #this * {@literal <x>}
+     */
+    public final void offer(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.length() < Integer.MAX_VALUE : ""
+                + "Violation of: |this| < Integer.MAX_VALUE";
+
+        //Evict candidates that x is no greater than; they can never be least
+        while (this.count > 0) {
+            int last = this.slot(this.count - 1);
+            @SuppressWarnings("unchecked")
+            T back = (T) this.values[last];
+            if (this.order.compare(x, back) > 0) {
+                break;
+            }
+            this.values[last] = null;
+            this.count--;
+        }
+
+        if (this.count == this.values.length) {
+            this.grow();
+        }
+        int last = this.slot(this.count);
+        this.values[last] = x;
+        this.seqs[last] = this.offered;
+        this.count++;
+        this.offered++;
+    }
+
+    /**
+     * Removes the {@code n} oldest samples from the window.
+     *
+     * @param n
+     *            the number of samples to remove
+     * @updates this
+     * @requires 0 <= n <= |this|
+     * @ensures this = #this[n, |#this|)
+     */
+    public final void expireFront(int n) {
+        assert 0 <= n : "Violation of: 0 <= n";
+        assert n <= this.length() : "Violation of: n <= |this|";
+
+        this.expired += n;
+        while (this.count > 0 && this.seqs[this.head] < this.expired) {
+            this.removeFirst();
+        }
+    }
+
+    /**
+     * Removes the oldest samples from the window for as long as they are
+     * {@code stale}, e.g., because their timestamps have fallen out of a time
+     * window. Only candidates are tested; samples already evicted by
+     * {@code offer} leave the window along with the next stale candidate.
+     *
+     * @param stale
+     *            reports whether a sample should leave the window
+     * @updates this
+     * @requires <pre>
+     * [if stale holds for an entry of this, it holds for every earlier entry]
+     * </pre>
+     * @ensures <pre>
+     * this = #this[j, |#this|) for some j such that
+     *  [stale holds for every candidate of #this[0, j)]  and
+     *  (this = <>  or  [stale does not hold for the least entry of this])
+     * </pre>
+     */
+    public final void expireFront(Predicate<? super T> stale) {
+        assert stale != null : "Violation of: stale is not null";
+
+        while (this.count > 0) {
+            @SuppressWarnings("unchecked")
+            T front = (T) this.values[this.head];
+            if (!stale.test(front)) {
+                break;
+            }
+            this.expired = this.seqs[this.head] + 1;
+            this.removeFirst();
+        }
+    }
+
+    /**
+     * Reports the least sample in the window under the order given at
+     * construction; of equal least samples, the most recent one.
+     *
+     * @return the least sample in {@code this}
+     * @aliases reference returned by {@code currentExtreme}
+     * @requires this /= <>
+     * @ensures <pre>
+     * currentExtreme is in entries(this)  and
+     * [for every entry x of this, order.compare(currentExtreme, x) <= 0]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    public final T currentExtreme() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        return (T) this.values[this.head];
+    }
+
+}
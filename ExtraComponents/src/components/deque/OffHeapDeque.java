@@ -0,0 +1,631 @@
+package components.deque;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.codec.RecordCodec;
+
+/**
+ * {@code Deque} stored outside the Java heap, in fixed-size records in a ring
+ * of direct {@code ByteBuffer} chunks, with implementations of primary
+ * methods.
+ *
+ * <p>
+ * Entries are converted to and from records by a {@code RecordCodec}, so the
+ * heap holds only the ring of chunk references, however many entries there
+ * are, and the garbage collector never traces the entries. Chunks emptied by
+ * pops are kept in a small pool and reused by later pushes, so a deque whose
+ * length moves up and down does not keep allocating direct memory.
+ * </p>
+ *
+ * <p>
+ * {@code pushFront}, {@code pushBack}, {@code popFront}, {@code popBack},
+ * {@code entry}, {@code replaceEntry} and {@code flip} are O(1) (amortized,
+ * for the pushes, over the occasional growth of the ring of chunks), plus the
+ * cost of the {@code RecordCodec}. Entries returned are decoded copies, so
+ * changing them does not change {@code this}. The length may exceed
+ * {@code Integer.MAX_VALUE}; {@code longLength} reports it, and
+ * {@code length} requires that it fits in an {@code int}.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code Deque} entries
+ * @convention <pre>
+ * $this.chunks.length is a power of 2  and
+ * 0 <= $this.chunkCount <= $this.chunks.length  and
+ * [the chunkCount chunks in use are $this.chunks[($this.first + j) mod
+ *  $this.chunks.length] for 0 <= j < $this.chunkCount, and the other
+ *  elements of $this.chunks are null]  and
+ * if $this.count = 0 then
+ *  $this.chunkCount = 0  and  $this.headSlot = 0
+ * else
+ *  0 <= $this.headSlot < $this.recordsPerChunk  and
+ *  $this.chunkCount = ceiling(($this.headSlot + $this.count) /
+ *                             $this.recordsPerChunk)  and
+ * |$this.pool| <= MAX_SPARE_CHUNKS
+ * </pre>
+ * @correspondence <pre>
+ * if $this.reversed then
+ *  this = rev([the entries decoded from the records in slots $this.headSlot
+ *              through $this.headSlot + $this.count - 1 of the chunks in use])
+ * else
+ *  this = [the entries decoded from the records in slots $this.headSlot
+ *          through $this.headSlot + $this.count - 1 of the chunks in use]
+ * </pre>
+ */
+public class OffHeapDeque<T> extends DequeSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Default size of each chunk, in bytes.
+     */
+    private static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+
+    /**
+     * Initial length of the ring of chunks.
+     */
+    private static final int INITIAL_RING = 8;
+
+    /**
+     * Most empty chunks kept for reuse.
+     */
+    private static final int MAX_SPARE_CHUNKS = 4;
+
+    /**
+     * Converts entries to and from records.
+     */
+    private final RecordCodec<T> codec;
+
+    /**
+     * Size of each record, in bytes.
+     */
+    private final int recordSize;
+
+    /**
+     * Number of records in each chunk.
+     */
+    private final int recordsPerChunk;
+
+    /**
+     * Ring of chunks.
+     */
+    private ByteBuffer[] chunks;
+
+    /**
+     * Position in {@code chunks} of the first chunk in use.
+     */
+    private int first;
+
+    /**
+     * Number of chunks in use.
+     */
+    private int chunkCount;
+
+    /**
+     * Slot of the first record in the first chunk.
+     */
+    private int headSlot;
+
+    /**
+     * Number of records.
+     */
+    private long count;
+
+    /**
+     * Whether {@code this} runs from the last record to the first.
+     */
+    private boolean reversed;
+
+    /**
+     * Empty chunks kept for reuse.
+     */
+    private final ByteBuffer[] pool;
+
+    /**
+     * Number of chunks in {@code pool}.
+     */
+    private int spare;
+
+    /**
+     * Returns an empty chunk, from the pool if there is one.
+     *
+     * @return the chunk
+     */
+    private ByteBuffer acquireChunk() {
+        if (this.spare > 0) {
+            this.spare--;
+            ByteBuffer chunk = this.pool[this.spare];
+            this.pool[this.spare] = null;
+            return chunk;
+        }
+        return ByteBuffer
+                .allocateDirect(this.recordsPerChunk * this.recordSize);
+    }
+
+    /**
+     * Keeps {@code chunk} for reuse if the pool has room; otherwise its memory
+     * is freed once it is garbage collected.
+     *
+     * @param chunk
+     *            the chunk no longer in use
+     */
+    private void releaseChunk(ByteBuffer chunk) {
+        if (this.spare < MAX_SPARE_CHUNKS) {
+            this.pool[this.spare] = chunk;
+            this.spare++;
+        }
+    }
+
+    /**
+     * Doubles the length of {@code chunks} if every element is in use,
+     * moving the chunks in use to the start.
+     */
+    private void ensureRingRoom() {
+        if (this.chunkCount == this.chunks.length) {
+            ByteBuffer[] bigger = new ByteBuffer[2 * this.chunks.length];
+            for (int j = 0; j < this.chunkCount; j++) {
+                bigger[j] = this.chunks[(this.first + j)
+                        & (this.chunks.length - 1)];
+            }
+            this.chunks = bigger;
+            this.first = 0;
+        }
+    }
+
+    /**
+     * Reports the chunk holding slot {@code slot}, counting from slot 0 of the
+     * first chunk, and positions it so that its remaining bytes are exactly
+     * that record.
+     *
+     * @param slot
+     *            the slot
+     * @return the chunk, positioned at the record
+     * @requires 0 <= slot < $this.chunkCount * $this.recordsPerChunk
+     */
+    private ByteBuffer recordAt(long slot) {
+        int j = (int) (slot / this.recordsPerChunk);
+        int offset = (int) (slot % this.recordsPerChunk) * this.recordSize;
+        ByteBuffer chunk = this.chunks[(this.first + j)
+                & (this.chunks.length - 1)];
+        chunk.limit(offset + this.recordSize);
+        chunk.position(offset);
+        return chunk;
+    }
+
+    /**
+     * Reports the slot of the entry at position {@code i} of {@code this}.
+     *
+     * @param i
+     *            the position
+     * @return the slot of that entry
+     * @requires 0 <= i < |this|
+     */
+    private long slotOf(long i) {
+        if (this.reversed) {
+            return this.headSlot + this.count - 1 - i;
+        }
+        return this.headSlot + i;
+    }
+
+    /**
+     * Decodes the record in slot {@code slot}.
+     *
+     * @param slot
+     *            the slot
+     * @return the entry decoded
+     */
+    private T read(long slot) {
+        return this.codec.decode(this.recordAt(slot));
+    }
+
+    /**
+     * Encodes {@code x} into the record in slot {@code slot}.
+     *
+     * @param slot
+     *            the slot
+     * @param x
+     *            the entry
+     */
+    private void write(long slot, T x) {
+        ByteBuffer record = this.recordAt(slot);
+        this.codec.encode(x, record);
+        assert !record.hasRemaining() : ""
+                + "Violation of: [codec writes recordSize bytes]";
+    }
+
+    /**
+     * Adds a record for {@code x} before the first record.
+     *
+     * @param x
+     *            the entry to be added
+     */
+    private void addFirst(T x) {
+        if (this.headSlot == 0) {
+            this.ensureRingRoom();
+            this.first = (this.first - 1) & (this.chunks.length - 1);
+            this.chunks[this.first] = this.acquireChunk();
+            this.chunkCount++;
+            this.headSlot = this.recordsPerChunk;
+        }
+        this.headSlot--;
+        this.count++;
+        this.write(this.headSlot, x);
+    }
+
+    /**
+     * Adds a record for {@code x} after the last record.
+     *
+     * @param x
+     *            the entry to be added
+     */
+    private void addLast(T x) {
+        long end = this.headSlot + this.count;
+        if (end == (long) this.chunkCount * this.recordsPerChunk) {
+            this.ensureRingRoom();
+            this.chunks[(this.first + this.chunkCount)
+                    & (this.chunks.length - 1)] = this.acquireChunk();
+            this.chunkCount++;
+        }
+        this.count++;
+        this.write(end, x);
+    }
+
+    /**
+     * Removes the first record and decodes it.
+     *
+     * @return the entry removed
+     * @requires $this.count > 0
+     */
+    private T removeFirst() {
+        T x = this.read(this.headSlot);
+        this.headSlot++;
+        this.count--;
+        if (this.headSlot == this.recordsPerChunk || this.count == 0) {
+            this.releaseChunk(this.chunks[this.first]);
+            this.chunks[this.first] = null;
+            this.first = (this.first + 1) & (this.chunks.length - 1);
+            this.chunkCount--;
+            this.headSlot = 0;
+        }
+        return x;
+    }
+
+    /**
+     * Removes the last record and decodes it.
+     *
+     * @return the entry removed
+     * @requires $this.count > 0
+     */
+    private T removeLast() {
+        this.count--;
+        long end = this.headSlot + this.count;
+        T x = this.read(end);
+        if (end == (long) (this.chunkCount - 1) * this.recordsPerChunk
+                || this.count == 0) {
+            int last = (this.first + this.chunkCount - 1)
+                    & (this.chunks.length - 1);
+            this.releaseChunk(this.chunks[last]);
+            this.chunks[last] = null;
+            this.chunkCount--;
+            if (this.count == 0) {
+                this.headSlot = 0;
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Creator of initial representation, releasing any chunks in use.
+     */
+    private void createNewRep() {
+        if (this.chunks != null) {
+            for (int j = 0; j < this.chunkCount; j++) {
+                this.releaseChunk(this.chunks[(this.first + j)
+                        & (this.chunks.length - 1)]);
+            }
+        }
+        this.chunks = new ByteBuffer[INITIAL_RING];
+        this.first = 0;
+        this.chunkCount = 0;
+        this.headSlot = 0;
+        this.count = 0;
+        this.reversed = false;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from codec, with chunks of 1 MB.
+     *
+     * @param codec
+     *            converts entries to and from records
+     */
+    public OffHeapDeque(RecordCodec<T> codec) {
+        this(codec, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Constructor from codec and chunk size.
+     *
+     * @param codec
+     *            converts entries to and from records
+     * @param chunkBytes
+     *            size of each chunk, in bytes; rounded down to a whole number
+     *            of records
+     * @requires chunkBytes >= codec.recordSize()
+     */
+    public OffHeapDeque(RecordCodec<T> codec, int chunkBytes) {
+        assert codec != null : "Violation of: codec is not null";
+        assert chunkBytes >= codec.recordSize() : ""
+                + "Violation of: chunkBytes >= codec.recordSize()";
+
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+        this.recordsPerChunk = chunkBytes / this.recordSize;
+        this.pool = new ByteBuffer[MAX_SPARE_CHUNKS];
+        this.spare = 0;
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final Deque<T> newInstance() {
+        return new OffHeapDeque<T>(this.codec,
+                this.recordsPerChunk * this.recordSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires [source has the same record size and chunk size as this]
+     */
+    @Override
+    public final void transferFrom(Deque<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof OffHeapDeque<?> : ""
+                + "Violation of: source is of dynamic type OffHeapDeque<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * OffHeapDeque<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        OffHeapDeque<T> localSource = (OffHeapDeque<T>) source;
+        assert localSource.recordSize == this.recordSize
+                && localSource.recordsPerChunk == this.recordsPerChunk : ""
+                        + "Violation of: [source has the same record size and"
+                        + " chunk size as this]";
+        this.createNewRep();
+        this.chunks = localSource.chunks;
+        this.first = localSource.first;
+        this.chunkCount = localSource.chunkCount;
+        this.headSlot = localSource.headSlot;
+        this.count = localSource.count;
+        this.reversed = localSource.reversed;
+        //Chunks now belong to this, so source must not release them
+        localSource.chunks = null;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @requires |this| <= Integer.MAX_VALUE
+     */
+    @Override
+    public final int length() {
+        assert this.count <= Integer.MAX_VALUE : ""
+                + "Violation of: |this| <= Integer.MAX_VALUE";
+
+        return (int) this.count;
+    }
+
+    @Override
+    public final void pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.reversed) {
+            this.addLast(x);
+        } else {
+            this.addFirst(x);
+        }
+    }
+
+    @Override
+    public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.reversed) {
+            this.addFirst(x);
+        } else {
+            this.addLast(x);
+        }
+    }
+
+    @Override
+    public final T popFront() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.removeLast();
+        }
+        return this.removeFirst();
+    }
+
+    @Override
+    public final T popBack() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        if (this.reversed) {
+            return this.removeFirst();
+        }
+        return this.removeLast();
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new OffHeapDequeIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code OffHeapDeque}.
+     */
+    private final class OffHeapDequeIterator implements Iterator<T> {
+
+        /**
+         * Position of the next entry to return.
+         */
+        private long position;
+
+        /**
+         * No-argument constructor.
+         */
+        private OffHeapDequeIterator() {
+            this.position = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < OffHeapDeque.this.count;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = OffHeapDeque.this
+                    .read(OffHeapDeque.this.slotOf(this.position));
+            this.position++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+    /*
+     * Long-length methods ----------------------------------------------------
+     */
+
+    /**
+     * Reports the length of {@code this}, which may exceed
+     * {@code Integer.MAX_VALUE}.
+     *
+     * @return the length of {@code this}
+     * @ensures longLength = |this|
+     */
+    public final long longLength() {
+        return this.count;
+    }
+
+    /**
+     * Reports the entry at position {@code i} of {@code this}, which may
+     * exceed {@code Integer.MAX_VALUE}.
+     *
+     * @param i
+     *            the position
+     * @return the entry at position {@code i}
+     * @requires 0 <= i < |this|
+     * @ensures <pre>
+     * there exists a, b: string of T
+     *  (this = a * {@literal <entry>} * b  and  |a| = i)
+     * </pre>
+     */
+    public final T entry(long i) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.count : "Violation of: i < |this|";
+
+        return this.read(this.slotOf(i));
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void flip() {
+        this.reversed = !this.reversed;
+    }
+
+    @Override
+    public final T front() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        return this.read(this.slotOf(0));
+    }
+
+    @Override
+    public final T back() {
+        assert this.count > 0 : "Violation of: this /= <>";
+
+        return this.read(this.slotOf(this.count - 1));
+    }
+
+    @Override
+    public final T replaceFront(T x) {
+        assert this.count > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        return this.replaceEntry(0, x);
+    }
+
+    @Override
+    public final T replaceBack(T x) {
+        assert this.count > 0 : "Violation of: this /= <>";
+        assert x != null : "Violation of: x is not null";
+
+        long slot = this.slotOf(this.count - 1);
+        T old = this.read(slot);
+        this.write(slot, x);
+        return old;
+    }
+
+    @Override
+    public final T entry(int i) {
+        return this.entry((long) i);
+    }
+
+    @Override
+    public final T replaceEntry(int i, T x) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.count : "Violation of: i < |this|";
+        assert x != null : "Violation of: x is not null";
+
+        long slot = this.slotOf(i);
+        T old = this.read(slot);
+        this.write(slot, x);
+        return old;
+    }
+
+}
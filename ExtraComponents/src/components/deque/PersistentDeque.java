@@ -0,0 +1,489 @@
+package components.deque;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable ("persistent") double-ended queue, represented as a pair of
+ * immutable singly linked lists: the front entries in order, and the back
+ * entries in reverse order. Every update returns a new {@code PersistentDeque}
+ * that shares all unchanged nodes with the old one, so old versions stay valid
+ * and can be read from any number of threads without synchronization.
+ *
+ * <p>
+ * {@code length}, {@code front}, {@code back}, {@code pushFront},
+ * {@code pushBack} and {@code flip} are O(1). {@code popFront} and
+ * {@code popBack} are O(1) except when they empty one of the lists while the
+ * other still holds at least 2 entries; then the other list is split in half,
+ * in time proportional to its length. Along any single line of versions (each
+ * update applied to the result of the previous one) the pops are amortized
+ * O(1); repeatedly popping the same old version can cost O(n) each time.
+ * Iteration allocates a temporary array of the back entries.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code PersistentDeque} entries
+ * @mathmodel <pre>
+ * type PersistentDeque is modeled by string of T
+ * </pre>
+ * @convention <pre>
+ * [$this.front and $this.back are null-terminated lists of non-null entries,
+ *  each node recording the length of the list it starts]  and
+ * (length($this.front) > 0  and  length($this.back) > 0  or
+ *  length($this.front) + length($this.back) <= 1)
+ * </pre>
+ * @correspondence <pre>
+ * this = [entries of $this.front] * rev([entries of $this.back])
+ * </pre>
+ */
+public final class PersistentDeque<T> implements Iterable<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Immutable singly linked list node.
+     *
+     * @param <T>
+     *            type of entries
+     */
+    private static final class Node<T> {
+
+        /**
+         * Entry in this node.
+         */
+        private final T data;
+
+        /**
+         * Rest of the list, or null.
+         */
+        private final Node<T> next;
+
+        /**
+         * Number of nodes in the list starting at this node.
+         */
+        private final int length;
+
+        /**
+         * Constructor from entry and rest of list.
+         *
+         * @param data
+         *            the entry
+         * @param next
+         *            the rest of the list, or null
+         */
+        private Node(T data, Node<T> next) {
+            this.data = data;
+            this.next = next;
+            this.length = length(next) + 1;
+        }
+
+    }
+
+    /**
+     * The empty {@code PersistentDeque}; shared since it is immutable.
+     */
+    private static final PersistentDeque<?> EMPTY = new PersistentDeque<>(
+            null, null);
+
+    /**
+     * Front entries, in order.
+     */
+    private final Node<T> front;
+
+    /**
+     * Back entries, in reverse order.
+     */
+    private final Node<T> back;
+
+    /**
+     * Reports the length of the list starting at {@code p}.
+     *
+     * @param p
+     *            the first node, or null
+     * @return the length of the list
+     */
+    private static int length(Node<?> p) {
+        if (p == null) {
+            return 0;
+        }
+        return p.length;
+    }
+
+    /**
+     * Returns the reverse of the first {@code n} nodes of the list starting at
+     * {@code p}, followed by {@code rest}.
+     *
+     * @param <T>
+     *            type of entries
+     * @param p
+     *            the first node
+     * @param n
+     *            the number of nodes to reverse
+     * @param rest
+     *            the list to put after them
+     * @return the new list
+     * @requires n <= length(p)
+     */
+    private static <T> Node<T> reversePrefix(Node<T> p, int n, Node<T> rest) {
+        Node<T> result = rest;
+        Node<T> q = p;
+        for (int i = 0; i < n; i++) {
+            result = new Node<T>(q.data, result);
+            q = q.next;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the node {@code n} nodes after {@code p}.
+     *
+     * @param <T>
+     *            type of entries
+     * @param p
+     *            the first node
+     * @param n
+     *            the number of nodes to skip
+     * @return the node reached
+     * @requires n <= length(p)
+     */
+    private static <T> Node<T> drop(Node<T> p, int n) {
+        Node<T> q = p;
+        for (int i = 0; i < n; i++) {
+            q = q.next;
+        }
+        return q;
+    }
+
+    /**
+     * Creates the {@code PersistentDeque} with the given lists, splitting the
+     * non-empty one in half if the other is empty and it has at least 2
+     * entries, to restore the convention.
+     *
+     * @param <T>
+     *            type of entries
+     * @param front
+     *            front entries, in order
+     * @param back
+     *            back entries, in reverse order
+     * @return the new {@code PersistentDeque}
+     * @ensures of = [entries of front] * rev([entries of back])
+     */
+    private static <T> PersistentDeque<T> of(Node<T> front, Node<T> back) {
+        int frontLength = length(front);
+        int backLength = length(back);
+        if (frontLength == 0 && backLength >= 2) {
+            /*
+             * back = rev(s); keep the last half of s, still reversed, as the
+             * new back, and rebuild the first half in order as the new front
+             */
+            int keep = backLength / 2;
+            Node<T> older = drop(back, keep);
+            return new PersistentDeque<T>(
+                    reversePrefix(older, backLength - keep, null),
+                    reversePrefix(reversePrefix(back, keep, null), keep,
+                            null));
+        }
+        if (backLength == 0 && frontLength >= 2) {
+            int keep = frontLength / 2;
+            Node<T> later = drop(front, keep);
+            return new PersistentDeque<T>(
+                    reversePrefix(reversePrefix(front, keep, null), keep,
+                            null),
+                    reversePrefix(later, frontLength - keep, null));
+        }
+        return new PersistentDeque<T>(front, back);
+    }
+
+    /**
+     * Constructor from lists.
+     *
+     * @param front
+     *            front entries, in order
+     * @param back
+     *            back entries, in reverse order
+     */
+    private PersistentDeque(Node<T> front, Node<T> back) {
+        this.front = front;
+        this.back = back;
+    }
+
+    /*
+     * Public methods ---------------------------------------------------------
+     */
+
+    /**
+     * Returns the empty {@code PersistentDeque}.
+     *
+     * @param <T>
+     *            type of entries
+     * @return the empty {@code PersistentDeque}
+     * @ensures empty = <>
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentDeque<T> empty() {
+        return (PersistentDeque<T>) EMPTY;
+    }
+
+    /**
+     * Reports length of {@code this}.
+     *
+     * @return the length of {@code this}
+     * @ensures length = |this|
+     */
+    public int length() {
+        return length(this.front) + length(this.back);
+    }
+
+    /**
+     * Returns {@code this} with {@code x} added at the front.
+     *
+     * @param x
+     *            the entry to be added
+     * @return the new version
+     * @aliases reference x
+     * @ensures pushFront = {@literal <x>} * this
+     */
+    public PersistentDeque<T> pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.back == null && this.front != null) {
+            //Move the single entry to back, so neither list is left empty
+            return new PersistentDeque<T>(new Node<T>(x, null), this.front);
+        }
+        return new PersistentDeque<T>(new Node<T>(x, this.front), this.back);
+    }
+
+    /**
+     * Returns {@code this} with {@code x} added at the back.
+     *
+     * @param x
+     *            the entry to be added
+     * @return the new version
+     * @aliases reference x
+     * @ensures pushBack = this * {@literal <x>}
+     */
+    public PersistentDeque<T> pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.front == null && this.back != null) {
+            //Move the single entry to front, so neither list is left empty
+            return new PersistentDeque<T>(this.back, new Node<T>(x, null));
+        }
+        return new PersistentDeque<T>(this.front, new Node<T>(x, this.back));
+    }
+
+    /**
+     * Returns {@code this} without its front entry.
+     *
+     * @return the new version
+     * @requires this /= <>
+     * @ensures this = {@literal <this.front()>} * popFront
+     */
+    public PersistentDeque<T> popFront() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        if (this.front == null) {
+            //A single entry, in back
+            return empty();
+        }
+        return of(this.front.next, this.back);
+    }
+
+    /**
+     * Returns {@code this} without its back entry.
+     *
+     * @return the new version
+     * @requires this /= <>
+     * @ensures this = popBack * {@literal <this.back()>}
+     */
+    public PersistentDeque<T> popBack() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        if (this.back == null) {
+            //A single entry, in front
+            return empty();
+        }
+        return of(this.front, this.back.next);
+    }
+
+    /**
+     * Reports the front of {@code this}.
+     *
+     * @return the front entry of {@code this}
+     * @aliases reference returned by {@code front}
+     * @requires this /= <>
+     * @ensures <pre>
+     * {@literal <front>} is prefix of this
+     * </pre>
+     */
+    public T front() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        if (this.front == null) {
+            return this.back.data;
+        }
+        return this.front.data;
+    }
+
+    /**
+     * Reports the back of {@code this}.
+     *
+     * @return the back entry of {@code this}
+     * @aliases reference returned by {@code back}
+     * @requires this /= <>
+     * @ensures <pre>
+     * {@literal <back>} is suffix of this
+     * </pre>
+     */
+    public T back() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        if (this.back == null) {
+            return this.front.data;
+        }
+        return this.back.data;
+    }
+
+    /**
+     * Returns the reverse of {@code this}.
+     *
+     * @return the new version
+     * @ensures flip = rev(this)
+     */
+    public PersistentDeque<T> flip() {
+        return new PersistentDeque<T>(this.back, this.front);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new PersistentDequeIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code PersistentDeque}: walks the front list, then an array copy of the
+     * back list, in reverse.
+     */
+    private final class PersistentDequeIterator implements Iterator<T> {
+
+        /**
+         * Next node of the front list, or null once it is exhausted.
+         */
+        private Node<T> current;
+
+        /**
+         * Back entries in reverse order, created once the front is exhausted.
+         */
+        private Object[] backEntries;
+
+        /**
+         * Position in {@code backEntries} of the next entry, counting down.
+         */
+        private int backPosition;
+
+        /**
+         * No-argument constructor.
+         */
+        private PersistentDequeIterator() {
+            this.current = PersistentDeque.this.front;
+            this.backEntries = null;
+            this.backPosition = length(PersistentDeque.this.back);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != null || this.backPosition > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            if (this.current != null) {
+                T x = this.current.data;
+                this.current = this.current.next;
+                return x;
+            }
+            if (this.backEntries == null) {
+                this.backEntries = new Object[this.backPosition];
+                int i = 0;
+                for (Node<T> p = PersistentDeque.this.back; p != null;
+                        p = p.next) {
+                    this.backEntries[i] = p.data;
+                    i++;
+                }
+            }
+            this.backPosition--;
+            return (T) this.backEntries[this.backPosition];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+    /*
+     * Object methods ---------------------------------------------------------
+     */
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof PersistentDeque<?>)) {
+            return false;
+        }
+        PersistentDeque<?> other = (PersistentDeque<?>) obj;
+        if (this.length() != other.length()) {
+            return false;
+        }
+        Iterator<T> it1 = this.iterator();
+        Iterator<?> it2 = other.iterator();
+        while (it1.hasNext()) {
+            if (!it1.next().equals(it2.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        //Same polynomial as DequeSecondary, so equal contents hash alike
+        int hash = 0;
+        for (T x : this) {
+            hash = 31 * hash + x.hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("<");
+        Iterator<T> it = this.iterator();
+        while (it.hasNext()) {
+            result.append(it.next());
+            if (it.hasNext()) {
+                result.append(",");
+            }
+        }
+        result.append(">");
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,222 @@
+package components.deque;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe {@code Deque} represented as an {@code AtomicReference} to the
+ * current version of a {@code PersistentDeque}, with implementations of
+ * primary methods and an O(1) {@code snapshot}.
+ *
+ * <p>
+ * Each update builds the next version from the current one and installs it
+ * with a compare-and-set, retrying if another thread got there first, so
+ * updates are lock-free and atomic. {@code snapshot} returns the current
+ * version itself: an immutable, consistent view that readers may use for as
+ * long as they like while writers continue. Iterators likewise walk the
+ * version that was current when they were created, and so do spliterators,
+ * which take their size from that same version. Performance is that of
+ * {@code PersistentDeque}, plus any retries under contention.
+ * </p>
+ *
+ * <p>
+ * Methods inherited from {@code DequeSecondary} (other than those overridden
+ * here) are built from several kernel calls and are not atomic.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code Deque} entries
+ * @convention <pre>
+ * $this.rep.get() is not null
+ * </pre>
+ * @correspondence <pre>
+ * this = $this.rep.get()
+ * </pre>
+ */
+public class SnapshotDeque<T> extends DequeSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Current version of {@code this}.
+     */
+    private final AtomicReference<PersistentDeque<T>> rep;
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public SnapshotDeque() {
+        this.rep = new AtomicReference<PersistentDeque<T>>(
+                PersistentDeque.<T> empty());
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.rep.set(PersistentDeque.<T> empty());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Deque<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(Deque<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SnapshotDeque<?> : ""
+                + "Violation of: source is of dynamic type SnapshotDeque<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SnapshotDeque<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SnapshotDeque<T> localSource = (SnapshotDeque<T>) source;
+        this.rep.set(localSource.rep.getAndSet(PersistentDeque.<T> empty()));
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final int length() {
+        return this.rep.get().length();
+    }
+
+    @Override
+    public final void pushFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.rep.updateAndGet(d -> d.pushFront(x));
+    }
+
+    @Override
+    public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.rep.updateAndGet(d -> d.pushBack(x));
+    }
+
+    @Override
+    public final T popFront() {
+        PersistentDeque<T> current;
+        do {
+            current = this.rep.get();
+            assert current.length() > 0 : "Violation of: this /= <>";
+        } while (!this.rep.compareAndSet(current, current.popFront()));
+        return current.front();
+    }
+
+    @Override
+    public final T popBack() {
+        PersistentDeque<T> current;
+        do {
+            current = this.rep.get();
+            assert current.length() > 0 : "Violation of: this /= <>";
+        } while (!this.rep.compareAndSet(current, current.popBack()));
+        return current.back();
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        //PersistentDeque's iterator is read-only and walks a fixed version
+        return this.rep.get().iterator();
+    }
+
+    @Override
+    public final Spliterator<T> spliterator() {
+        //Size and entries must come from the same version
+        PersistentDeque<T> current = this.rep.get();
+        return Spliterators.spliterator(current.iterator(), current.length(),
+                Spliterator.ORDERED | Spliterator.NONNULL
+                        | Spliterator.IMMUTABLE);
+    }
+
+    /*
+     * Snapshot method --------------------------------------------------------
+     */
+
+    /**
+     * Reports the current value of {@code this} as an immutable
+     * {@code PersistentDeque}, in O(1) time; later changes to {@code this} do
+     * not affect it.
+     *
+     * @return the current value of {@code this}
+     * @ensures [entries of snapshot] = this
+     */
+    public final PersistentDeque<T> snapshot() {
+        return this.rep.get();
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void flip() {
+        this.rep.updateAndGet(PersistentDeque::flip);
+    }
+
+    @Override
+    public final T front() {
+        PersistentDeque<T> current = this.rep.get();
+        assert current.length() > 0 : "Violation of: this /= <>";
+        return current.front();
+    }
+
+    @Override
+    public final T back() {
+        PersistentDeque<T> current = this.rep.get();
+        assert current.length() > 0 : "Violation of: this /= <>";
+        return current.back();
+    }
+
+    @Override
+    public final T replaceFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        PersistentDeque<T> current;
+        do {
+            current = this.rep.get();
+            assert current.length() > 0 : "Violation of: this /= <>";
+        } while (!this.rep.compareAndSet(current,
+                current.popFront().pushFront(x)));
+        return current.front();
+    }
+
+    @Override
+    public final T replaceBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        PersistentDeque<T> current;
+        do {
+            current = this.rep.get();
+            assert current.length() > 0 : "Violation of: this /= <>";
+        } while (!this.rep.compareAndSet(current,
+                current.popBack().pushBack(x)));
+        return current.back();
+    }
+
+}
@@ -0,0 +1,297 @@
+package components.deque;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Work-stealing double-ended queue (Chase-Lev), represented as a growable
+ * circular array indexed by a pair of unbounded counters.
+ *
+ * <p>
+ * A single owner thread pushes and pops at the back with {@code pushBack} and
+ * {@code popBack}; any number of other threads take entries from the front
+ * with {@code steal}. The owner's fast path takes no locks and performs no
+ * atomic read-modify-write operations except when popping the last entry; a
+ * thief performs a single compare-and-set per successful steal.
+ * </p>
+ *
+ * <p>
+ * Only the owner writes to the array. A stolen entry's slot therefore keeps
+ * its reference until the owner pushes over it or the array grows, so up to
+ * one array's worth of stolen entries may stay reachable.
+ * </p>
+ *
+ * <p>
+ * The read methods {@code length}, {@code front} and {@code back} mirror those
+ * of {@code Deque}; when called while thieves are active they report a value
+ * that was correct at some instant during the call, and {@code front} and
+ * {@code back} return {@code null} if the entry they were about to report was
+ * taken in the meantime.
+ * </p>
+ *
+ * @author Zach Baruch
+ *
+ * @param <T>
+ *            type of {@code WorkStealingDeque} entries
+ * @mathmodel <pre>
+ * type WorkStealingDeque is modeled by string of T
+ * </pre>
+ * @initially <pre>
+ * ():
+ *   ensures
+ *   this = <>
+ * </pre>
+ * @convention <pre>
+ * $this.top <= $this.bottom + 1  and
+ * $this.bottom - $this.top < $this.array.length  and
+ * [$this.array.length is a power of 2]
+ * </pre>
+ * @correspondence <pre>
+ * this = [$this.array[i mod $this.array.length]
+ *  for i = $this.top, ..., $this.bottom - 1]
+ * </pre>
+ */
+public class WorkStealingDeque<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the circular array; must be a power of 2.
+     */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * Index one past the back entry; written only by the owner.
+     */
+    private volatile long bottom;
+
+    /**
+     * Index of the front entry; advanced by thieves and, for the last entry,
+     * by the owner.
+     */
+    private final AtomicLong top;
+
+    /**
+     * Circular array of entries; replaced only by the owner.
+     */
+    private volatile AtomicReferenceArray<T> array;
+
+    /**
+     * Copies the entries at indices {@code [t, b)} into a circular array twice
+     * the size of {@code a}.
+     *
+     * @param <T>
+     *            type of entries
+     * @param a
+     *            the current array
+     * @param t
+     *            index of the front entry
+     * @param b
+     *            index one past the back entry
+     * @return the new array
+     * @ensures <pre>
+     * grow.length = 2 * a.length  and
+     * [grow holds the same entries at indices [t, b) as a]
+     * </pre>
+     */
+    private static <T> AtomicReferenceArray<T> grow(AtomicReferenceArray<T> a,
+            long t, long b) {
+        AtomicReferenceArray<T> bigger = new AtomicReferenceArray<T>(
+                a.length() * 2);
+        for (long i = t; i < b; i++) {
+            bigger.set(index(bigger, i), a.get(index(a, i)));
+        }
+        return bigger;
+    }
+
+    /**
+     * Reports the position in {@code a} of counter value {@code i}.
+     *
+     * @param a
+     *            the circular array
+     * @param i
+     *            the counter value
+     * @return the position in {@code a}
+     * @ensures index = i mod a.length
+     */
+    private static int index(AtomicReferenceArray<?> a, long i) {
+        return (int) (i & (a.length() - 1));
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public WorkStealingDeque() {
+        this.top = new AtomicLong(0);
+        this.bottom = 0;
+        this.array = new AtomicReferenceArray<T>(INITIAL_CAPACITY);
+    }
+
+    /*
+     * Owner methods ----------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the back of {@code this}. May only be called by the
+     * owner thread.
+     *
+     * @param x
+     *            the entry to be added
+     * @aliases reference x
+     * @updates this
+     * @ensures this = #this * {@literal <x>}
+     */
+    public final void pushBack(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        long b = this.bottom;
+        long t = this.top.get();
+        AtomicReferenceArray<T> a = this.array;
+        if (b - t >= a.length() - 1) {
+            a = grow(a, t, b);
+            this.array = a;
+        }
+        a.set(index(a, b), x);
+        //Publishing the new bottom makes x visible to thieves
+        this.bottom = b + 1;
+    }
+
+    /**
+     * Removes and returns the back of {@code this}, if there is one. May only
+     * be called by the owner thread.
+     *
+     * @return the entry removed, or {@code null} if {@code this} was empty
+     *         (possibly because the last entry was stolen concurrently)
+     * @updates this
+     * @ensures <pre>
+     * if #this = <> then
+     *   this = #this  and  popBack = null
+     * else
+     *   #this = this * {@literal <popBack>}
+     * </pre>
+     */
+    public final T popBack() {
+        long b = this.bottom - 1;
+        AtomicReferenceArray<T> a = this.array;
+        //Claim the back entry before looking at top (volatile write, then read)
+        this.bottom = b;
+        long t = this.top.get();
+        long size = b - t;
+        if (size < 0) {
+            //Was empty
+            this.bottom = t;
+            return null;
+        }
+        T x = a.get(index(a, b));
+        if (size > 0) {
+            //No thief can reach index b, so the entry is ours
+            a.set(index(a, b), null);
+            return x;
+        }
+        //Last entry: race any thieves for it
+        if (this.top.compareAndSet(t, t + 1)) {
+            a.set(index(a, b), null);
+        } else {
+            x = null;
+        }
+        this.bottom = t + 1;
+        return x;
+    }
+
+    /*
+     * Thief methods ----------------------------------------------------------
+     */
+
+    /**
+     * Removes and returns the front of {@code this}, if there is one and no
+     * other thread takes it first. May be called by any thread.
+     *
+     * @return the entry removed, or {@code null} if {@code this} was empty or
+     *         the front entry was taken by a concurrent {@code steal} or
+     *         {@code popBack}
+     * @updates this
+     * @ensures <pre>
+     * if steal = null then
+     *   this = #this
+     * else
+     *   #this = {@literal <steal>} * this
+     * </pre>
+     */
+    public final T steal() {
+        long t = this.top.get();
+        long b = this.bottom;
+        if (b - t <= 0) {
+            return null;
+        }
+        AtomicReferenceArray<T> a = this.array;
+        T x = a.get(index(a, t));
+        if (x == null || !this.top.compareAndSet(t, t + 1)) {
+            //Lost the race
+            return null;
+        }
+        /*
+         * The slot is left as it is: once top has moved, the owner may
+         * already have reused it, so only the owner writes to the array
+         */
+        return x;
+    }
+
+    /*
+     * Read methods -----------------------------------------------------------
+     */
+
+    /**
+     * Reports length of {@code this}.
+     *
+     * @return the length of {@code this}
+     * @ensures length = |this|
+     */
+    public final int length() {
+        long size = this.bottom - this.top.get();
+        return (int) Math.max(0, size);
+    }
+
+    /**
+     * Reports the front of {@code this}.
+     *
+     * @return the front entry of {@code this}, or {@code null} if it was taken
+     *         concurrently
+     * @aliases reference returned by front
+     * @requires this /= <>
+     * @ensures <pre>
+     * {@literal <front>} is prefix of this
+     * </pre>
+     */
+    public final T front() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        AtomicReferenceArray<T> a = this.array;
+        return a.get(index(a, this.top.get()));
+    }
+
+    /**
+     * Reports the back of {@code this}. Only meaningful when called by the
+     * owner thread.
+     *
+     * @return the back entry of {@code this}, or {@code null} if it was taken
+     *         concurrently
+     * @aliases reference returned by back
+     * @requires this /= <>
+     * @ensures <pre>
+     * {@literal <back>} is suffix of this
+     * </pre>
+     */
+    public final T back() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        AtomicReferenceArray<T> a = this.array;
+        return a.get(index(a, this.bottom - 1));
+    }
+
+}
@@ -0,0 +1,285 @@
+package components.sortingmachine;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code SortingMachine} represented as a growable array, sorted all at once
+ * when the machine changes to extraction mode, with implementations of all
+ * primary methods but the sort itself, {@code newInstance} and
+ * {@code transferFrom}.
+ *
+ * <p>
+ * {@code add} is amortized O(1) and {@code removeFirst} is O(1): it only
+ * advances past the first entry. Subclasses choose how
+ * {@code changeToExtractionMode} sorts by implementing {@code sort}, which
+ * must be stable, and implement {@code transferFrom} by checking the type of
+ * {@code source} and calling {@code transferRepFrom}.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * IS_SORTED (
+ *   s: string of T,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y: T where (<x, y> is substring of s) (r(x, y))
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * 0 <= $this.first <= $this.size <= |$this.entries|  and
+ * [$this.entries[0, $this.first) and $this.entries[$this.size,
+ *  |$this.entries|) are null]  and
+ * if $this.insertionMode then
+ *  $this.first = 0
+ * else
+ *  IS_SORTED($this.entries[$this.first, $this.size),
+ *            [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *   ($this.insertionMode, $this.machineOrder,
+ *    multiset_entries($this.entries[$this.first, $this.size)))
+ * </pre>
+ *
+ * @author Zach Baruch
+ */
+abstract class ArraySortingMachine<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of {@code entries}.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Entries, in the order added until extraction mode, then sorted.
+     */
+    private Object[] entries;
+
+    /**
+     * Position of the first entry not yet removed.
+     */
+    private int first;
+
+    /**
+     * One past the position of the last entry.
+     */
+    private int size;
+
+    /**
+     * Reports the entry at position {@code i} of {@code entries}.
+     *
+     * @param i
+     *            the position
+     * @return the entry
+     */
+    @SuppressWarnings("unchecked")
+    private T entryAt(int i) {
+        return (T) this.entries[i];
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    private void createNewRep(Comparator<T> order) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.entries = new Object[INITIAL_CAPACITY];
+        this.first = 0;
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    ArraySortingMachine(Comparator<T> order) {
+        this.createNewRep(order);
+    }
+
+    /*
+     * Sorting and transfer for subclasses ------------------------------------
+     */
+
+    /**
+     * Sorts {@code a[0, n)} stably by {@code order}.
+     *
+     * @param a
+     *            the array
+     * @param n
+     *            the number of entries to sort
+     * @param order
+     *            total preorder for sorting
+     * @updates a
+     * @requires 0 <= n <= |a|
+     * @ensures <pre>
+     * IS_SORTED(a[0, n), [relation computed by order.compare method])  and
+     * [a[0, n) is a stable permutation of #a[0, n)]  and
+     * a[n, |a|) = #a[n, |a|)
+     * </pre>
+     */
+    abstract void sort(T[] a, int n, Comparator<T> order);
+
+    /**
+     * Moves the representation of {@code source} to {@code this}, leaving
+     * {@code source} empty.
+     *
+     * @param source
+     *            the {@code ArraySortingMachine} to move from
+     * @requires source is not this
+     */
+    final void transferRepFrom(ArraySortingMachine<T> source) {
+        this.insertionMode = source.insertionMode;
+        this.machineOrder = source.machineOrder;
+        this.entries = source.entries;
+        this.first = source.first;
+        this.size = source.size;
+        source.createNewRep(source.machineOrder);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, 2 * this.size);
+        }
+        this.entries[this.size] = x;
+        this.size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+        this.sort((T[]) this.entries, this.size, this.machineOrder);
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        return this.machineOrder;
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this.insertionMode : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T x = this.entryAt(this.first);
+        //Drop the reference, so removed entries can be garbage collected
+        this.entries[this.first] = null;
+        this.first++;
+        return x;
+    }
+
+    @Override
+    public final int size() {
+        return this.size - this.first;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new ArraySortingMachineIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code ArraySortingMachine}.
+     */
+    private final class ArraySortingMachineIterator implements Iterator<T> {
+
+        /**
+         * Position of the next entry to return.
+         */
+        private int position;
+
+        /**
+         * No-argument constructor.
+         */
+        private ArraySortingMachineIterator() {
+            this.position = ArraySortingMachine.this.first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < ArraySortingMachine.this.size;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = ArraySortingMachine.this.entryAt(this.position);
+            this.position++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+}
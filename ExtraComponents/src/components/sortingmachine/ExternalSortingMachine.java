@@ -0,0 +1,1056 @@
+package components.sortingmachine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import components.codec.Codec;
+
+/**
+ * {@code SortingMachine} for more entries than fit in memory: entries are
+ * buffered in memory up to a budget, sorted runs are spilled to temporary
+ * files, and the runs are merged lazily during extraction, with
+ * implementations of primary methods.
+ *
+ * <p>
+ * Entries are converted to and from bytes by a {@code Codec}, and the budget
+ * counts the bytes of their encodings. When adding an entry would take the
+ * buffer past the budget, the buffer is sorted and written to a new file in
+ * the temporary directory as a run of length-prefixed records. If nothing was
+ * spilled, {@code changeToExtractionMode} just sorts the buffer, and entries
+ * are removed straight from it. Otherwise it spills the rest of the buffer as
+ * a last run, and {@code removeFirst} merges the runs with a loser tree, in
+ * O(log k) comparisons for k runs, reading each run through its own buffer
+ * from a {@code FileChannel} kept open until the run is exhausted or the
+ * machine is cleared. The sort is stable: entries that compare equal are
+ * removed in the order they were added.
+ * </p>
+ *
+ * <p>
+ * The budget also bounds the read buffers of a merge, rather than the number
+ * of runs: a merge reads at most {@code memoryBudget / MIN_READ_BUFFER} runs
+ * (but at least 2, and no more than {@code MAX_FAN_IN}, which bounds the open
+ * files) at once, each through a buffer of {@code memoryBudget / k}
+ * bytes, kept between {@code MIN_READ_BUFFER} and {@code MAX_READ_BUFFER}.
+ * When there are more runs than that, {@code changeToExtractionMode} first
+ * merges consecutive groups of them into longer runs, in as many passes as
+ * needed. Heap use is thus about the budget, plus a write buffer while
+ * spilling and the decoded head of each run while merging.
+ * </p>
+ *
+ * <p>
+ * A run file is deleted as soon as it has been read to the end, when the
+ * machine is cleared, or, if it could not be written, at once. Iterating reads
+ * the remaining runs from disk again. Methods throw
+ * {@code UncheckedIOException} if a run file cannot be written or read.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * IS_SORTED (
+ *   s: string of T,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y: T where (<x, y> is substring of s) (r(x, y))
+ *
+ * REMAINING (
+ *   m: merge,
+ *   i: integer
+ *  ) : string of T is
+ *  [m.heads[i] (if not null) followed by the entries decoded from
+ *   m.files[i] from offset m.cursors[i] on]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * $this.memoryBudget > 0  and
+ * 0 <= $this.next <= $this.buffered <= |$this.buffer|  and
+ * [$this.buffer[0, $this.next) and $this.buffer[$this.buffered,
+ *  |$this.buffer|) are null]  and
+ * [each file in $this.runs holds a sorted run of length-prefixed encodings,
+ *  spilled in order]  and
+ * if $this.insertionMode then
+ *  $this.next = 0  and  $this.merge = null  and
+ *  $this.bufferedBytes = [total encoded size of $this.buffer[0,
+ *                         $this.buffered)] <= $this.memoryBudget  and
+ *  $this.size = $this.buffered + [number of entries in the runs]
+ * else if $this.merge = null then
+ *  IS_SORTED($this.buffer[$this.next, $this.buffered), ...)  and
+ *  $this.size = $this.buffered - $this.next
+ * else
+ *  $this.buffered = 0  and
+ *  [$this.merge.tree is a loser tree over the runs in $this.merge.files,
+ *   whose current heads are $this.merge.heads]  and
+ *  $this.size = sum of |REMAINING($this.merge, i)| over the runs
+ * </pre>
+ * @correspondence <pre>
+ * if $this.insertionMode then
+ *  this = ($this.insertionMode, $this.machineOrder,
+ *          multiset_entries([entries of the runs] *
+ *                           $this.buffer[0, $this.buffered)))
+ * else if $this.merge = null then
+ *  this = ($this.insertionMode, $this.machineOrder,
+ *          multiset_entries($this.buffer[$this.next, $this.buffered)))
+ * else
+ *  this = ($this.insertionMode, $this.machineOrder,
+ *          multiset_entries([REMAINING($this.merge, i) for each run i]))
+ * </pre>
+ *
+ * @author Zach Baruch
+ */
+public class ExternalSortingMachine<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Memory budget used by the two-argument constructor, in bytes.
+     */
+    private static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * Smallest read buffer of a run being merged.
+     */
+    private static final int MIN_READ_BUFFER = 1 << 12;
+
+    /**
+     * Largest read buffer of a run being merged, and largest write buffer.
+     */
+    private static final int MAX_READ_BUFFER = 1 << 16;
+
+    /**
+     * Most runs merged at once, however large the budget; a merge keeps this
+     * many files open, which must stay under the usual descriptor limits.
+     */
+    private static final int MAX_FAN_IN = 1 << 9;
+
+    /**
+     * Initial length of {@code buffer}.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Converts entries to and from bytes; moves with the runs it encoded.
+     */
+    private Codec<T> codec;
+
+    /**
+     * Directory for run files.
+     */
+    private final Path tempDir;
+
+    /**
+     * Most bytes of encodings buffered before a run is spilled, and most bytes
+     * of read buffers in a merge.
+     */
+    private final long memoryBudget;
+
+    /**
+     * Entries not spilled, in the order added until extraction mode, then
+     * sorted.
+     */
+    private Object[] buffer;
+
+    /**
+     * One past the position of the last entry in {@code buffer}.
+     */
+    private int buffered;
+
+    /**
+     * Total size of the encodings of the entries in {@code buffer}.
+     */
+    private long bufferedBytes;
+
+    /**
+     * In extraction mode without a merge, position in {@code buffer} of the
+     * first entry not yet removed.
+     */
+    private int next;
+
+    /**
+     * Run files, in the order spilled.
+     */
+    private List<Path> runs;
+
+    /**
+     * In extraction mode, the merge of the runs, or null if nothing was
+     * spilled.
+     */
+    private Merge<T> merge;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Reader of a run file from a given offset, through a buffer refilled with
+     * a positional {@code FileChannel} read. A reader that is kept open holds
+     * one channel until it is closed; otherwise the file is opened only during
+     * a refill, so an abandoned reader, as an iterator's is, holds no file
+     * descriptor.
+     *
+     * @param <T>
+     *            type of entries
+     */
+    private static final class RunCursor<T> {
+
+        /**
+         * The run file.
+         */
+        private final Path file;
+
+        /**
+         * Decodes the records.
+         */
+        private final Codec<T> codec;
+
+        /**
+         * Offset in the file of the first byte not yet read into
+         * {@code bytes}.
+         */
+        private long fileOffset;
+
+        /**
+         * Bytes read but not yet decoded, between position and limit.
+         */
+        private ByteBuffer bytes;
+
+        /**
+         * The channel kept open by {@code open}, or null.
+         */
+        private FileChannel channel;
+
+        /**
+         * Constructor from file, codec, offset and buffer size.
+         *
+         * @param file
+         *            the run file
+         * @param codec
+         *            decodes the records
+         * @param offset
+         *            offset of the first record to read
+         * @param bufferSize
+         *            size of the read buffer
+         */
+        private RunCursor(Path file, Codec<T> codec, long offset,
+                int bufferSize) {
+            this.file = file;
+            this.codec = codec;
+            this.fileOffset = offset;
+            this.bytes = ByteBuffer.allocate(bufferSize);
+            this.bytes.limit(0);
+        }
+
+        /**
+         * Opens the file and keeps it open for every refill until
+         * {@code close}.
+         */
+        private void open() {
+            try {
+                this.channel = FileChannel.open(this.file,
+                        StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Closes the channel kept open by {@code open}, if any, ignoring
+         * failure.
+         */
+        private void close() {
+            if (this.channel != null) {
+                try {
+                    this.channel.close();
+                } catch (IOException e) {
+                    //Only read from, so nothing is lost
+                }
+                this.channel = null;
+            }
+        }
+
+        /**
+         * Fills {@code bytes} from {@code channel} at {@code fileOffset}, up
+         * to its limit or the end of the file.
+         *
+         * @param channel
+         *            the open run file
+         * @throws IOException
+         *             if the file cannot be read
+         */
+        private void fill(FileChannel channel) throws IOException {
+            int read = 0;
+            while (read >= 0 && this.bytes.hasRemaining()) {
+                read = channel.read(this.bytes, this.fileOffset);
+                if (read > 0) {
+                    this.fileOffset += read;
+                }
+            }
+        }
+
+        /**
+         * Reports the offset in the file of the next record.
+         *
+         * @return the offset of the next record
+         */
+        private long offset() {
+            return this.fileOffset - this.bytes.remaining();
+        }
+
+        /**
+         * Makes at least {@code n} bytes available in {@code bytes}, unless
+         * the file ends first.
+         *
+         * @param n
+         *            the number of bytes needed
+         * @return whether {@code n} bytes are available
+         */
+        private boolean ensure(int n) {
+            if (this.bytes.remaining() >= n) {
+                return true;
+            }
+            if (n > this.bytes.capacity()) {
+                ByteBuffer bigger = ByteBuffer.allocate(n);
+                bigger.put(this.bytes);
+                bigger.flip();
+                this.bytes = bigger;
+            }
+            this.bytes.compact();
+            try {
+                if (this.channel != null) {
+                    this.fill(this.channel);
+                } else {
+                    try (FileChannel once = FileChannel.open(this.file,
+                            StandardOpenOption.READ)) {
+                        this.fill(once);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                this.bytes.flip();
+            }
+            return this.bytes.remaining() >= n;
+        }
+
+        /**
+         * Reads and decodes the next record, or reports null at the end of
+         * the file.
+         *
+         * @return the next entry, or null
+         */
+        private T read() {
+            if (!this.ensure(Integer.BYTES)) {
+                return null;
+            }
+            int length = this.bytes.getInt();
+            boolean complete = this.ensure(length);
+            assert complete : "Violation of: [run file is not truncated]";
+            ByteBuffer record = this.bytes.duplicate();
+            record.limit(this.bytes.position() + length);
+            T x = this.codec.decode(record);
+            this.bytes.position(this.bytes.position() + length);
+            return x;
+        }
+
+    }
+
+    /**
+     * Lazy k-way merge of runs with a loser tree, reporting their entries in
+     * order; ties go to the run earlier in {@code files}, which keeps the merge
+     * stable. Each run is kept open while it is being read, and is closed and
+     * deleted as soon as it has been read to the end; {@code close} closes the
+     * rest.
+     *
+     * @param <T>
+     *            type of entries
+     */
+    private static final class Merge<T> implements Iterator<T> {
+
+        /**
+         * The runs, in the order spilled.
+         */
+        private final List<Path> files;
+
+        /**
+         * Order.
+         */
+        private final Comparator<T> order;
+
+        /**
+         * Open readers of the runs; null once a run is exhausted.
+         */
+        private final List<RunCursor<T>> cursors;
+
+        /**
+         * The head of each run, or null if the run is exhausted.
+         */
+        private final Object[] heads;
+
+        /**
+         * The loser tree: {@code tree[0]} is the run whose head is first, and
+         * {@code tree[1]} through {@code tree[k - 1]} hold the run that lost
+         * at each internal node, where the leaves, for runs 0 through k - 1,
+         * are nodes k through 2k - 1.
+         */
+        private final int[] tree;
+
+        /**
+         * Constructor from runs, codec, order and memory budget.
+         *
+         * @param files
+         *            the runs, in the order spilled
+         * @param codec
+         *            decodes the records
+         * @param order
+         *            total preorder for merging
+         * @param budget
+         *            total size of the read buffers
+         * @requires files /= <>
+         */
+        private Merge(List<Path> files, Codec<T> codec, Comparator<T> order,
+                long budget) {
+            int k = files.size();
+            this.files = files;
+            this.order = order;
+            int bufferSize = (int) Math.max(MIN_READ_BUFFER,
+                    Math.min(MAX_READ_BUFFER, budget / k));
+            this.cursors = new ArrayList<RunCursor<T>>(k);
+            this.heads = new Object[k];
+            try {
+                for (int i = 0; i < k; i++) {
+                    RunCursor<T> cursor = new RunCursor<T>(files.get(i), codec,
+                            0, bufferSize);
+                    this.cursors.add(cursor);
+                    cursor.open();
+                    this.advance(i);
+                }
+            } catch (RuntimeException | Error e) {
+                this.close();
+                throw e;
+            }
+            this.tree = new int[k];
+            this.tree[0] = this.build(1);
+        }
+
+        /**
+         * Reports the entry at position {@code i} of {@code heads}.
+         *
+         * @param i
+         *            the position
+         * @return the entry
+         */
+        @SuppressWarnings("unchecked")
+        private T headAt(int i) {
+            return (T) this.heads[i];
+        }
+
+        /**
+         * Reports whether the head of run {@code a} should be reported before
+         * the head of run {@code b}: exhausted runs come last, and ties go to
+         * the earlier run.
+         *
+         * @param a
+         *            a run
+         * @param b
+         *            another run
+         * @return whether {@code a} beats {@code b}
+         */
+        private boolean beats(int a, int b) {
+            T x = this.headAt(a);
+            T y = this.headAt(b);
+            if (x == null || y == null) {
+                return y == null && (x != null || a < b);
+            }
+            int c = this.order.compare(x, y);
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        /**
+         * Builds the loser tree below {@code node} and reports the winner
+         * there.
+         *
+         * @param node
+         *            the node
+         * @return the run that wins at {@code node}
+         */
+        private int build(int node) {
+            int k = this.heads.length;
+            if (node >= k) {
+                return node - k;
+            }
+            int left = this.build(2 * node);
+            int right = this.build(2 * node + 1);
+            if (this.beats(left, right)) {
+                this.tree[node] = right;
+                return left;
+            }
+            this.tree[node] = left;
+            return right;
+        }
+
+        /**
+         * Replaces the head of run {@code s} with its next entry, or null if
+         * it has no more, deleting the run file once it is exhausted.
+         *
+         * @param s
+         *            the run
+         */
+        private void advance(int s) {
+            T x = null;
+            RunCursor<T> cursor = this.cursors.get(s);
+            if (cursor != null) {
+                x = cursor.read();
+                if (x == null) {
+                    cursor.close();
+                    this.cursors.set(s, null);
+                    deleteQuietly(this.files.get(s));
+                }
+            }
+            this.heads[s] = x;
+        }
+
+        /**
+         * Closes the runs not yet read to the end.
+         */
+        private void close() {
+            for (RunCursor<T> cursor : this.cursors) {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.heads[this.tree[0]] != null;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            int winner = this.tree[0];
+            T x = this.headAt(winner);
+            this.advance(winner);
+
+            //Replay the matches on the path from the winner's leaf to the root
+            int k = this.heads.length;
+            for (int node = (winner + k) / 2; node > 0; node /= 2) {
+                if (this.beats(this.tree[node], winner)) {
+                    int loser = winner;
+                    winner = this.tree[node];
+                    this.tree[node] = loser;
+                }
+            }
+            this.tree[0] = winner;
+            return x;
+        }
+
+    }
+
+    /**
+     * Reports the entry at position {@code i} of {@code buffer}.
+     *
+     * @param i
+     *            the position
+     * @return the entry
+     */
+    @SuppressWarnings("unchecked")
+    private T entryAt(int i) {
+        return (T) this.buffer[i];
+    }
+
+    /**
+     * Deletes {@code file}, ignoring failure.
+     *
+     * @param file
+     *            the file
+     */
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            //Nothing more can be done; the file is left in tempDir
+        }
+    }
+
+    /**
+     * Reports how many runs are merged at once: as many as there is budget
+     * for read buffers of {@code MIN_READ_BUFFER} bytes, but at least 2.
+     *
+     * @return the most runs merged at once
+     */
+    private int fanIn() {
+        return (int) Math.max(2,
+                Math.min(MAX_FAN_IN, this.memoryBudget / MIN_READ_BUFFER));
+    }
+
+    /**
+     * Writes {@code entries} to a new run file, which is deleted again if
+     * writing fails.
+     *
+     * @param entries
+     *            the entries, in order
+     * @return the run file
+     */
+    private Path writeRun(Iterator<T> entries) {
+        Path file;
+        try {
+            file = Files.createTempFile(this.tempDir, "run", ".tmp");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.WRITE)) {
+            int bufferSize = (int) Math.max(MIN_READ_BUFFER,
+                    Math.min(MAX_READ_BUFFER, this.memoryBudget));
+            ByteBuffer out = ByteBuffer.allocateDirect(bufferSize);
+            while (entries.hasNext()) {
+                T x = entries.next();
+                int length = this.codec.length(x);
+                if (out.remaining() < Integer.BYTES + length) {
+                    out.flip();
+                    while (out.hasRemaining()) {
+                        channel.write(out);
+                    }
+                    out.clear();
+                    if (out.capacity() < Integer.BYTES + length) {
+                        out = ByteBuffer.allocate(Integer.BYTES + length);
+                    }
+                }
+                out.putInt(length);
+                int start = out.position();
+                this.codec.encode(x, out);
+                assert out.position() == start + length : ""
+                        + "Violation of: [codec writes length(x) bytes]";
+            }
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException | Error e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Sorts {@code buffer} and writes it to a new run file, then empties it.
+     */
+    @SuppressWarnings("unchecked")
+    private void spill() {
+        Arrays.sort((T[]) this.buffer, 0, this.buffered, this.machineOrder);
+        List<T> sorted = Arrays.asList((T[]) this.buffer)
+                .subList(0, this.buffered);
+        this.runs.add(this.writeRun(sorted.iterator()));
+        Arrays.fill(this.buffer, 0, this.buffered, null);
+        this.buffered = 0;
+        this.bufferedBytes = 0;
+    }
+
+    /**
+     * Merges consecutive groups of {@code fanIn()} runs into single runs
+     * until there are no more than {@code fanIn()} runs.
+     */
+    private void mergePasses() {
+        int fanIn = this.fanIn();
+        while (this.runs.size() > fanIn) {
+            List<Path> merged = new ArrayList<Path>();
+            try {
+                for (int i = 0; i < this.runs.size(); i += fanIn) {
+                    List<Path> group = new ArrayList<Path>(this.runs.subList(i,
+                            Math.min(i + fanIn, this.runs.size())));
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                    } else {
+                        Merge<T> pass = new Merge<T>(group, this.codec,
+                                this.machineOrder, this.memoryBudget);
+                        try {
+                            merged.add(this.writeRun(pass));
+                        } finally {
+                            pass.close();
+                        }
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                //Keep track of the new runs too, so clear deletes them
+                this.runs.addAll(merged);
+                throw e;
+            }
+            this.runs = merged;
+        }
+    }
+
+    /**
+     * Creator of initial representation, closing and deleting any run files.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    private void createNewRep(Comparator<T> order) {
+        if (this.merge != null) {
+            this.merge.close();
+        }
+        if (this.runs != null) {
+            for (Path file : this.runs) {
+                deleteQuietly(file);
+            }
+        }
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.buffer = new Object[INITIAL_CAPACITY];
+        this.buffered = 0;
+        this.bufferedBytes = 0;
+        this.next = 0;
+        this.runs = new ArrayList<Path>();
+        this.merge = null;
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and codec, spilling runs of up to 64 MB of
+     * encodings to the default temporary directory.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param codec
+     *            converts entries to and from bytes
+     */
+    public ExternalSortingMachine(Comparator<T> order, Codec<T> codec) {
+        this(order, codec, Paths.get(System.getProperty("java.io.tmpdir")),
+                DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Constructor from order, codec, temporary directory and memory budget.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param codec
+     *            converts entries to and from bytes
+     * @param tempDir
+     *            directory for run files
+     * @param memoryBudget
+     *            most bytes of encodings buffered before a run is spilled,
+     *            and of read buffers while merging
+     * @requires memoryBudget > 0
+     */
+    public ExternalSortingMachine(Comparator<T> order, Codec<T> codec,
+            Path tempDir, long memoryBudget) {
+        assert codec != null : "Violation of: codec is not null";
+        assert tempDir != null : "Violation of: tempDir is not null";
+        assert memoryBudget > 0 : "Violation of: memoryBudget > 0";
+
+        this.codec = codec;
+        this.tempDir = tempDir;
+        this.memoryBudget = memoryBudget;
+        this.createNewRep(order);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class,
+                    Codec.class, Path.class, long.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder,
+                    this.codec, this.tempDir, this.memoryBudget);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof ExternalSortingMachine<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " ExternalSortingMachine<?>";
+
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * ExternalSortingMachine<?>, and the ? must be T or the call would not
+         * have compiled.
+         */
+        ExternalSortingMachine<T> localSource =
+                (ExternalSortingMachine<T>) source;
+        this.createNewRep(localSource.machineOrder);
+        this.insertionMode = localSource.insertionMode;
+        this.codec = localSource.codec;
+        this.buffer = localSource.buffer;
+        this.buffered = localSource.buffered;
+        this.bufferedBytes = localSource.bufferedBytes;
+        this.next = localSource.next;
+        this.runs = localSource.runs;
+        this.merge = localSource.merge;
+        this.size = localSource.size;
+        //The run files now belong to this, so source must not delete them
+        localSource.runs = null;
+        localSource.merge = null;
+        localSource.createNewRep(localSource.machineOrder);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        long bytes = this.codec.length(x);
+        if (this.buffered > 0
+                && this.bufferedBytes + bytes > this.memoryBudget) {
+            this.spill();
+        }
+        if (this.buffered == this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, 2 * this.buffered);
+        }
+        this.buffer[this.buffered] = x;
+        this.buffered++;
+        this.bufferedBytes += bytes;
+        this.size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        if (this.runs.isEmpty()) {
+            Arrays.sort((T[]) this.buffer, 0, this.buffered,
+                    this.machineOrder);
+        } else {
+            //Spill the rest too, so the whole budget goes to read buffers
+            if (this.buffered > 0) {
+                this.spill();
+            }
+            this.buffer = new Object[INITIAL_CAPACITY];
+            this.mergePasses();
+            this.merge = new Merge<T>(this.runs, this.codec,
+                    this.machineOrder, this.memoryBudget);
+        }
+        this.insertionMode = false;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        return this.machineOrder;
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this.insertionMode : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T x;
+        if (this.merge == null) {
+            x = this.entryAt(this.next);
+            this.buffer[this.next] = null;
+            this.next++;
+        } else {
+            x = this.merge.next();
+        }
+        this.size--;
+        return x;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new ExternalSortingMachineIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code ExternalSortingMachine}: reports the remaining entries of each
+     * run in turn, reading the runs again from disk, then those in
+     * {@code buffer}.
+     */
+    private final class ExternalSortingMachineIterator implements Iterator<T> {
+
+        /**
+         * Current run, or the buffer when it equals the number of runs.
+         */
+        private int source;
+
+        /**
+         * Whether the head of the current run in the merge is still to be
+         * reported.
+         */
+        private boolean atHead;
+
+        /**
+         * Reader of the current run, if there is one.
+         */
+        private RunCursor<T> cursor;
+
+        /**
+         * Position in {@code buffer} of the next buffered entry to report.
+         */
+        private int position;
+
+        /**
+         * Next entry to report, or null if there are no more.
+         */
+        private T pending;
+
+        /**
+         * No-argument constructor.
+         */
+        private ExternalSortingMachineIterator() {
+            this.source = -1;
+            this.nextSource();
+            this.pending = this.fetch();
+        }
+
+        /**
+         * Moves on to the next run, or to the buffer.
+         */
+        private void nextSource() {
+            ExternalSortingMachine<T> m = ExternalSortingMachine.this;
+            this.source++;
+            this.atHead = m.merge != null;
+            this.cursor = null;
+            if (this.source < m.runs.size()) {
+                Path file = m.runs.get(this.source);
+                if (m.merge == null) {
+                    this.cursor = new RunCursor<T>(file, m.codec, 0,
+                            MIN_READ_BUFFER);
+                } else if (m.merge.cursors.get(this.source) != null) {
+                    this.cursor = new RunCursor<T>(file, m.codec,
+                            m.merge.cursors.get(this.source).offset(),
+                            MIN_READ_BUFFER);
+                }
+            } else {
+                this.position = m.next;
+            }
+        }
+
+        /**
+         * Reads the next entry to report.
+         *
+         * @return the next entry, or null if there are no more
+         */
+        private T fetch() {
+            ExternalSortingMachine<T> m = ExternalSortingMachine.this;
+            T x = null;
+            while (x == null && this.source <= m.runs.size()) {
+                if (this.source < m.runs.size()) {
+                    if (this.atHead) {
+                        this.atHead = false;
+                        x = m.merge.headAt(this.source);
+                    } else if (this.cursor != null) {
+                        x = this.cursor.read();
+                    }
+                    if (x == null) {
+                        this.nextSource();
+                    }
+                } else if (this.position < m.buffered) {
+                    x = m.entryAt(this.position);
+                    this.position++;
+                } else {
+                    this.source++;
+                }
+            }
+            return x;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.pending != null;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = this.pending;
+            this.pending = this.fetch();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+}
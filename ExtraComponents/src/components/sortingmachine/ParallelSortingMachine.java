@@ -0,0 +1,273 @@
+package components.sortingmachine;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@code SortingMachine} represented as a growable array, sorted all at once
+ * by a parallel, stable merge sort in a {@code ForkJoinPool} when the machine
+ * changes to extraction mode, with implementations of primary methods.
+ *
+ * <p>
+ * The array, {@code add} and {@code removeFirst} are those of
+ * {@code ArraySortingMachine}. {@code changeToExtractionMode} splits the
+ * entries in half recursively, sorting the halves as separate fork/join tasks,
+ * until a piece has no more than the sequential cutoff entries; such a piece
+ * is sorted in its task with {@code Arrays.sort} (TimSort). Sorted halves are
+ * merged taking from the left half on ties, so the sort is stable: entries
+ * that compare equal are removed in the order they were added. The pool and
+ * the cutoff can be given to the constructor; by default they are the common
+ * pool and 8192.
+ * </p>
+ *
+ * <p>
+ * Each merge runs on a single thread, so the sort takes O(n log n) work but
+ * O(n) time however many threads there are: the last merge alone touches all
+ * n entries. The speedup is thus at most about log(n / cutoff), the number of
+ * levels of merges, which bounds the scaling {@code ParallelSortingMachine}
+ * can show. {@code Arrays.parallelSort}, which also merges in parallel, scales
+ * further but always runs in the common pool.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @convention $this.pool is not null  and  $this.cutoff >= 1
+ *
+ * @author Zach Baruch
+ */
+public class ParallelSortingMachine<T> extends ArraySortingMachine<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Sequential cutoff used by the one-argument constructor.
+     */
+    private static final int DEFAULT_CUTOFF = 8192;
+
+    /**
+     * Pool that runs the sort.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Largest piece sorted sequentially.
+     */
+    private final int cutoff;
+
+    /**
+     * Fork/join task that sorts part of an array with a stable merge sort.
+     *
+     * @param <T>
+     *            type of entries
+     */
+    private static final class MergeSortTask<T> extends RecursiveAction {
+
+        /**
+         * Serialization version, required since {@code RecursiveAction} is
+         * {@code Serializable}.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The array being sorted.
+         */
+        private final T[] a;
+
+        /**
+         * Scratch space, as long as {@code a}; the same array is shared by
+         * all tasks, each using only its own range. It is dropped after the
+         * sort, so it is not cleared.
+         */
+        private final T[] buffer;
+
+        /**
+         * Start of the range to sort.
+         */
+        private final int from;
+
+        /**
+         * End of the range to sort.
+         */
+        private final int to;
+
+        /**
+         * Order.
+         */
+        private final Comparator<T> order;
+
+        /**
+         * Largest piece sorted sequentially.
+         */
+        private final int cutoff;
+
+        /**
+         * Constructor from array, scratch space, range, order and cutoff.
+         *
+         * @param a
+         *            the array being sorted
+         * @param buffer
+         *            scratch space
+         * @param from
+         *            start of the range to sort
+         * @param to
+         *            end of the range to sort
+         * @param order
+         *            ordering by which to sort
+         * @param cutoff
+         *            largest piece sorted sequentially
+         */
+        private MergeSortTask(T[] a, T[] buffer, int from, int to,
+                Comparator<T> order, int cutoff) {
+            this.a = a;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.order = order;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.cutoff) {
+                Arrays.sort(this.a, this.from, this.to, this.order);
+            } else {
+                int mid = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new MergeSortTask<T>(this.a, this.buffer, this.from,
+                                mid, this.order, this.cutoff),
+                        new MergeSortTask<T>(this.a, this.buffer, mid,
+                                this.to, this.order, this.cutoff));
+                this.merge(mid);
+            }
+        }
+
+        /**
+         * Merges the sorted ranges [from, mid) and [mid, to) of {@code a},
+         * taking from the left range on ties.
+         *
+         * @param mid
+         *            end of the left range and start of the right one
+         */
+        private void merge(int mid) {
+            if (this.order.compare(this.a[mid - 1], this.a[mid]) <= 0) {
+                //Already in order
+                return;
+            }
+            //Copy out the left range, then merge it and the right one back
+            int leftLength = mid - this.from;
+            System.arraycopy(this.a, this.from, this.buffer, this.from,
+                    leftLength);
+            int i = this.from;
+            int leftEnd = mid;
+            int j = mid;
+            int k = this.from;
+            while (i < leftEnd && j < this.to) {
+                if (this.order.compare(this.a[j], this.buffer[i]) < 0) {
+                    this.a[k] = this.a[j];
+                    j++;
+                } else {
+                    this.a[k] = this.buffer[i];
+                    i++;
+                }
+                k++;
+            }
+            System.arraycopy(this.buffer, i, this.a, k, leftEnd - i);
+        }
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order, sorting in the common pool.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public ParallelSortingMachine(Comparator<T> order) {
+        this(order, ForkJoinPool.commonPool(), DEFAULT_CUTOFF);
+    }
+
+    /**
+     * Constructor from order, pool and sequential cutoff.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param pool
+     *            the pool that runs the sort
+     * @param cutoff
+     *            largest number of entries sorted sequentially
+     * @requires cutoff >= 1
+     */
+    public ParallelSortingMachine(Comparator<T> order, ForkJoinPool pool,
+            int cutoff) {
+        super(order);
+        assert pool != null : "Violation of: pool is not null";
+        assert cutoff >= 1 : "Violation of: cutoff >= 1";
+
+        this.pool = pool;
+        this.cutoff = cutoff;
+    }
+
+    /*
+     * Sorting ----------------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    final void sort(T[] a, int n, Comparator<T> order) {
+        if (n <= this.cutoff) {
+            //Not worth handing to the pool
+            Arrays.sort(a, 0, n, order);
+        } else {
+            T[] buffer = (T[]) new Object[n];
+            this.pool.invoke(
+                    new MergeSortTask<T>(a, buffer, 0, n, order, this.cutoff));
+        }
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class,
+                    ForkJoinPool.class, int.class);
+            return (SortingMachine<T>) c.newInstance(this.order(), this.pool,
+                    this.cutoff);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof ParallelSortingMachine<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " ParallelSortingMachine<?>";
+
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * ParallelSortingMachine<?>, and the ? must be T or the call would not
+         * have compiled.
+         */
+        ParallelSortingMachine<T> localSource =
+                (ParallelSortingMachine<T>) source;
+        this.transferRepFrom(localSource);
+    }
+
+}
@@ -0,0 +1,459 @@
+package components.sortingmachine;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code SortingMachine} represented as a sorted list of sorted blocks, i.e.,
+ * a two-level blocked array in the style of a B+-tree (using an embedding of
+ * insertion sort), with implementations of primary methods.
+ *
+ * <p>
+ * Like {@code SortingMachine7a}, entries are kept in order as they are added,
+ * so iteration reports them sorted at any time. {@code add} binary-searches
+ * the blocks by their last entries and then the block found, so it makes
+ * O(log n) comparisons; it then shifts at most {@code BLOCK_SIZE} entries
+ * within the block, and when a block fills, splits it in two, shifting the
+ * O(n / {@code BLOCK_SIZE}) later block references. {@code removeFirst} is
+ * O(1): it advances past the first entry of the first block, and past the
+ * first block once it is empty.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * IS_SORTED (
+ *   s: string of T,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y: T where (<x, y> is substring of s) (r(x, y))
+ *
+ * ENTRIES (
+ *   b: block
+ *  ) : string of T is
+ *  b.entries[b.from, b.to)
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * 0 <= $this.firstBlock <= $this.lastBlock <= |$this.blocks|  and
+ * [$this.blocks[$this.firstBlock, $this.lastBlock) are not null, and the
+ *  other elements of $this.blocks are null]  and
+ * [for each block b in use, 0 <= b.from < b.to <= BLOCK_SIZE, and the
+ *  elements of b.entries outside [b.from, b.to) are null]  and
+ * $this.size = sum of |ENTRIES(b)| over the blocks in use  and
+ * IS_SORTED([ENTRIES(b) for the blocks in use, concatenated in order],
+ *           [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *   ($this.insertionMode, $this.machineOrder,
+ *    multiset_entries([ENTRIES(b) for the blocks in use, concatenated]))
+ * </pre>
+ *
+ * @author Zach Baruch
+ */
+public class SortingMachine7b<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Most entries in a block; a full block is split in half.
+     */
+    private static final int BLOCK_SIZE = 512;
+
+    /**
+     * Initial length of {@code blocks}.
+     */
+    private static final int INITIAL_BLOCKS = 4;
+
+    /**
+     * A block: a sorted run of entries in part of an array.
+     */
+    private static final class Block {
+
+        /**
+         * The entries, in positions {@code from} through {@code to - 1}.
+         */
+        private final Object[] entries;
+
+        /**
+         * Position of the first entry.
+         */
+        private int from;
+
+        /**
+         * One past the position of the last entry.
+         */
+        private int to;
+
+        /**
+         * No-argument constructor: an empty block.
+         */
+        private Block() {
+            this.entries = new Object[BLOCK_SIZE];
+            this.from = 0;
+            this.to = 0;
+        }
+
+    }
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Blocks, in order.
+     */
+    private Block[] blocks;
+
+    /**
+     * Position in {@code blocks} of the first block in use.
+     */
+    private int firstBlock;
+
+    /**
+     * One past the position in {@code blocks} of the last block in use.
+     */
+    private int lastBlock;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Reports the entry at position {@code i} of {@code b.entries}.
+     *
+     * @param b
+     *            the block
+     * @param i
+     *            the position
+     * @return the entry
+     */
+    @SuppressWarnings("unchecked")
+    private T entryAt(Block b, int i) {
+        return (T) b.entries[i];
+    }
+
+    /**
+     * Reports the position of the block into which {@code x} should be
+     * inserted: the first block whose last entry is greater than {@code x},
+     * or the last block if there is none.
+     *
+     * @param x
+     *            the entry to be inserted
+     * @return the position in {@code blocks} of the block
+     * @requires $this.firstBlock < $this.lastBlock
+     */
+    private int findBlock(T x) {
+        int low = this.firstBlock;
+        int high = this.lastBlock - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Block b = this.blocks[mid];
+            if (this.machineOrder.compare(x, this.entryAt(b, b.to - 1)) < 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Reports the position in {@code b.entries} just after the last entry not
+     * greater than {@code x}, so equal entries stay in the order added.
+     *
+     * @param b
+     *            the block
+     * @param x
+     *            the entry to be inserted
+     * @return the position at which to insert {@code x}
+     */
+    private int findSlot(Block b, T x) {
+        int low = b.from;
+        int high = b.to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.machineOrder.compare(x, this.entryAt(b, mid)) < 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Splits the full block at position {@code i} of {@code blocks} in half,
+     * inserting a new block after it for the second half, and returns the
+     * new position of the block (which moves if {@code blocks} is compacted).
+     *
+     * @param i
+     *            position of the block
+     * @return the position of the first half
+     * @requires <pre>
+     * $this.firstBlock <= i < $this.lastBlock  and
+     * [the block at position i holds BLOCK_SIZE entries]
+     * </pre>
+     */
+    private int split(int i) {
+        int at = i;
+        if (this.lastBlock == this.blocks.length) {
+            //Slide the blocks in use to the start, doubling if they fill it
+            int inUse = this.lastBlock - this.firstBlock;
+            Block[] target = this.blocks;
+            if (inUse > this.blocks.length / 2) {
+                target = new Block[2 * this.blocks.length];
+            }
+            System.arraycopy(this.blocks, this.firstBlock, target, 0, inUse);
+            Arrays.fill(target, inUse, this.lastBlock, null);
+            this.blocks = target;
+            at -= this.firstBlock;
+            this.firstBlock = 0;
+            this.lastBlock = inUse;
+        }
+        System.arraycopy(this.blocks, at + 1, this.blocks, at + 2,
+                this.lastBlock - at - 1);
+        this.lastBlock++;
+
+        Block full = this.blocks[at];
+        Block half = new Block();
+        int mid = (full.from + full.to) >>> 1;
+        half.to = full.to - mid;
+        System.arraycopy(full.entries, mid, half.entries, 0, half.to);
+        Arrays.fill(full.entries, mid, full.to, null);
+        full.to = mid;
+        this.blocks[at + 1] = half;
+        return at;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    private void createNewRep(Comparator<T> order) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.blocks = new Block[INITIAL_BLOCKS];
+        this.firstBlock = 0;
+        this.lastBlock = 0;
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine7b(Comparator<T> order) {
+        this.createNewRep(order);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine7b<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine7b<?>";
+
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine7b<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine7b<T> localSource = (SortingMachine7b<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.blocks = localSource.blocks;
+        this.firstBlock = localSource.firstBlock;
+        this.lastBlock = localSource.lastBlock;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        if (this.firstBlock == this.lastBlock) {
+            this.blocks[0] = new Block();
+            this.firstBlock = 0;
+            this.lastBlock = 1;
+        }
+        //Only removeFirst leaves room at the front of a block, so b.from = 0
+        int i = this.findBlock(x);
+        Block b = this.blocks[i];
+        if (b.to == BLOCK_SIZE) {
+            i = this.split(i);
+            if (this.findBlock(x) != i) {
+                i++;
+            }
+            b = this.blocks[i];
+        }
+        int slot = this.findSlot(b, x);
+        System.arraycopy(b.entries, slot, b.entries, slot + 1, b.to - slot);
+        b.entries[slot] = x;
+        b.to++;
+        this.size++;
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        return this.machineOrder;
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this.insertionMode : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        Block b = this.blocks[this.firstBlock];
+        T x = this.entryAt(b, b.from);
+        b.entries[b.from] = null;
+        b.from++;
+        if (b.from == b.to) {
+            this.blocks[this.firstBlock] = null;
+            this.firstBlock++;
+        }
+        this.size--;
+        return x;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine7bIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine7b}; reports the entries in order.
+     */
+    private final class SortingMachine7bIterator implements Iterator<T> {
+
+        /**
+         * Position in {@code blocks} of the current block.
+         */
+        private int block;
+
+        /**
+         * Position in the current block of the next entry.
+         */
+        private int position;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine7bIterator() {
+            this.block = SortingMachine7b.this.firstBlock;
+            if (this.block < SortingMachine7b.this.lastBlock) {
+                this.position = SortingMachine7b.this.blocks[this.block].from;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.block < SortingMachine7b.this.lastBlock;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            Block b = SortingMachine7b.this.blocks[this.block];
+            T x = SortingMachine7b.this.entryAt(b, this.position);
+            this.position++;
+            if (this.position == b.to) {
+                this.block++;
+                if (this.block < SortingMachine7b.this.lastBlock) {
+                    this.position = SortingMachine7b.this.blocks[this.block]
+                            .from;
+                }
+            }
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package components.sortingmachine;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * {@code SortingMachine} represented as a growable array, sorted all at once
+ * by an adaptive, stable merge sort when the machine changes to extraction
+ * mode, with implementations of primary methods.
+ *
+ * <p>
+ * The array, {@code add} and {@code removeFirst} are those of
+ * {@code ArraySortingMachine}: {@code add} is amortized O(1) and
+ * {@code removeFirst} is O(1). {@code changeToExtractionMode} sorts with
+ * {@code Arrays.sort}, which for objects is TimSort: it finds the runs already
+ * in order (reversing descending ones), merges them with galloping, and takes
+ * O(n) time on input that is already sorted and O(n log n) in the worst case.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ *
+ * @author Zach Baruch
+ */
+public class SortingMachine8<T> extends ArraySortingMachine<T> {
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine8(Comparator<T> order) {
+        super(order);
+    }
+
+    /*
+     * Sorting ----------------------------------------------------------------
+     */
+
+    @Override
+    final void sort(T[] a, int n, Comparator<T> order) {
+        //TimSort, which is stable and adapts to runs already in order
+        Arrays.sort(a, 0, n, order);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class);
+            return (SortingMachine<T>) c.newInstance(this.order());
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine8<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine8<?>";
+
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine8<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine8<T> localSource = (SortingMachine8<T>) source;
+        this.transferRepFrom(localSource);
+    }
+
+}
@@ -0,0 +1,355 @@
+package components.sortingmachine;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code SortingMachine} represented as a d-ary heap in a flat array (using an
+ * embedding of heapsort), with implementations of primary methods.
+ *
+ * <p>
+ * {@code add} is amortized O(1): entries are only appended until the machine
+ * changes to extraction mode. {@code changeToExtractionMode} then builds the
+ * heap bottom-up in O(n) time, and {@code removeFirst} is O(d log n / log d).
+ * Every node is an array slot, with no per-node objects. The fan-out d (2, 4
+ * or 8; 4 by default) trades comparisons per level for levels: a wider heap
+ * is shallower, and the children of a node are adjacent in memory.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * IS_D_ARY_HEAP (
+ *   s: string of T,
+ *   d: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all i: integer where (0 < i < |s|)
+ *   (r(s[(i - 1) / d], s[i]))
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * $this.arity is 2, 4 or 8  and
+ * 0 <= $this.size <= |$this.heap|  and
+ * [$this.heap[$this.size, |$this.heap|) are null]  and
+ * if not $this.insertionMode then
+ *  IS_D_ARY_HEAP($this.heap[0, $this.size), $this.arity,
+ *                [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *   ($this.insertionMode, $this.machineOrder,
+ *    multiset_entries($this.heap[0, $this.size)))
+ * </pre>
+ *
+ * @author Zach Baruch
+ */
+public class SortingMachine9<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Fan-out used by the one-argument constructor.
+     */
+    private static final int DEFAULT_ARITY = 4;
+
+    /**
+     * Initial length of {@code heap}.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Number of children of each node.
+     */
+    private final int arity;
+
+    /**
+     * Entries, in the order added until extraction mode, then as a heap: the
+     * children of the node at position i are at positions d*i + 1 through
+     * d*i + d.
+     */
+    private Object[] heap;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Reports the entry at position {@code i} of {@code heap}.
+     *
+     * @param i
+     *            the position
+     * @return the entry
+     */
+    @SuppressWarnings("unchecked")
+    private T entryAt(int i) {
+        return (T) this.heap[i];
+    }
+
+    /**
+     * Moves {@code x} down from position {@code i} of {@code heap} until it is
+     * no larger than its children, moving smaller children up into the hole
+     * it leaves, and stores it there.
+     *
+     * @param i
+     *            the position of the hole
+     * @param x
+     *            the entry to place
+     * @updates $this.heap
+     * @requires <pre>
+     * [the subtrees rooted at the children of position i are heaps]
+     * </pre>
+     * @ensures <pre>
+     * [the subtree rooted at position i is a heap holding x and the entries
+     *  of #$this.heap in that subtree other than the one at position i]
+     * </pre>
+     */
+    private void siftDown(int i, T x) {
+        int hole = i;
+        int firstChild = this.arity * hole + 1;
+        while (firstChild < this.size) {
+            //Find the smallest child
+            int lastChild = Math.min(firstChild + this.arity, this.size);
+            int smallest = firstChild;
+            T smallestEntry = this.entryAt(firstChild);
+            for (int c = firstChild + 1; c < lastChild; c++) {
+                T entry = this.entryAt(c);
+                if (this.machineOrder.compare(entry, smallestEntry) < 0) {
+                    smallest = c;
+                    smallestEntry = entry;
+                }
+            }
+            if (this.machineOrder.compare(smallestEntry, x) >= 0) {
+                break;
+            }
+            this.heap[hole] = smallestEntry;
+            hole = smallest;
+            firstChild = this.arity * hole + 1;
+        }
+        this.heap[hole] = x;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    private void createNewRep(Comparator<T> order) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.heap = new Object[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order, with a 4-ary heap.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine9(Comparator<T> order) {
+        this(order, DEFAULT_ARITY);
+    }
+
+    /**
+     * Constructor from order and fan-out.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param arity
+     *            number of children of each heap node
+     * @requires arity is 2, 4 or 8
+     */
+    public SortingMachine9(Comparator<T> order, int arity) {
+        assert arity == 2 || arity == 4 || arity == 8 : ""
+                + "Violation of: arity is 2, 4 or 8";
+
+        this.arity = arity;
+        this.createNewRep(order);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class,
+                    int.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder,
+                    this.arity);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine9<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine9<?>";
+
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine9<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine9<T> localSource = (SortingMachine9<T>) source;
+        assert localSource.arity == this.arity : ""
+                + "Violation of: source has the same arity as this";
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.heap = localSource.heap;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        if (this.size == this.heap.length) {
+            this.heap = Arrays.copyOf(this.heap, 2 * this.size);
+        }
+        this.heap[this.size] = x;
+        this.size++;
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+        //Bottom-up heapify: sift down every internal node, last one first
+        if (this.size > 1) {
+            for (int i = (this.size - 2) / this.arity; i >= 0; i--) {
+                this.siftDown(i, this.entryAt(i));
+            }
+        }
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        return this.machineOrder;
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this.insertionMode : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T first = this.entryAt(0);
+        this.size--;
+        T last = this.entryAt(this.size);
+        this.heap[this.size] = null;
+        if (this.size > 0) {
+            this.siftDown(0, last);
+        }
+        return first;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine9Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine9}; reports the entries in heap order.
+     */
+    private final class SortingMachine9Iterator implements Iterator<T> {
+
+        /**
+         * Position of the next entry to return.
+         */
+        private int position;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine9Iterator() {
+            this.position = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < SortingMachine9.this.size;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = SortingMachine9.this.entryAt(this.position);
+            this.position++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+    }
+
+}
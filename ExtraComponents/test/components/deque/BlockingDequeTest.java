@@ -0,0 +1,286 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+
+/**
+ * Customized JUnit test fixture for {@code BlockingDeque}, including blocking
+ * and timed methods.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class BlockingDequeTest extends DequeTest {
+
+    /**
+     * Capacity used for the {@code DequeTest} fixture.
+     */
+    private static final int CAPACITY = 16;
+
+    @Override
+    protected final Deque<String> constructorTest() {
+        return new BlockingDeque<>(CAPACITY);
+    }
+
+    @Override
+    protected final Deque<String> constructorRef() {
+        return new Deque1L<>();
+    }
+
+    /*
+     * Blocking and timed method tests ----------------------------------------
+     */
+
+    @Test
+    public void testTakeFrontWaitsForPut() throws InterruptedException {
+        final BlockingDeque<String> d = new BlockingDeque<>(1);
+        Workers producer = new Workers();
+        producer.start(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                    d.putBack("one");
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        });
+
+        assertEquals("one", d.takeFront());
+        producer.joinAll();
+        assertEquals(0, d.length());
+    }
+
+    @Test
+    public void testPutFrontWaitsForTake() throws InterruptedException {
+        final BlockingDeque<String> d = new BlockingDeque<>(1);
+        d.putFront("one");
+        Workers consumer = new Workers();
+        consumer.start(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                    assertEquals("one", d.takeBack());
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        });
+
+        d.putFront("two");
+        consumer.joinAll();
+        assertEquals(1, d.length());
+        assertEquals("two", d.front());
+    }
+
+    @Test
+    public void testOfferBackTimesOutWhenFull() throws InterruptedException {
+        BlockingDeque<String> d = new BlockingDeque<>(2);
+        d.pushBack("one");
+
+        assertTrue(d.offerBack("two", 0, TimeUnit.MILLISECONDS));
+        assertFalse(d.offerBack("three", 10, TimeUnit.MILLISECONDS));
+        assertFalse(d.offerFront("three", 10, TimeUnit.MILLISECONDS));
+        assertEquals("<one,two>", d.toString());
+    }
+
+    @Test
+    public void testPollTimesOutWhenEmpty() throws InterruptedException {
+        BlockingDeque<String> d = new BlockingDeque<>(2);
+
+        assertNull(d.pollFront(10, TimeUnit.MILLISECONDS));
+        d.pushBack("one");
+        d.pushBack("two");
+        assertEquals("two", d.pollBack(10, TimeUnit.MILLISECONDS));
+        assertEquals("one", d.pollFront(0, TimeUnit.MILLISECONDS));
+        assertNull(d.pollBack(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testDrainToPartial() {
+        BlockingDeque<String> d = new BlockingDeque<>(CAPACITY);
+        d.pushBack("one");
+        d.pushBack("two");
+        d.pushBack("three");
+        Deque<String> into = new Deque1L<>();
+        into.pushBack("zero");
+
+        int moved = d.drainTo(into, 2);
+
+        assertEquals(2, moved);
+        assertEquals("<three>", d.toString());
+        assertEquals("<zero,one,two>", into.toString());
+    }
+
+    @Test
+    public void testDrainToAll() {
+        BlockingDeque<String> d = new BlockingDeque<>(CAPACITY);
+        d.pushBack("one");
+        d.pushBack("two");
+        Deque<String> into = new Deque1L<>();
+
+        int moved = d.drainTo(into, 10);
+
+        assertEquals(2, moved);
+        assertEquals(0, d.length());
+        assertEquals("<one,two>", into.toString());
+    }
+
+    @Test(timeout = 10_000)
+    public void testTransferFromWakesWaiters() throws InterruptedException {
+        final BlockingDeque<String> d = new BlockingDeque<>(1);
+        final BlockingDeque<String> source = new BlockingDeque<>(1);
+        source.pushBack("one");
+        Workers waiters = new Workers();
+        waiters.start(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    assertEquals("one", d.takeFront());
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        });
+        waiters.start(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    source.putBack("two");
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        });
+        Thread.sleep(50);
+
+        d.transferFrom(source);
+        waiters.joinAll();
+        assertEquals(0, d.length());
+        assertEquals("<two>", source.toString());
+    }
+
+    @Test(timeout = 30_000)
+    public void testMovingEntriesBothWaysDoesNotDeadlock()
+            throws InterruptedException {
+        final BlockingDeque<Integer> a = new BlockingDeque<>(1000);
+        final BlockingDeque<Integer> b = new BlockingDeque<>(1000);
+        for (int i = 0; i < 100; i++) {
+            a.pushBack(i);
+            b.pushBack(100 + i);
+        }
+        Workers workers = new Workers();
+        for (final BlockingDeque<Integer> from : Arrays.asList(a, b)) {
+            final BlockingDeque<Integer> to = from == a ? b : a;
+            workers.start(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 20_000; i++) {
+                        switch (i % 3) {
+                            case 0:
+                                from.drainTo(to, 10);
+                                break;
+                            case 1:
+                                to.append(from);
+                                break;
+                            default:
+                                to.transferFrom(from);
+                                break;
+                        }
+                    }
+                }
+            });
+        }
+        workers.joinAll();
+
+        //transferFrom replaces the contents of its receiver, so count a and b
+        Set<Integer> seen = new HashSet<>();
+        for (Integer x : a) {
+            assertTrue(seen.add(x));
+        }
+        for (Integer x : b) {
+            assertTrue(seen.add(x));
+        }
+        assertTrue(seen.size() <= 200);
+    }
+
+    @Test
+    public void testPushAllBackOverCapacityLeavesThisUnchanged() {
+        BlockingDeque<String> d = new BlockingDeque<>(2);
+        d.pushBack("one");
+        List<String> entries = Arrays.asList("two", "three");
+
+        try {
+            d.pushAllBack(entries);
+            fail("pushAllBack past capacity was not rejected");
+        } catch (AssertionError e) {
+            assertEquals("<one>", d.toString());
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testDrainToQueueEnqueuesWithoutTheLock() throws Exception {
+        final BlockingDeque<String> d = new BlockingDeque<>(4);
+        d.pushBack("one");
+        d.pushBack("two");
+        final Queue<String> rep = new Queue1L<>();
+        final List<Boolean> pushed = new ArrayList<>();
+        /*
+         * A queue whose enqueue waits for another thread to push to d, which
+         * it could not do if drainTo still held the lock of d
+         */
+        @SuppressWarnings("unchecked")
+        Queue<String> q = (Queue<String>) Proxy.newProxyInstance(
+                Queue.class.getClassLoader(), new Class<?>[] { Queue.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("enqueue")) {
+                        Thread t = new Thread(() -> d.pushBack("three"));
+                        t.start();
+                        t.join(1000);
+                        pushed.add(!t.isAlive());
+                        t.join();
+                    }
+                    return method.invoke(rep, args);
+                });
+        d.drainTo(q);
+
+        assertEquals(Arrays.asList(true, true), pushed);
+        assertEquals("<one,two>", rep.toString());
+        assertEquals("<three,three>", d.toString());
+    }
+
+    @Test
+    public void testSpliteratorIsConcurrentSnapshot() {
+        BlockingDeque<String> d = new BlockingDeque<>(4);
+        d.pushBack("one");
+        d.pushBack("two");
+        Spliterator<String> s = d.spliterator();
+        d.pushBack("three");
+
+        assertFalse(s.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(s.hasCharacteristics(Spliterator.CONCURRENT));
+        List<String> seen = new ArrayList<>();
+        s.forEachRemaining(seen::add);
+        assertEquals(Arrays.asList("one", "two"), seen);
+    }
+
+}
@@ -0,0 +1,301 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Customized JUnit test fixture for {@code ConcurrentDeque}, including
+ * multi-threaded stress tests.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class ConcurrentDequeTest extends DequeTest {
+
+    /**
+     * Number of threads in each stress test.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Number of entries pushed by each producer in each stress test.
+     */
+    private static final int PER_THREAD = 20_000;
+
+    @Override
+    protected final Deque<String> constructorTest() {
+        return new ConcurrentDeque<>();
+    }
+
+    @Override
+    protected final Deque<String> constructorRef() {
+        return new Deque1L<>();
+    }
+
+    /**
+     * Starts one thread per task, releases them all at once, and waits for
+     * them to finish, rethrowing anything a task threw.
+     *
+     * @param tasks
+     *            the tasks to run
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    private static void runConcurrently(List<Runnable> tasks)
+            throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        Workers workers = new Workers();
+        for (final Runnable task : tasks) {
+            workers.start(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    task.run();
+                }
+            });
+        }
+        start.countDown();
+        workers.joinAll();
+    }
+
+    /*
+     * Non-blocking "try" method tests ----------------------------------------
+     */
+
+    @Test
+    public void testTryPopFrontEmpty() {
+        ConcurrentDeque<String> d = new ConcurrentDeque<>();
+
+        assertNull(d.tryPopFront());
+        assertEquals(0, d.length());
+    }
+
+    @Test
+    public void testTryPopBackNonEmpty() {
+        ConcurrentDeque<String> d = new ConcurrentDeque<>();
+        d.pushBack("one");
+        d.pushBack("two");
+
+        assertEquals("two", d.tryPopBack());
+        assertEquals(1, d.length());
+    }
+
+    /*
+     * Stress tests -----------------------------------------------------------
+     */
+
+    @Test
+    public void testConcurrentPushesBothEnds() throws InterruptedException {
+        final ConcurrentDeque<Integer> d = new ConcurrentDeque<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int base = t * PER_THREAD;
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        if (i % 2 == 0) {
+                            d.pushFront(base + i);
+                        } else {
+                            d.pushBack(base + i);
+                        }
+                    }
+                }
+            });
+        }
+
+        runConcurrently(tasks);
+
+        assertEquals(THREADS * PER_THREAD, d.length());
+        boolean[] seen = new boolean[THREADS * PER_THREAD];
+        for (int x : d) {
+            assertTrue(!seen[x]);
+            seen[x] = true;
+        }
+    }
+
+    @Test
+    public void testRotateAndReplaceEntryKeepConcurrentPushes()
+            throws InterruptedException {
+        /*
+         * One thread rotates and replaces entries (swapping each entry with
+         * itself) while the others push; no pushed entry may be lost
+         */
+        final ConcurrentDeque<Integer> d = new ConcurrentDeque<>();
+        for (int i = 0; i < 100; i++) {
+            d.pushBack(-1 - i);
+        }
+        final AtomicInteger pushersLeft = new AtomicInteger(THREADS - 1);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS - 1; t++) {
+            final int base = t * PER_THREAD;
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        d.pushBack(base + i);
+                    }
+                    pushersLeft.decrementAndGet();
+                }
+            });
+        }
+        tasks.add(new Runnable() {
+            @Override
+            public void run() {
+                int k = 0;
+                while (pushersLeft.get() > 0) {
+                    d.rotate(k % 7 - 3);
+                    d.replaceEntry(k % 50, d.entry(k % 50));
+                    k++;
+                }
+            }
+        });
+
+        runConcurrently(tasks);
+
+        assertEquals((THREADS - 1) * PER_THREAD + 100, d.length());
+        boolean[] seen = new boolean[(THREADS - 1) * PER_THREAD + 100];
+        for (int x : d) {
+            int i = x < 0 ? (THREADS - 1) * PER_THREAD - 1 - x : x;
+            assertTrue(!seen[i]);
+            seen[i] = true;
+        }
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumers()
+            throws InterruptedException {
+        final ConcurrentDeque<Integer> d = new ConcurrentDeque<>();
+        final int total = THREADS / 2 * PER_THREAD;
+        final AtomicInteger consumed = new AtomicInteger();
+        final int[] counts = new int[total];
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS / 2; t++) {
+            final int base = t * PER_THREAD;
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        d.pushBack(base + i);
+                    }
+                }
+            });
+            final boolean fromFront = t % 2 == 0;
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    while (consumed.get() < total) {
+                        Integer x;
+                        if (fromFront) {
+                            x = d.tryPopFront();
+                        } else {
+                            x = d.tryPopBack();
+                        }
+                        if (x != null) {
+                            synchronized (counts) {
+                                counts[x]++;
+                            }
+                            consumed.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+
+        runConcurrently(tasks);
+
+        assertEquals(0, d.length());
+        for (int count : counts) {
+            assertEquals(1, count);
+        }
+    }
+
+    @Test
+    public void testConcurrentKernelSemantics() throws InterruptedException {
+        /*
+         * Every thread pushes its own entries at both ends and pops the same
+         * number back, so the deque must end up exactly as it started
+         */
+        final ConcurrentDeque<String> d = new ConcurrentDeque<>();
+        d.pushBack("anchor");
+        final AtomicInteger failures = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final String tag = "t" + t + "-";
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        d.pushFront(tag + i);
+                        d.pushBack(tag + i);
+                        if (d.tryPopFront() == null
+                                || d.tryPopBack() == null) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+
+        runConcurrently(tasks);
+
+        assertEquals(0, failures.get());
+        assertEquals(1, d.length());
+    }
+
+    @Test
+    public void testStreamDuringConcurrentUpdates()
+            throws InterruptedException {
+        final ConcurrentDeque<Integer> d = new ConcurrentDeque<>();
+        Spliterator<Integer> s = d.spliterator();
+        assertFalse(s.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(s.hasCharacteristics(Spliterator.CONCURRENT));
+
+        //A SIZED stream would throw or truncate as length changes under it
+        final AtomicInteger pushersLeft = new AtomicInteger(THREADS - 1);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS - 1; t++) {
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        d.pushBack(i);
+                        if (i % 3 == 0) {
+                            d.tryPopFront();
+                        }
+                    }
+                    pushersLeft.decrementAndGet();
+                }
+            });
+        }
+        tasks.add(new Runnable() {
+            @Override
+            public void run() {
+                while (pushersLeft.get() > 0) {
+                    Object[] entries = d.parallelStream().toArray();
+                    for (Object x : entries) {
+                        assertTrue(x instanceof Integer);
+                    }
+                }
+            }
+        });
+
+        runConcurrently(tasks);
+    }
+
+}
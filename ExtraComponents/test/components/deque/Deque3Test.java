@@ -1,5 +1,9 @@
 package components.deque;
 
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
 /**
  * Customized JUnit test fixture for {@code Deque3}.
  *
@@ -18,4 +22,51 @@ public class Deque3Test extends DequeTest {
         return new Deque1L<>();
     }
 
+    /*
+     * Representation-specific tests (rebalancing, read-only iteration) -------
+     */
+
+    @Test
+    public void testAlternatingPops() {
+        Deque<String> dTest = this.constructorTest();
+        Deque<String> dRef = this.constructorRef();
+        for (int i = 0; i < 50; i++) {
+            dTest.pushBack("" + i);
+            dRef.pushBack("" + i);
+        }
+
+        while (dRef.length() > 1) {
+            assertEquals(dRef.popFront(), dTest.popFront());
+            assertEquals(dRef.popBack(), dTest.popBack());
+        }
+
+        assertEquals(dRef.length(), dTest.length());
+        assertEquals(dRef.toString(), dTest.toString());
+    }
+
+    @Test
+    public void testIteratorMixedStacks() {
+        Deque<String> dTest = this.constructorTest();
+        Deque<String> dRef = this.constructorRef();
+        for (int i = 0; i < 5; i++) {
+            dTest.pushFront("f" + i);
+            dRef.pushFront("f" + i);
+            dTest.pushBack("b" + i);
+            dRef.pushBack("b" + i);
+        }
+
+        StringBuilder seenTest = new StringBuilder();
+        for (String x : dTest) {
+            seenTest.append(x).append(' ');
+        }
+        StringBuilder seenRef = new StringBuilder();
+        for (String x : dRef) {
+            seenRef.append(x).append(' ');
+        }
+
+        assertEquals(seenRef.toString(), seenTest.toString());
+        assertEquals(dRef.popBack(), dTest.popBack());
+        assertEquals(dRef.popFront(), dTest.popFront());
+    }
+
 }
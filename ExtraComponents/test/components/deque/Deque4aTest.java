@@ -0,0 +1,107 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Customized JUnit test fixture for {@code Deque4a}.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class Deque4aTest extends DequeTest {
+
+    @Override
+    protected final Deque<String> constructorTest() {
+        return new Deque4a<>();
+    }
+
+    @Override
+    protected final Deque<String> constructorRef() {
+        return new Deque1L<>();
+    }
+
+    /*
+     * Representation-specific tests (block boundaries, pooling) --------------
+     */
+
+    @Test
+    public void testPushBothEndsAcrossBlocks() {
+        Deque<String> dTest = this.constructorTest();
+        Deque<String> dRef = this.constructorRef();
+
+        for (int i = 0; i < 300; i++) {
+            dTest.pushFront("f" + i);
+            dRef.pushFront("f" + i);
+            dTest.pushBack("b" + i);
+            dRef.pushBack("b" + i);
+        }
+
+        assertEquals(dRef.length(), dTest.length());
+        assertEquals(dRef.front(), dTest.front());
+        assertEquals(dRef.back(), dTest.back());
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testDrainFromOneEndAcrossBlocks() {
+        Deque<String> dTest = this.constructorTest();
+        Deque<String> dRef = this.constructorRef();
+        for (int i = 0; i < 300; i++) {
+            dTest.pushBack("" + i);
+            dRef.pushBack("" + i);
+        }
+
+        while (dRef.length() > 0) {
+            assertEquals(dRef.popBack(), dTest.popBack());
+        }
+        for (int i = 0; i < 300; i++) {
+            dTest.pushFront("" + i);
+            dRef.pushFront("" + i);
+        }
+        while (dRef.length() > 0) {
+            assertEquals(dRef.popFront(), dTest.popFront());
+        }
+
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testQueueThroughManyBlocks() {
+        Deque<String> dTest = this.constructorTest();
+        Deque<String> dRef = this.constructorRef();
+
+        for (int i = 0; i < 1000; i++) {
+            dTest.pushBack("" + i);
+            dRef.pushBack("" + i);
+            if (i % 3 == 0) {
+                assertEquals(dRef.popFront(), dTest.popFront());
+            }
+        }
+
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testFlipAcrossBlocks() {
+        Deque<String> dTest = this.constructorTest();
+        Deque<String> dRef = this.constructorRef();
+        for (int i = 0; i < 200; i++) {
+            dTest.pushBack("" + i);
+            dRef.pushBack("" + i);
+        }
+
+        dTest.flip();
+        dRef.flip();
+        dTest.replaceFront("front");
+        dRef.replaceFront("front");
+        dTest.replaceBack("back");
+        dRef.replaceBack("back");
+
+        assertEquals(dRef, dTest);
+        assertEquals(dRef.popBack(), dTest.popBack());
+        assertEquals(dRef.toString(), dTest.toString());
+    }
+
+}
@@ -0,0 +1,109 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Customized JUnit test fixture for {@code Deque5}.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class Deque5Test extends DequeTest {
+
+    @Override
+    protected final Deque<String> constructorTest() {
+        return new Deque5<>();
+    }
+
+    @Override
+    protected final Deque<String> constructorRef() {
+        return new Deque1L<>();
+    }
+
+    /*
+     * Representation-specific tests (growth, wrap-around, shrinking) ---------
+     */
+
+    @Test
+    public void testPushBothEndsWithGrowth() {
+        Deque<String> dTest = this.constructorTest();
+        Deque<String> dRef = this.constructorRef();
+
+        for (int i = 0; i < 100; i++) {
+            dTest.pushFront("f" + i);
+            dRef.pushFront("f" + i);
+            dTest.pushBack("b" + i);
+            dRef.pushBack("b" + i);
+        }
+
+        assertEquals(dRef.length(), dTest.length());
+        assertEquals(dRef.front(), dTest.front());
+        assertEquals(dRef.back(), dTest.back());
+        assertEquals(dRef.toString(), dTest.toString());
+    }
+
+    @Test
+    public void testPopBothEndsWithShrink() {
+        Deque<String> dTest = this.constructorTest();
+        Deque<String> dRef = this.constructorRef();
+        for (int i = 0; i < 100; i++) {
+            dTest.pushBack("" + i);
+            dRef.pushBack("" + i);
+        }
+
+        while (dRef.length() > 1) {
+            assertEquals(dRef.popFront(), dTest.popFront());
+            assertEquals(dRef.popBack(), dTest.popBack());
+        }
+
+        assertEquals(dRef.length(), dTest.length());
+        assertEquals(dRef.toString(), dTest.toString());
+    }
+
+    @Test
+    public void testWrapAroundReplace() {
+        Deque<String> dTest = new Deque5<>(false);
+        Deque<String> dRef = this.constructorRef();
+        for (int i = 0; i < 10; i++) {
+            dTest.pushBack("" + i);
+            dRef.pushBack("" + i);
+        }
+        for (int i = 0; i < 20; i++) {
+            dTest.pushBack(dTest.popFront());
+            dRef.pushBack(dRef.popFront());
+        }
+
+        assertEquals(dRef.replaceFront("front"), dTest.replaceFront("front"));
+        assertEquals(dRef.replaceBack("back"), dTest.replaceBack("back"));
+        assertEquals(dRef.toString(), dTest.toString());
+    }
+
+    @Test
+    public void testRotateWrappedAndFull() {
+        final int capacity = 16;
+        for (int n = capacity - 4; n <= capacity; n++) {
+            for (int k = -n; k <= n; k += 3) {
+                Deque<String> dTest = new Deque5<>(false);
+                Deque<String> dRef = this.constructorRef();
+                for (int i = 0; i < n; i++) {
+                    dTest.pushBack("" + i);
+                    dRef.pushBack("" + i);
+                }
+                //Move head to the middle of the array so entries wrap
+                dTest.rotate(capacity / 2);
+                dRef.rotate(capacity / 2);
+
+                dTest.rotate(k);
+                dRef.rotate(k);
+
+                assertEquals(dRef.toString(), dTest.toString());
+                for (int i = 0; i < n; i++) {
+                    assertEquals(dRef.entry(i), dTest.entry(i));
+                }
+            }
+        }
+    }
+
+}
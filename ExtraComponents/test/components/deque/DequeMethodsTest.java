@@ -1,6 +1,7 @@
 package components.deque;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 import org.junit.Test;
 
@@ -259,6 +260,38 @@ public class DequeMethodsTest {
         assertEquals(dExp, d);
     }
 
+    @Test
+    public void testFlipLarge() {
+        final int n = 100_000;
+        Deque<String> d = this.createFromArgs();
+        for (int i = 0; i < n; i++) {
+            d.pushBack("" + i);
+        }
+
+        d.flip();
+
+        assertEquals(n, d.length());
+        assertEquals("" + (n - 1), d.front());
+        assertEquals("0", d.back());
+    }
+
+    @Test
+    public void testEqualsLarge() {
+        final int n = 100_000;
+        Deque<String> d1 = this.createFromArgs();
+        Deque<String> d2 = new Deque4<>();
+        for (int i = 0; i < n; i++) {
+            d1.pushBack("" + i);
+            d2.pushBack("" + i);
+        }
+
+        assertEquals(d1, d2);
+        assertEquals(d1.hashCode(), d2.hashCode());
+        d2.replaceBack("x");
+        assertNotEquals(d1, d2);
+        assertEquals("" + (n - 1), d1.back());
+    }
+
     @Test
     public void testFront1() {
         Deque<String> d = this.createFromArgs("one");
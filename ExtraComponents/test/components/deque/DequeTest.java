@@ -1,9 +1,20 @@
 package components.deque;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
+import components.queue.Queue;
+import components.queue.Queue1L;
+
 /**
  * JUnit test fixture for {@code Deque<String>}'s constructor and kernel
  * methods.
@@ -62,7 +73,7 @@ public abstract class DequeTest {
     private Deque<String> createFromArgsRef(String... args) {
         assert args != null : "Violation of: args is not null";
 
-        Deque<String> deque = this.constructorTest();
+        Deque<String> deque = this.constructorRef();
         for (String x : args) {
             deque.pushBack(x);
         }
@@ -285,4 +296,595 @@ public abstract class DequeTest {
         assertEquals(dRef, dTest);
     }
 
+    /*
+     * Flip tests -------------------------------------------------------------
+     */
+
+    @Test
+    public void testFlipThenKernel() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+        Deque<String> dRef = this.createFromArgsRef("one", "two", "three");
+
+        dTest.flip();
+        dRef.flip();
+        dTest.pushFront("four");
+        dRef.pushFront("four");
+        dTest.pushBack("zero");
+        dRef.pushBack("zero");
+
+        assertEquals(dRef.popFront(), dTest.popFront());
+        assertEquals(dRef.popBack(), dTest.popBack());
+        assertEquals(dRef, dTest);
+        assertEquals(dRef.toString(), dTest.toString());
+    }
+
+    @Test
+    public void testFlipTwice() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+        Deque<String> dRef = this.createFromArgsRef("one", "two", "three");
+
+        dTest.flip();
+        dTest.pushBack("four");
+        dTest.flip();
+        dRef.pushFront("four");
+
+        assertEquals(dRef, dTest);
+        assertEquals(dRef.toString(), dTest.toString());
+    }
+
+    @Test
+    public void testFlipFrontBack() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+
+        dTest.flip();
+
+        assertEquals("three", dTest.front());
+        assertEquals("one", dTest.back());
+        assertEquals("three", dTest.replaceFront("four"));
+        assertEquals("one", dTest.replaceBack("zero"));
+        assertEquals("<four,two,zero>", dTest.toString());
+    }
+
+    /*
+     * Bulk tests -------------------------------------------------------------
+     */
+
+    @Test
+    public void testPushAllBack() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two");
+        Deque<String> dRef = this.createFromArgsRef("one", "two");
+
+        dTest.pushAllBack(Arrays.asList("three", "four"));
+        dRef.pushAllBack(Arrays.asList("three", "four"));
+
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testPushAllBackFlipped() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two");
+        Deque<String> dRef = this.createFromArgsRef("two", "one");
+
+        dTest.flip();
+        dTest.pushAllBack(Arrays.asList("three", "four"));
+        dRef.pushAllBack(Arrays.asList("three", "four"));
+
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testPushAllFront() {
+        Deque<String> dTest = this.createFromArgsTest("three", "four");
+        Deque<String> dRef = this.createFromArgsRef("one", "two", "three",
+                "four");
+
+        dTest.pushAllFront(Arrays.asList("one", "two"));
+
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testPushAllFrontFlipped() {
+        Deque<String> dTest = this.createFromArgsTest("four", "three");
+        Deque<String> dRef = this.createFromArgsRef("one", "two", "three",
+                "four");
+
+        dTest.flip();
+        dTest.pushAllFront(Arrays.asList("one", "two"));
+
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testPushAllFromSameType() {
+        Deque<String> source = this.createFromArgsTest("two", "three");
+        Deque<String> sourceRef = this.createFromArgsRef("two", "three");
+        Deque<String> dTest = this.createFromArgsTest("one");
+        Deque<String> dRef = this.createFromArgsRef("two", "three", "one",
+                "two", "three");
+
+        dTest.pushAllBack(source);
+        dTest.pushAllFront(source);
+
+        assertEquals(dRef, dTest);
+        assertEquals(sourceRef, source);
+    }
+
+    @Test
+    public void testPushAllEmpty() {
+        Deque<String> dTest = this.createFromArgsTest("one");
+        Deque<String> dRef = this.createFromArgsRef("one");
+
+        dTest.pushAllBack(this.constructorTest());
+        dTest.pushAllFront(Arrays.<String> asList());
+
+        assertEquals(dRef, dTest);
+    }
+
+    /**
+     * Moves three entries off each end of a five-entry deque into another
+     * deque of the implementation under test, with the given orientations,
+     * and checks the results.
+     *
+     * @param flipThis
+     *            whether to flip the source first
+     * @param flipInto
+     *            whether to flip the destination first
+     */
+    private void checkBulkPop(boolean flipThis, boolean flipInto) {
+        Deque<String> dTest = this.createFromArgsTest("a", "b", "c", "d", "e");
+        Deque<String> intoTest = this.createFromArgsTest("y", "z");
+        if (flipThis) {
+            dTest.flip();
+        }
+        if (flipInto) {
+            intoTest.flip();
+        }
+        Deque<String> dRef = this.createFromArgsRef();
+        Deque<String> intoRef = this.createFromArgsRef();
+        dRef.pushAllBack(dTest);
+        intoRef.pushAllBack(intoTest);
+
+        dTest.popFront(3, intoTest);
+        dRef.popFront(3, intoRef);
+        assertEquals(dRef, dTest);
+        assertEquals(intoRef, intoTest);
+
+        intoTest.popBack(4, dTest);
+        intoRef.popBack(4, dRef);
+        assertEquals(dRef, dTest);
+        assertEquals(intoRef, intoTest);
+
+        dTest.pushBack("f");
+        dRef.pushBack("f");
+        intoTest.pushFront("x");
+        intoRef.pushFront("x");
+        assertEquals(dRef, dTest);
+        assertEquals(intoRef, intoTest);
+    }
+
+    @Test
+    public void testBulkPop() {
+        this.checkBulkPop(false, false);
+    }
+
+    @Test
+    public void testBulkPopFlipped() {
+        this.checkBulkPop(true, true);
+    }
+
+    @Test
+    public void testBulkPopMixedOrientation() {
+        this.checkBulkPop(true, false);
+        this.checkBulkPop(false, true);
+    }
+
+    @Test
+    public void testBulkPopNoneAndAll() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+        Deque<String> intoTest = this.constructorTest();
+        Deque<String> dRef = this.createFromArgsRef("one", "two", "three");
+        Deque<String> intoRef = this.createFromArgsRef();
+
+        dTest.popFront(0, intoTest);
+        dTest.popBack(0, intoTest);
+        assertEquals(dRef, dTest);
+        assertEquals(intoRef, intoTest);
+
+        dTest.popBack(3, intoTest);
+        assertEquals(intoRef, dTest);
+        assertEquals(dRef, intoTest);
+    }
+
+    @Test
+    public void testBulkPopIntoReference() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+        Deque<String> intoRef = this.createFromArgsRef("zero");
+        Deque<String> expected = this.createFromArgsRef("zero", "one", "two");
+
+        dTest.popFront(2, intoRef);
+
+        assertEquals(expected, intoRef);
+        assertEquals(this.createFromArgsRef("three"), dTest);
+    }
+
+    @Test
+    public void testDrainTo() {
+        Deque<String> dTest = this.createFromArgsTest("two", "three");
+        Queue<String> q = new Queue1L<>();
+        q.enqueue("one");
+
+        dTest.flip();
+        dTest.drainTo(q);
+
+        assertEquals(0, dTest.length());
+        assertEquals("<one,three,two>", q.toString());
+        dTest.pushBack("four");
+        assertEquals("four", dTest.front());
+    }
+
+    /*
+     * Append and split tests -------------------------------------------------
+     */
+
+    /**
+     * Appends a two-entry deque of the implementation under test to a
+     * three-entry one, with the given orientations, and checks the results.
+     *
+     * @param flipThis
+     *            whether to flip the receiver first
+     * @param flipOther
+     *            whether to flip the argument first
+     */
+    private void checkAppend(boolean flipThis, boolean flipOther) {
+        Deque<String> dTest = this.createFromArgsTest("a", "b", "c");
+        Deque<String> otherTest = this.createFromArgsTest("d", "e");
+        if (flipThis) {
+            dTest.flip();
+        }
+        if (flipOther) {
+            otherTest.flip();
+        }
+        Deque<String> dRef = this.createFromArgsRef();
+        dRef.pushAllBack(dTest);
+        dRef.pushAllBack(otherTest);
+
+        dTest.append(otherTest);
+
+        assertEquals(dRef, dTest);
+        assertEquals(this.createFromArgsRef(), otherTest);
+        dTest.pushFront("x");
+        dRef.pushFront("x");
+        otherTest.pushBack("y");
+        assertEquals(dRef, dTest);
+        assertEquals(this.createFromArgsRef("y"), otherTest);
+    }
+
+    @Test
+    public void testAppend() {
+        this.checkAppend(false, false);
+    }
+
+    @Test
+    public void testAppendFlipped() {
+        this.checkAppend(true, true);
+    }
+
+    @Test
+    public void testAppendMixedOrientation() {
+        this.checkAppend(true, false);
+        this.checkAppend(false, true);
+    }
+
+    @Test
+    public void testAppendToEmpty() {
+        Deque<String> dTest = this.createFromArgsTest();
+        Deque<String> otherTest = this.createFromArgsTest("one", "two");
+        Deque<String> dRef = this.createFromArgsRef("one", "two");
+
+        dTest.append(otherTest);
+        dTest.append(this.constructorTest());
+
+        assertEquals(dRef, dTest);
+        assertEquals(0, otherTest.length());
+    }
+
+    @Test
+    public void testAppendReference() {
+        Deque<String> dTest = this.createFromArgsTest("one");
+        Deque<String> otherRef = this.createFromArgsRef("two", "three");
+        Deque<String> dRef = this.createFromArgsRef("one", "two", "three");
+
+        dTest.append(otherRef);
+
+        assertEquals(dRef, dTest);
+        assertEquals(0, otherRef.length());
+    }
+
+    @Test
+    public void testSplitAt() {
+        Deque<String> dTest = this.createFromArgsTest("a", "b", "c", "d", "e");
+        Deque<String> dRef = this.createFromArgsRef("a", "b");
+        Deque<String> suffixRef = this.createFromArgsRef("c", "d", "e");
+
+        Deque<String> suffixTest = dTest.splitAt(2);
+
+        assertEquals(dRef, dTest);
+        assertEquals(suffixRef, suffixTest);
+        assertEquals(dTest.getClass(), suffixTest.getClass());
+        suffixTest.pushFront("b");
+        suffixRef.pushFront("b");
+        assertEquals(suffixRef, suffixTest);
+    }
+
+    @Test
+    public void testSplitAtFlipped() {
+        Deque<String> dTest = this.createFromArgsTest("e", "d", "c", "b", "a");
+        Deque<String> dRef = this.createFromArgsRef("a", "b", "c");
+        Deque<String> suffixRef = this.createFromArgsRef("d", "e");
+
+        dTest.flip();
+        Deque<String> suffixTest = dTest.splitAt(3);
+
+        assertEquals(dRef, dTest);
+        assertEquals(suffixRef, suffixTest);
+        suffixTest.pushBack("f");
+        suffixRef.pushBack("f");
+        assertEquals(suffixRef, suffixTest);
+    }
+
+    @Test
+    public void testSplitAtEnds() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two");
+        Deque<String> dRef = this.createFromArgsRef("one", "two");
+
+        Deque<String> none = dTest.splitAt(2);
+        assertEquals(dRef, dTest);
+        assertEquals(0, none.length());
+
+        Deque<String> all = dTest.splitAt(0);
+        assertEquals(0, dTest.length());
+        assertEquals(dRef, all);
+    }
+
+    /*
+     * Positional tests -------------------------------------------------------
+     */
+
+    @Test
+    public void testEntry() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+        Deque<String> dRef = this.createFromArgsRef("one", "two", "three");
+
+        assertEquals("one", dTest.entry(0));
+        assertEquals("two", dTest.entry(1));
+        assertEquals("three", dTest.entry(2));
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testEntryFlipped() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+
+        dTest.flip();
+
+        assertEquals("three", dTest.entry(0));
+        assertEquals("two", dTest.entry(1));
+        assertEquals("one", dTest.entry(2));
+    }
+
+    @Test
+    public void testReplaceEntry() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+        Deque<String> dRef = this.createFromArgsRef("uno", "two", "tres");
+
+        assertEquals("three", dTest.replaceEntry(2, "tres"));
+        assertEquals("one", dTest.replaceEntry(0, "uno"));
+
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testReplaceEntryFlipped() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+        Deque<String> dRef = this.createFromArgsRef("three", "dos", "one");
+
+        dTest.flip();
+
+        assertEquals("two", dTest.replaceEntry(1, "dos"));
+        assertEquals(dRef, dTest);
+    }
+
+    /**
+     * Rotates deques of the implementation under test holding
+     * {@code <a,b,c,d,e>} by every {@code k} from -7 to 7 and checks the
+     * results against single-entry moves on the reference implementation.
+     *
+     * @param flip
+     *            whether to build the deque under test reversed and flip it
+     */
+    private void checkRotate(boolean flip) {
+        final int maxK = 7;
+        for (int k = -maxK; k <= maxK; k++) {
+            Deque<String> dTest;
+            if (flip) {
+                dTest = this.createFromArgsTest("e", "d", "c", "b", "a");
+                dTest.flip();
+            } else {
+                dTest = this.createFromArgsTest("a", "b", "c", "d", "e");
+            }
+            Deque<String> dRef = this.createFromArgsRef("a", "b", "c", "d",
+                    "e");
+
+            dTest.rotate(k);
+            for (int i = 0; i < Math.floorMod(k, dRef.length()); i++) {
+                dRef.pushBack(dRef.popFront());
+            }
+
+            assertEquals("k = " + k, dRef, dTest);
+            dTest.pushBack("f");
+            dRef.pushBack("f");
+            assertEquals("k = " + k, dRef, dTest);
+        }
+    }
+
+    @Test
+    public void testRotate() {
+        this.checkRotate(false);
+    }
+
+    @Test
+    public void testRotateFlipped() {
+        this.checkRotate(true);
+    }
+
+    @Test
+    public void testRotateEmpty() {
+        Deque<String> dTest = this.createFromArgsTest();
+
+        dTest.rotate(3);
+        dTest.rotate(-1);
+
+        assertEquals(this.createFromArgsRef(), dTest);
+    }
+
+    /*
+     * Stream tests -----------------------------------------------------------
+     */
+
+    @Test
+    public void testStreamFlipped() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+
+        dTest.flip();
+
+        assertEquals("three,two,one",
+                dTest.stream().collect(Collectors.joining(",")));
+        assertEquals("three,two,one",
+                dTest.parallelStream().collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Splits {@code s} as far as it goes, appending the entries of the
+     * resulting pieces, in order, to {@code out}; the sizes of the pieces are
+     * checked only if {@code s} is {@code SIZED}, which concurrent
+     * implementations are not.
+     *
+     * @param s
+     *            the spliterator to split
+     * @param out
+     *            the list to append to
+     */
+    private static void splitFully(Spliterator<String> s, List<String> out) {
+        boolean sized = s.hasCharacteristics(Spliterator.SIZED);
+        long size = s.estimateSize();
+        Spliterator<String> prefix = s.trySplit();
+        if (prefix != null) {
+            if (sized) {
+                assertEquals(size, prefix.estimateSize() + s.estimateSize());
+            }
+            splitFully(prefix, out);
+            splitFully(s, out);
+        } else {
+            s.forEachRemaining(out::add);
+        }
+    }
+
+    @Test
+    public void testSpliteratorSplits() {
+        Deque<String> dTest = this.createFromArgsTest("a", "b", "c", "d", "e",
+                "f", "g", "h", "i", "j");
+        Deque<String> dRef = this.createFromArgsRef("a", "b", "c", "d", "e",
+                "f", "g", "h", "i", "j");
+        List<String> seen = new ArrayList<>();
+
+        Spliterator<String> s = dTest.spliterator();
+        if (!s.hasCharacteristics(Spliterator.CONCURRENT)) {
+            assertEquals(10, s.getExactSizeIfKnown());
+        }
+        assertTrue(s.hasCharacteristics(Spliterator.ORDERED));
+        splitFully(s, seen);
+
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i",
+                "j"), seen);
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testSpliteratorSplitsFlipped() {
+        Deque<String> dTest = this.createFromArgsTest("e", "d", "c", "b", "a");
+        List<String> seen = new ArrayList<>();
+
+        dTest.flip();
+        splitFully(dTest.spliterator(), seen);
+
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), seen);
+    }
+
+    /*
+     * String representation tests --------------------------------------------
+     */
+
+    @Test
+    public void testAppendToOutputAfterExistingText() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+        Deque<String> dRef = this.createFromArgsRef("one", "two", "three");
+        StringBuilder out = new StringBuilder("deque=");
+
+        dTest.appendTo(out);
+
+        assertEquals("deque=<one,two,three>", out.toString());
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testAppendToOutputEmpty() {
+        Deque<String> dTest = this.createFromArgsTest();
+        StringBuilder out = new StringBuilder();
+
+        dTest.appendTo(out);
+        dTest.appendTo(out, 0);
+
+        assertEquals("<><>", out.toString());
+    }
+
+    @Test
+    public void testAppendToOutputLimit() {
+        Deque<String> dTest = this.createFromArgsTest("a", "b", "c", "d", "e",
+                "f", "g", "h", "i", "j");
+        Deque<String> dRef = this.createFromArgsRef("a", "b", "c", "d", "e",
+                "f", "g", "h", "i", "j");
+        StringBuilder out = new StringBuilder();
+
+        dTest.appendTo(out, 3);
+
+        assertEquals("<a,b,c,...+7>", out.toString());
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testAppendToOutputLimitZeroAndExact() {
+        Deque<String> dTest = this.createFromArgsTest("a", "b");
+        StringBuilder none = new StringBuilder();
+        StringBuilder exact = new StringBuilder();
+
+        dTest.appendTo(none, 0);
+        dTest.appendTo(exact, 2);
+
+        assertEquals("<...+2>", none.toString());
+        assertEquals("<a,b>", exact.toString());
+    }
+
+    @Test
+    public void testAppendToOutputWriterFlipped() {
+        Deque<String> dTest = this.createFromArgsTest("one", "two", "three");
+        StringWriter out = new StringWriter();
+
+        dTest.flip();
+        dTest.appendTo(out, 2);
+
+        assertEquals("<three,two,...+1>", out.toString());
+        assertEquals("<three,two,one>", dTest.toString());
+    }
+
 }
@@ -0,0 +1,284 @@
+package components.deque;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code DoubleDeque} methods, tested on
+ * {@code DoubleDeque1}.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class DoubleDeque1Test {
+
+    /**
+     * Creates and reports a {@code DoubleDeque} from {@code double} arguments.
+     *
+     * @param args
+     *            elements of {@code DoubleDeque}
+     * @return a {@code DoubleDeque} from {@code double} arguments
+     * @ensures createFromArgs = args
+     */
+    private DoubleDeque createFromArgs(double... args) {
+        assert args != null : "Violation of: args is not null";
+
+        DoubleDeque deque = new DoubleDeque1();
+        for (double x : args) {
+            deque.pushBack(x);
+        }
+        return deque;
+    }
+
+    /*
+     * Kernel tests -----------------------------------------------------------
+     */
+
+    @Test
+    public void testPushFrontEmpty() {
+        DoubleDeque d = this.createFromArgs();
+        DoubleDeque dExp = this.createFromArgs(1.5);
+
+        d.pushFront(1.5);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPushFrontNonEmpty2() {
+        DoubleDeque d = this.createFromArgs(2.5, 3.5);
+        DoubleDeque dExp = this.createFromArgs(1.5, 2.5, 3.5);
+
+        d.pushFront(1.5);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPushBackEmpty() {
+        DoubleDeque d = this.createFromArgs();
+        DoubleDeque dExp = this.createFromArgs(1.5);
+
+        d.pushBack(1.5);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPushBackNonEmpty2() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5);
+        DoubleDeque dExp = this.createFromArgs(1.5, 2.5, 3.5);
+
+        d.pushBack(3.5);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopFrontLeavingEmpty() {
+        DoubleDeque d = this.createFromArgs(1.5);
+        DoubleDeque dExp = this.createFromArgs();
+
+        double front = d.popFront();
+
+        assertEquals(1.5, front, 0.0);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopFrontLeavingNonEmpty2() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5, 3.5);
+        DoubleDeque dExp = this.createFromArgs(2.5, 3.5);
+
+        double front = d.popFront();
+
+        assertEquals(1.5, front, 0.0);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopBackLeavingEmpty() {
+        DoubleDeque d = this.createFromArgs(1.5);
+        DoubleDeque dExp = this.createFromArgs();
+
+        double back = d.popBack();
+
+        assertEquals(1.5, back, 0.0);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopBackLeavingNonEmpty2() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5, 3.5);
+        DoubleDeque dExp = this.createFromArgs(1.5, 2.5);
+
+        double back = d.popBack();
+
+        assertEquals(3.5, back, 0.0);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testLengthEmpty() {
+        DoubleDeque d = this.createFromArgs();
+        DoubleDeque dExp = this.createFromArgs();
+
+        assertEquals(0, d.length());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testLengthNonEmpty3() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5, 3.5);
+        DoubleDeque dExp = this.createFromArgs(1.5, 2.5, 3.5);
+
+        assertEquals(3, d.length());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testIterator() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5, 3.5);
+        DoubleDeque dExp = this.createFromArgs(1.5, 2.5, 3.5);
+
+        PrimitiveIterator.OfDouble it = d.iterator();
+
+        assertEquals(1.5, it.nextDouble(), 0.0);
+        assertEquals(2.5, it.nextDouble(), 0.0);
+        assertEquals(3.5, it.nextDouble(), 0.0);
+        assertEquals(false, it.hasNext());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        DoubleDeque d = this.createFromArgs();
+        for (int i = 1; i <= 100; i++) {
+            d.pushFront(-i);
+            d.pushBack(i);
+        }
+
+        assertEquals(200, d.length());
+        for (int i = 100; i >= 1; i--) {
+            assertEquals(-i, d.popFront(), 0.0);
+            assertEquals(i, d.popBack(), 0.0);
+        }
+        assertEquals(this.createFromArgs(), d);
+    }
+
+    /*
+     * Secondary tests --------------------------------------------------------
+     */
+
+    @Test
+    public void testFlipEmpty() {
+        DoubleDeque d = this.createFromArgs();
+        DoubleDeque dExp = this.createFromArgs();
+
+        d.flip();
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testFlipNonEmpty2() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5);
+        DoubleDeque dExp = this.createFromArgs(2.5, 1.5);
+
+        d.flip();
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testFlipNonEmpty5() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5, 3.5, 4.5,
+                5.5);
+        DoubleDeque dExp = this.createFromArgs(5.5, 4.5, 3.5, 2.5,
+                1.5);
+
+        d.flip();
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testFront3() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5, 3.5);
+        DoubleDeque dExp = this.createFromArgs(1.5, 2.5, 3.5);
+
+        assertEquals(1.5, d.front(), 0.0);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testBack3() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5, 3.5);
+        DoubleDeque dExp = this.createFromArgs(1.5, 2.5, 3.5);
+
+        assertEquals(3.5, d.back(), 0.0);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testReplaceFront3() {
+        DoubleDeque d = this.createFromArgs(4.5, 2.5, 3.5);
+        DoubleDeque dExp = this.createFromArgs(1.5, 2.5, 3.5);
+
+        double front = d.replaceFront(1.5);
+
+        assertEquals(4.5, front, 0.0);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testReplaceBack3() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5, 4.5);
+        DoubleDeque dExp = this.createFromArgs(1.5, 2.5, 3.5);
+
+        double back = d.replaceBack(3.5);
+
+        assertEquals(4.5, back, 0.0);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testToString() {
+        DoubleDeque d = this.createFromArgs(1.5, 2.5);
+
+        assertEquals("<" + 1.5 + "," + 2.5 + ">", d.toString());
+    }
+
+    /*
+     * Stream tests -----------------------------------------------------------
+     */
+
+    @Test
+    public void testStreamFlipped() {
+        DoubleDeque d = this.createFromArgs(1, 2, 3);
+
+        d.flip();
+
+        assertArrayEquals(new double[] { 3.0, 2.0, 1.0 }, d.stream().toArray(),
+                0.0);
+    }
+
+    @Test
+    public void testParallelStreamLarge() {
+        final int n = 100_000;
+        DoubleDeque d = this.createFromArgs();
+        double expected = 0;
+        for (int i = 0; i < n; i++) {
+            d.pushFront(i);
+            expected += i;
+        }
+
+        assertEquals(expected, d.parallelStream().sum(), 0.0);
+        assertEquals(n, d.parallelStream().count());
+    }
+
+}
@@ -0,0 +1,91 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+/**
+ * Customized JUnit test fixture for {@code HashedDeque}, including checks that
+ * the incrementally maintained hash code matches the one computed from the
+ * entries.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class HashedDequeTest extends DequeTest {
+
+    @Override
+    protected final Deque<String> constructorTest() {
+        return new HashedDeque<>();
+    }
+
+    @Override
+    protected final Deque<String> constructorRef() {
+        return new Deque1L<>();
+    }
+
+    /*
+     * Hash maintenance tests -------------------------------------------------
+     */
+
+    @Test
+    public void testHashAfterKernelOperations() {
+        Deque<String> dTest = this.constructorTest();
+        Deque<String> dRef = this.constructorRef();
+        for (int i = 0; i < 20; i++) {
+            dTest.pushFront("f" + i);
+            dRef.pushFront("f" + i);
+            dTest.pushBack("b" + i);
+            dRef.pushBack("b" + i);
+            assertEquals(dRef.hashCode(), dTest.hashCode());
+        }
+        while (dRef.length() > 0) {
+            assertEquals(dRef.popFront(), dTest.popFront());
+            assertEquals(dRef.hashCode(), dTest.hashCode());
+            if (dRef.length() > 0) {
+                assertEquals(dRef.popBack(), dTest.popBack());
+                assertEquals(dRef.hashCode(), dTest.hashCode());
+            }
+        }
+    }
+
+    @Test
+    public void testHashAfterFlipAndReplace() {
+        Deque<String> dTest = new HashedDeque<>(new Deque4<String>());
+        Deque<String> dRef = this.constructorRef();
+        for (int i = 0; i < 10; i++) {
+            dTest.pushBack("" + i);
+            dRef.pushBack("" + i);
+        }
+
+        dTest.flip();
+        dRef.flip();
+        assertEquals(dRef.hashCode(), dTest.hashCode());
+        dTest.replaceFront("front");
+        dRef.replaceFront("front");
+        assertEquals(dRef.hashCode(), dTest.hashCode());
+        dTest.replaceBack("back");
+        dRef.replaceBack("back");
+        assertEquals(dRef.hashCode(), dTest.hashCode());
+        dTest.flip();
+        dRef.flip();
+        assertEquals(dRef.hashCode(), dTest.hashCode());
+        assertEquals(dRef, dTest);
+    }
+
+    @Test
+    public void testUnequalSameLength() {
+        Deque<String> d1 = this.constructorTest();
+        Deque<String> d2 = this.constructorTest();
+        d1.pushBack("one");
+        d1.pushBack("two");
+        d2.pushBack("two");
+        d2.pushBack("one");
+
+        assertFalse(d1.equals(d2));
+        d2.flip();
+        assertEquals(d1, d2);
+    }
+
+}
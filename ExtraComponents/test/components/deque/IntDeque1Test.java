@@ -0,0 +1,283 @@
+package components.deque;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code IntDeque} methods, tested on
+ * {@code IntDeque1}.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class IntDeque1Test {
+
+    /**
+     * Creates and reports a {@code IntDeque} from {@code int} arguments.
+     *
+     * @param args
+     *            elements of {@code IntDeque}
+     * @return a {@code IntDeque} from {@code int} arguments
+     * @ensures createFromArgs = args
+     */
+    private IntDeque createFromArgs(int... args) {
+        assert args != null : "Violation of: args is not null";
+
+        IntDeque deque = new IntDeque1();
+        for (int x : args) {
+            deque.pushBack(x);
+        }
+        return deque;
+    }
+
+    /*
+     * Kernel tests -----------------------------------------------------------
+     */
+
+    @Test
+    public void testPushFrontEmpty() {
+        IntDeque d = this.createFromArgs();
+        IntDeque dExp = this.createFromArgs(1);
+
+        d.pushFront(1);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPushFrontNonEmpty2() {
+        IntDeque d = this.createFromArgs(2, 3);
+        IntDeque dExp = this.createFromArgs(1, 2, 3);
+
+        d.pushFront(1);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPushBackEmpty() {
+        IntDeque d = this.createFromArgs();
+        IntDeque dExp = this.createFromArgs(1);
+
+        d.pushBack(1);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPushBackNonEmpty2() {
+        IntDeque d = this.createFromArgs(1, 2);
+        IntDeque dExp = this.createFromArgs(1, 2, 3);
+
+        d.pushBack(3);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopFrontLeavingEmpty() {
+        IntDeque d = this.createFromArgs(1);
+        IntDeque dExp = this.createFromArgs();
+
+        int front = d.popFront();
+
+        assertEquals(1, front);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopFrontLeavingNonEmpty2() {
+        IntDeque d = this.createFromArgs(1, 2, 3);
+        IntDeque dExp = this.createFromArgs(2, 3);
+
+        int front = d.popFront();
+
+        assertEquals(1, front);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopBackLeavingEmpty() {
+        IntDeque d = this.createFromArgs(1);
+        IntDeque dExp = this.createFromArgs();
+
+        int back = d.popBack();
+
+        assertEquals(1, back);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopBackLeavingNonEmpty2() {
+        IntDeque d = this.createFromArgs(1, 2, 3);
+        IntDeque dExp = this.createFromArgs(1, 2);
+
+        int back = d.popBack();
+
+        assertEquals(3, back);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testLengthEmpty() {
+        IntDeque d = this.createFromArgs();
+        IntDeque dExp = this.createFromArgs();
+
+        assertEquals(0, d.length());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testLengthNonEmpty3() {
+        IntDeque d = this.createFromArgs(1, 2, 3);
+        IntDeque dExp = this.createFromArgs(1, 2, 3);
+
+        assertEquals(3, d.length());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testIterator() {
+        IntDeque d = this.createFromArgs(1, 2, 3);
+        IntDeque dExp = this.createFromArgs(1, 2, 3);
+
+        PrimitiveIterator.OfInt it = d.iterator();
+
+        assertEquals(1, it.nextInt());
+        assertEquals(2, it.nextInt());
+        assertEquals(3, it.nextInt());
+        assertEquals(false, it.hasNext());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        IntDeque d = this.createFromArgs();
+        for (int i = 1; i <= 100; i++) {
+            d.pushFront(-i);
+            d.pushBack(i);
+        }
+
+        assertEquals(200, d.length());
+        for (int i = 100; i >= 1; i--) {
+            assertEquals(-i, d.popFront());
+            assertEquals(i, d.popBack());
+        }
+        assertEquals(this.createFromArgs(), d);
+    }
+
+    /*
+     * Secondary tests --------------------------------------------------------
+     */
+
+    @Test
+    public void testFlipEmpty() {
+        IntDeque d = this.createFromArgs();
+        IntDeque dExp = this.createFromArgs();
+
+        d.flip();
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testFlipNonEmpty2() {
+        IntDeque d = this.createFromArgs(1, 2);
+        IntDeque dExp = this.createFromArgs(2, 1);
+
+        d.flip();
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testFlipNonEmpty5() {
+        IntDeque d = this.createFromArgs(1, 2, 3, 4,
+                5);
+        IntDeque dExp = this.createFromArgs(5, 4, 3, 2,
+                1);
+
+        d.flip();
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testFront3() {
+        IntDeque d = this.createFromArgs(1, 2, 3);
+        IntDeque dExp = this.createFromArgs(1, 2, 3);
+
+        assertEquals(1, d.front());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testBack3() {
+        IntDeque d = this.createFromArgs(1, 2, 3);
+        IntDeque dExp = this.createFromArgs(1, 2, 3);
+
+        assertEquals(3, d.back());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testReplaceFront3() {
+        IntDeque d = this.createFromArgs(4, 2, 3);
+        IntDeque dExp = this.createFromArgs(1, 2, 3);
+
+        int front = d.replaceFront(1);
+
+        assertEquals(4, front);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testReplaceBack3() {
+        IntDeque d = this.createFromArgs(1, 2, 4);
+        IntDeque dExp = this.createFromArgs(1, 2, 3);
+
+        int back = d.replaceBack(3);
+
+        assertEquals(4, back);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testToString() {
+        IntDeque d = this.createFromArgs(1, 2);
+
+        assertEquals("<" + 1 + "," + 2 + ">", d.toString());
+    }
+
+    /*
+     * Stream tests -----------------------------------------------------------
+     */
+
+    @Test
+    public void testStreamFlipped() {
+        IntDeque d = this.createFromArgs(1, 2, 3);
+
+        d.flip();
+
+        assertArrayEquals(new int[] { 3, 2, 1 }, d.stream().toArray());
+    }
+
+    @Test
+    public void testParallelStreamLarge() {
+        final int n = 100_000;
+        IntDeque d = this.createFromArgs();
+        int expected = 0;
+        for (int i = 0; i < n; i++) {
+            d.pushFront(i);
+            expected += i;
+        }
+
+        assertEquals(expected, d.parallelStream().sum());
+        assertEquals(n, d.parallelStream().count());
+    }
+
+}
@@ -0,0 +1,283 @@
+package components.deque;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code LongDeque} methods, tested on
+ * {@code LongDeque1}.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class LongDeque1Test {
+
+    /**
+     * Creates and reports a {@code LongDeque} from {@code long} arguments.
+     *
+     * @param args
+     *            elements of {@code LongDeque}
+     * @return a {@code LongDeque} from {@code long} arguments
+     * @ensures createFromArgs = args
+     */
+    private LongDeque createFromArgs(long... args) {
+        assert args != null : "Violation of: args is not null";
+
+        LongDeque deque = new LongDeque1();
+        for (long x : args) {
+            deque.pushBack(x);
+        }
+        return deque;
+    }
+
+    /*
+     * Kernel tests -----------------------------------------------------------
+     */
+
+    @Test
+    public void testPushFrontEmpty() {
+        LongDeque d = this.createFromArgs();
+        LongDeque dExp = this.createFromArgs(1L);
+
+        d.pushFront(1L);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPushFrontNonEmpty2() {
+        LongDeque d = this.createFromArgs(2L, 3L);
+        LongDeque dExp = this.createFromArgs(1L, 2L, 3L);
+
+        d.pushFront(1L);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPushBackEmpty() {
+        LongDeque d = this.createFromArgs();
+        LongDeque dExp = this.createFromArgs(1L);
+
+        d.pushBack(1L);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPushBackNonEmpty2() {
+        LongDeque d = this.createFromArgs(1L, 2L);
+        LongDeque dExp = this.createFromArgs(1L, 2L, 3L);
+
+        d.pushBack(3L);
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopFrontLeavingEmpty() {
+        LongDeque d = this.createFromArgs(1L);
+        LongDeque dExp = this.createFromArgs();
+
+        long front = d.popFront();
+
+        assertEquals(1L, front);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopFrontLeavingNonEmpty2() {
+        LongDeque d = this.createFromArgs(1L, 2L, 3L);
+        LongDeque dExp = this.createFromArgs(2L, 3L);
+
+        long front = d.popFront();
+
+        assertEquals(1L, front);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopBackLeavingEmpty() {
+        LongDeque d = this.createFromArgs(1L);
+        LongDeque dExp = this.createFromArgs();
+
+        long back = d.popBack();
+
+        assertEquals(1L, back);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testPopBackLeavingNonEmpty2() {
+        LongDeque d = this.createFromArgs(1L, 2L, 3L);
+        LongDeque dExp = this.createFromArgs(1L, 2L);
+
+        long back = d.popBack();
+
+        assertEquals(3L, back);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testLengthEmpty() {
+        LongDeque d = this.createFromArgs();
+        LongDeque dExp = this.createFromArgs();
+
+        assertEquals(0, d.length());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testLengthNonEmpty3() {
+        LongDeque d = this.createFromArgs(1L, 2L, 3L);
+        LongDeque dExp = this.createFromArgs(1L, 2L, 3L);
+
+        assertEquals(3, d.length());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testIterator() {
+        LongDeque d = this.createFromArgs(1L, 2L, 3L);
+        LongDeque dExp = this.createFromArgs(1L, 2L, 3L);
+
+        PrimitiveIterator.OfLong it = d.iterator();
+
+        assertEquals(1L, it.nextLong());
+        assertEquals(2L, it.nextLong());
+        assertEquals(3L, it.nextLong());
+        assertEquals(false, it.hasNext());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        LongDeque d = this.createFromArgs();
+        for (int i = 1; i <= 100; i++) {
+            d.pushFront(-i);
+            d.pushBack(i);
+        }
+
+        assertEquals(200, d.length());
+        for (int i = 100; i >= 1; i--) {
+            assertEquals(-i, d.popFront());
+            assertEquals(i, d.popBack());
+        }
+        assertEquals(this.createFromArgs(), d);
+    }
+
+    /*
+     * Secondary tests --------------------------------------------------------
+     */
+
+    @Test
+    public void testFlipEmpty() {
+        LongDeque d = this.createFromArgs();
+        LongDeque dExp = this.createFromArgs();
+
+        d.flip();
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testFlipNonEmpty2() {
+        LongDeque d = this.createFromArgs(1L, 2L);
+        LongDeque dExp = this.createFromArgs(2L, 1L);
+
+        d.flip();
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testFlipNonEmpty5() {
+        LongDeque d = this.createFromArgs(1L, 2L, 3L, 4L,
+                5L);
+        LongDeque dExp = this.createFromArgs(5L, 4L, 3L, 2L,
+                1L);
+
+        d.flip();
+
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testFront3() {
+        LongDeque d = this.createFromArgs(1L, 2L, 3L);
+        LongDeque dExp = this.createFromArgs(1L, 2L, 3L);
+
+        assertEquals(1L, d.front());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testBack3() {
+        LongDeque d = this.createFromArgs(1L, 2L, 3L);
+        LongDeque dExp = this.createFromArgs(1L, 2L, 3L);
+
+        assertEquals(3L, d.back());
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testReplaceFront3() {
+        LongDeque d = this.createFromArgs(4L, 2L, 3L);
+        LongDeque dExp = this.createFromArgs(1L, 2L, 3L);
+
+        long front = d.replaceFront(1L);
+
+        assertEquals(4L, front);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testReplaceBack3() {
+        LongDeque d = this.createFromArgs(1L, 2L, 4L);
+        LongDeque dExp = this.createFromArgs(1L, 2L, 3L);
+
+        long back = d.replaceBack(3L);
+
+        assertEquals(4L, back);
+        assertEquals(dExp, d);
+    }
+
+    @Test
+    public void testToString() {
+        LongDeque d = this.createFromArgs(1L, 2L);
+
+        assertEquals("<" + 1L + "," + 2L + ">", d.toString());
+    }
+
+    /*
+     * Stream tests -----------------------------------------------------------
+     */
+
+    @Test
+    public void testStreamFlipped() {
+        LongDeque d = this.createFromArgs(1, 2, 3);
+
+        d.flip();
+
+        assertArrayEquals(new long[] { 3L, 2L, 1L }, d.stream().toArray());
+    }
+
+    @Test
+    public void testParallelStreamLarge() {
+        final int n = 100_000;
+        LongDeque d = this.createFromArgs();
+        long expected = 0;
+        for (int i = 0; i < n; i++) {
+            d.pushFront(i);
+            expected += i;
+        }
+
+        assertEquals(expected, d.parallelStream().sum());
+        assertEquals(n, d.parallelStream().count());
+    }
+
+}
@@ -0,0 +1,100 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code LongMonotonicDeque}.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class LongMonotonicDequeTest {
+
+    /**
+     * Number of samples offered in the randomized tests.
+     */
+    private static final int SAMPLES = 10_000;
+
+    /**
+     * Offers {@code SAMPLES} random samples to a new deque, expiring the
+     * oldest samples so the window never holds more than {@code window} of
+     * them, and checks {@code currentExtreme} against a rescan of the window
+     * after every sample.
+     *
+     * @param maximum
+     *            whether to track the maximum rather than the minimum
+     * @param window
+     *            the largest window size
+     */
+    private static void checkSlidingWindow(boolean maximum, int window) {
+        LongMonotonicDeque d = new LongMonotonicDeque(maximum);
+        ArrayDeque<Long> samples = new ArrayDeque<>();
+        Random rnd = new Random(window);
+        for (int i = 0; i < SAMPLES; i++) {
+            long x = rnd.nextInt(100) - 50;
+            d.offer(x);
+            samples.addLast(x);
+            if (samples.size() > window) {
+                d.expireFront(1);
+                samples.removeFirst();
+            }
+
+            long expected;
+            if (maximum) {
+                expected = Collections.max(samples);
+            } else {
+                expected = Collections.min(samples);
+            }
+            assertEquals(samples.size(), d.length());
+            assertEquals(expected, d.currentExtreme());
+        }
+    }
+
+    @Test
+    public void testSlidingMinimum() {
+        checkSlidingWindow(false, 1);
+        checkSlidingWindow(false, 7);
+        checkSlidingWindow(false, 100);
+    }
+
+    @Test
+    public void testSlidingMaximum() {
+        checkSlidingWindow(true, 7);
+        checkSlidingWindow(true, 100);
+    }
+
+    @Test
+    public void testExtremeValues() {
+        LongMonotonicDeque d = new LongMonotonicDeque(true);
+        d.offer(Long.MIN_VALUE);
+        assertEquals(Long.MIN_VALUE, d.currentExtreme());
+
+        d.offer(Long.MAX_VALUE);
+        d.offer(0);
+        assertEquals(Long.MAX_VALUE, d.currentExtreme());
+
+        d.expireFront(2);
+        assertEquals(0, d.currentExtreme());
+    }
+
+    @Test
+    public void testExpireFrontPredicate() {
+        //Samples double as timestamps: everything below a cutoff is stale
+        LongMonotonicDeque d = new LongMonotonicDeque(false);
+        for (long t = 0; t < 10; t++) {
+            d.offer(t);
+        }
+
+        d.expireFront(t -> t < 4);
+
+        assertEquals(6, d.length());
+        assertEquals(4, d.currentExtreme());
+    }
+
+}
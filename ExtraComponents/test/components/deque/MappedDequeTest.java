@@ -0,0 +1,331 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import components.codec.StringCodec;
+
+/**
+ * Customized JUnit test fixture for {@code MappedDeque}, including recovery
+ * tests that reopen its file.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class MappedDequeTest extends DequeTest {
+
+    /**
+     * Size of the data region used by most tests.
+     */
+    private static final int CAPACITY = 1 << 16;
+
+    /**
+     * Directory for the files of the deques under test.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Returns a new file in the temporary folder.
+     *
+     * @return the path of the file
+     */
+    private Path newFile() {
+        try {
+            return this.folder.newFile().toPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a {@code MappedDeque} of strings on {@code file}.
+     *
+     * @param file
+     *            the file
+     * @param capacity
+     *            size of the data region
+     * @return the {@code MappedDeque}
+     */
+    private static MappedDeque<String> open(Path file, int capacity) {
+        try {
+            return new MappedDeque<>(file, capacity, new StringCodec());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected final Deque<String> constructorTest() {
+        return open(this.newFile(), CAPACITY);
+    }
+
+    @Override
+    protected final Deque<String> constructorRef() {
+        return new Deque1L<>();
+    }
+
+    /*
+     * Recovery tests ---------------------------------------------------------
+     */
+
+    @Test
+    public void testReopenAfterClose() throws IOException {
+        Path file = this.newFile();
+        MappedDeque<String> d = open(file, CAPACITY);
+        d.pushBack("two");
+        d.pushFront("one");
+        d.pushBack("three");
+        d.close();
+
+        MappedDeque<String> reopened = open(file, CAPACITY);
+
+        assertEquals("<one,two,three>", reopened.toString());
+    }
+
+    @Test
+    public void testUncommittedUpdatesNotRecovered() {
+        Path file = this.newFile();
+        MappedDeque<String> d = open(file, CAPACITY);
+        d.pushBack("one");
+        d.pushBack("two");
+        d.force();
+        d.popFront();
+        d.pushBack("three");
+
+        MappedDeque<String> reopened = open(file, CAPACITY);
+
+        assertEquals("<one,two>", reopened.toString());
+        assertEquals("<two,three>", d.toString());
+    }
+
+    @Test
+    public void testFlipRecovered() throws IOException {
+        Path file = this.newFile();
+        MappedDeque<String> d = open(file, CAPACITY);
+        d.pushBack("one");
+        d.pushBack("two");
+        d.flip();
+        d.close();
+
+        MappedDeque<String> reopened = open(file, CAPACITY);
+
+        assertEquals("<two,one>", reopened.toString());
+    }
+
+    @Test
+    public void testWrapAroundRecovered() throws IOException {
+        Path file = this.newFile();
+        //Each record of a 4-character string takes 12 bytes
+        MappedDeque<String> d = open(file, 60);
+        Deque<String> ref = new Deque1L<>();
+        for (int i = 0; i < 50; i++) {
+            String x = String.format("%04d", i);
+            if (d.length() == 4) {
+                assertEquals(ref.popFront(), d.popFront());
+            }
+            if (i % 3 == 0) {
+                d.pushFront(x);
+                ref.pushFront(x);
+            } else {
+                d.pushBack(x);
+                ref.pushBack(x);
+            }
+            assertEquals(ref, d);
+        }
+        d.close();
+
+        MappedDeque<String> reopened = open(file, 60);
+
+        assertEquals(ref, reopened);
+    }
+
+    @Test
+    public void testReuseOfCommittedSpaceCommitsFirst() {
+        Path file = this.newFile();
+        MappedDeque<String> d = open(file, 36);
+        d.pushBack("aaaa");
+        d.pushBack("bbbb");
+        d.force();
+        d.popFront();
+        d.pushBack("cccc");
+        //Needs the bytes of "aaaa", so <bbbb,cccc> is committed first
+        d.pushBack("dddd");
+
+        MappedDeque<String> reopened = open(file, 36);
+
+        assertEquals("<bbbb,cccc>", reopened.toString());
+    }
+
+    @Test
+    public void testReplaceFrontInFullRegionRecovered() throws IOException {
+        Path file = this.newFile();
+        MappedDeque<String> d = open(file, 36);
+        d.pushBack("aaaa");
+        d.pushBack("bbbb");
+        d.pushBack("cccc");
+        d.close();
+        //Same length, so "aaaa" is rewritten in place
+        d = open(file, 36);
+        d.replaceFront("zzzz");
+
+        MappedDeque<String> reopened = open(file, 36);
+
+        assertEquals("<zzzz,bbbb,cccc>", reopened.toString());
+    }
+
+    @Test
+    public void testReplaceBackInFullRegionRecovered() throws IOException {
+        Path file = this.newFile();
+        MappedDeque<String> d = open(file, 36);
+        d.pushBack("aaaa");
+        d.pushBack("bbbb");
+        d.pushBack("cccc");
+        d.close();
+        //Shorter, so "zz" reuses committed bytes and is committed at once
+        d = open(file, 36);
+        d.replaceBack("zz");
+
+        MappedDeque<String> reopened = open(file, 36);
+
+        assertEquals("<aaaa,bbbb,zz>", reopened.toString());
+    }
+
+    @Test
+    public void testRotateInFullRegionRecovered() throws IOException {
+        Path file = this.newFile();
+        MappedDeque<String> d = open(file, 36);
+        d.pushBack("aaaa");
+        d.pushBack("bbbb");
+        d.pushBack("cccc");
+        d.close();
+        //No room besides the committed value, so the result is committed
+        d = open(file, 36);
+        d.rotate(1);
+        String afterRotate = open(file, 36).toString();
+        d.replaceEntry(1, "zzz");
+        String afterReplace = open(file, 36).toString();
+
+        assertEquals("<bbbb,cccc,aaaa>", afterRotate);
+        assertEquals("<bbbb,zzz,aaaa>", afterReplace);
+    }
+
+    @Test
+    public void testRotateWithRoomCommitsValueBeforeIt() {
+        Path file = this.newFile();
+        MappedDeque<String> d = open(file, CAPACITY);
+        d.pushBack("one");
+        d.pushBack("two");
+        d.force();
+        d.pushBack("three");
+        d.rotate(1);
+
+        MappedDeque<String> reopened = open(file, CAPACITY);
+
+        assertEquals("<one,two,three>", reopened.toString());
+        assertEquals("<two,three,one>", d.toString());
+    }
+
+    @Test
+    public void testDamagedHeaderRejected() throws IOException {
+        Path file = this.newFile();
+        open(file, CAPACITY).close();
+        MappedDeque<String> other = open(this.newFile(), 1024);
+        other.close();
+
+        try {
+            open(file, 1024);
+            fail("size mismatch not detected");
+        } catch (UncheckedIOException e) {
+            assertTrue(e.getCause().getMessage().contains("size"));
+        }
+    }
+
+    /*
+     * Zero-copy tests --------------------------------------------------------
+     */
+
+    @Test
+    public void testFrontAndBackBuffers() {
+        MappedDeque<String> d = open(this.newFile(), CAPACITY);
+        d.pushBack("one");
+        d.pushBack("two");
+        d.pushBack("three");
+        d.flip();
+
+        ByteBuffer front = d.frontBuffer();
+        ByteBuffer back = d.backBuffer();
+
+        assertTrue(front.isReadOnly());
+        assertEquals("three", StandardCharsets.UTF_8.decode(front).toString());
+        assertEquals("one", StandardCharsets.UTF_8.decode(back).toString());
+        assertEquals("<three,two,one>", d.toString());
+    }
+
+    @Test
+    public void testHasRoomFor() {
+        MappedDeque<String> d = open(this.newFile(), 24);
+
+        assertTrue(d.hasRoomFor("aaaa"));
+        d.pushBack("aaaa");
+        assertTrue(d.hasRoomFor("bbbb"));
+        d.pushBack("bbbb");
+        assertFalse(d.hasRoomFor("c"));
+    }
+
+    /*
+     * Temporary file tests ---------------------------------------------------
+     */
+
+    @Test
+    public void testInPlaceMethodsCreateNoFiles() {
+        MappedDeque<String> d = open(this.newFile(), CAPACITY);
+        d.pushBack("one");
+        d.pushBack("two");
+        d.pushBack("three");
+        d.pushBack("four");
+        int files = this.folder.getRoot().list().length;
+
+        d.rotate(1);
+        d.rotate(-1);
+        d.rotate(3);
+        d.replaceEntry(1, "ONE");
+        d.replaceEntry(2, "THREE");
+        d.pushAllFront(Arrays.asList("minus", "zero"));
+
+        assertEquals("<minus,zero,four,ONE,THREE,three>", d.toString());
+        assertEquals(files, this.folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testSplitAtSuffixDeletedOnClose() throws IOException {
+        MappedDeque<String> d = open(this.newFile(), CAPACITY);
+        d.pushBack("one");
+        d.pushBack("two");
+        d.pushBack("three");
+        int files = this.folder.getRoot().list().length;
+
+        MappedDeque<String> suffix = (MappedDeque<String>) d.splitAt(1);
+        assertEquals(files + 1, this.folder.getRoot().list().length);
+        assertEquals("<two,three>", suffix.toString());
+        suffix.close();
+
+        assertEquals(files, this.folder.getRoot().list().length);
+        assertEquals("<one>", d.toString());
+        suffix.close();
+    }
+
+}
@@ -0,0 +1,143 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code MonotonicDeque}.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class MonotonicDequeTest {
+
+    /**
+     * Number of samples offered in the randomized tests.
+     */
+    private static final int SAMPLES = 10_000;
+
+    /**
+     * Offers {@code SAMPLES} random samples to {@code d}, expiring the oldest
+     * samples so the window never holds more than {@code window} of them, and
+     * checks {@code currentExtreme} against a rescan of the window after every
+     * sample.
+     *
+     * @param order
+     *            the order {@code d} was constructed with
+     * @param window
+     *            the largest window size
+     */
+    private static void checkSlidingWindow(Comparator<Integer> order,
+            int window) {
+        MonotonicDeque<Integer> d = new MonotonicDeque<>(order);
+        ArrayDeque<Integer> samples = new ArrayDeque<>();
+        Random rnd = new Random(window);
+        for (int i = 0; i < SAMPLES; i++) {
+            Integer x = rnd.nextInt(100);
+            d.offer(x);
+            samples.addLast(x);
+            if (samples.size() > window) {
+                d.expireFront(1);
+                samples.removeFirst();
+            }
+
+            assertEquals(samples.size(), d.length());
+            assertEquals(Collections.min(samples, order), d.currentExtreme());
+        }
+    }
+
+    @Test
+    public void testSlidingMinimum() {
+        checkSlidingWindow(Comparator.naturalOrder(), 1);
+        checkSlidingWindow(Comparator.naturalOrder(), 7);
+        checkSlidingWindow(Comparator.naturalOrder(), 100);
+    }
+
+    @Test
+    public void testSlidingMaximum() {
+        checkSlidingWindow(Comparator.reverseOrder(), 7);
+        checkSlidingWindow(Comparator.reverseOrder(), 100);
+    }
+
+    @Test
+    public void testExpireFrontCount() {
+        MonotonicDeque<Integer> d = new MonotonicDeque<>(
+                Comparator.naturalOrder());
+        d.offer(1);
+        d.offer(5);
+        d.offer(3);
+        d.offer(4);
+
+        d.expireFront(1);
+        assertEquals(3, d.length());
+        assertEquals(Integer.valueOf(3), d.currentExtreme());
+
+        d.expireFront(2);
+        assertEquals(1, d.length());
+        assertEquals(Integer.valueOf(4), d.currentExtreme());
+
+        d.expireFront(1);
+        assertEquals(0, d.length());
+        d.offer(9);
+        assertEquals(Integer.valueOf(9), d.currentExtreme());
+    }
+
+    @Test
+    public void testExpireFrontPredicate() {
+        //Samples are {timestamp, value} pairs, least value reported
+        MonotonicDeque<long[]> d = new MonotonicDeque<>(
+                (a, b) -> Long.compare(a[1], b[1]));
+        d.offer(new long[] { 10, 2 });
+        d.offer(new long[] { 11, 7 });
+        d.offer(new long[] { 12, 5 });
+        d.offer(new long[] { 13, 6 });
+
+        d.expireFront(s -> s[0] < 11);
+        assertEquals(5, d.currentExtreme()[1]);
+        assertEquals(3, d.length());
+
+        d.expireFront(s -> s[0] < 13);
+        assertEquals(6, d.currentExtreme()[1]);
+        assertEquals(1, d.length());
+
+        d.expireFront(s -> s[0] < 14);
+        assertEquals(0, d.length());
+    }
+
+    @Test
+    public void testTiesKeepMostRecent() {
+        MonotonicDeque<String> d = new MonotonicDeque<>(
+                Comparator.comparing(String::length));
+        String first = "aa";
+        String second = "bb";
+        d.offer(first);
+        d.offer(second);
+
+        assertSame(second, d.currentExtreme());
+        d.expireFront(1);
+        assertSame(second, d.currentExtreme());
+    }
+
+    @Test
+    public void testClear() {
+        MonotonicDeque<Integer> d = new MonotonicDeque<>(
+                Comparator.naturalOrder());
+        for (int i = 0; i < 100; i++) {
+            d.offer(i);
+        }
+
+        d.clear();
+        d.offer(42);
+
+        assertEquals(1, d.length());
+        assertEquals(Integer.valueOf(42), d.currentExtreme());
+    }
+
+}
@@ -0,0 +1,133 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import components.codec.LongCodec;
+import components.codec.RecordCodec;
+
+/**
+ * Customized JUnit test fixture for {@code OffHeapDeque}, including tests that
+ * cross chunk boundaries.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class OffHeapDequeTest extends DequeTest {
+
+    /**
+     * {@code RecordCodec} for short ASCII strings: a length byte followed by
+     * the characters, padded to a fixed size.
+     */
+    private static final class ShortStringCodec
+            implements RecordCodec<String> {
+
+        /**
+         * Size of each record.
+         */
+        private static final int SIZE = 16;
+
+        @Override
+        public int recordSize() {
+            return SIZE;
+        }
+
+        @Override
+        public void encode(String x, ByteBuffer out) {
+            byte[] bytes = x.getBytes(StandardCharsets.US_ASCII);
+            assert bytes.length < SIZE : "Violation of: |x| < 16";
+            out.put((byte) bytes.length);
+            out.put(bytes);
+            out.position(out.position() + SIZE - 1 - bytes.length);
+        }
+
+        @Override
+        public String decode(ByteBuffer in) {
+            byte[] bytes = new byte[in.get()];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+    }
+
+    @Override
+    protected final Deque<String> constructorTest() {
+        //Chunks of 3 records, so that most tests cross chunk boundaries
+        return new OffHeapDeque<>(new ShortStringCodec(), 48);
+    }
+
+    @Override
+    protected final Deque<String> constructorRef() {
+        return new Deque1L<>();
+    }
+
+    /*
+     * Chunk tests ------------------------------------------------------------
+     */
+
+    @Test
+    public void testMixedPushPopAcrossChunks() {
+        OffHeapDeque<Long> d = new OffHeapDeque<>(new LongCodec(), 32);
+        Deque<Long> ref = new Deque1L<>();
+        for (long i = 0; i < 500; i++) {
+            switch ((int) (i % 7)) {
+                case 0:
+                case 3:
+                    d.pushFront(i);
+                    ref.pushFront(i);
+                    break;
+                case 5:
+                    assertEquals(ref.popBack(), d.popBack());
+                    break;
+                case 6:
+                    assertEquals(ref.popFront(), d.popFront());
+                    d.flip();
+                    ref.flip();
+                    break;
+                default:
+                    d.pushBack(i);
+                    ref.pushBack(i);
+                    break;
+            }
+            assertEquals(ref.length(), d.longLength());
+        }
+        assertEquals(ref, d);
+        while (ref.length() > 0) {
+            assertEquals(ref.popFront(), d.popFront());
+        }
+        assertEquals(0, d.longLength());
+    }
+
+    @Test
+    public void testReuseAfterEmptying() {
+        OffHeapDeque<Long> d = new OffHeapDeque<>(new LongCodec(), 16);
+        for (int round = 0; round < 3; round++) {
+            for (long i = 0; i < 20; i++) {
+                d.pushBack(i);
+            }
+            for (long i = 0; i < 20; i++) {
+                assertEquals(Long.valueOf(i), d.popFront());
+            }
+        }
+        d.pushFront(7L);
+        assertEquals("<7>", d.toString());
+    }
+
+    @Test
+    public void testLongEntry() {
+        OffHeapDeque<Long> d = new OffHeapDeque<>(new LongCodec(), 24);
+        for (long i = 0; i < 10; i++) {
+            d.pushBack(i);
+        }
+        d.flip();
+
+        assertEquals(Long.valueOf(9), d.entry(0L));
+        assertEquals(Long.valueOf(5), d.entry(4L));
+        assertEquals(Long.valueOf(0), d.entry(9L));
+    }
+
+}
@@ -0,0 +1,139 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code PersistentDeque}.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class PersistentDequeTest {
+
+    /**
+     * Creates and returns a {@code PersistentDeque<String>} with the given
+     * entries.
+     *
+     * @param args
+     *            the entries for the deque
+     * @return the constructed deque
+     * @ensures createFromArgs = [entries in args]
+     */
+    private static PersistentDeque<String> createFromArgs(String... args) {
+        PersistentDeque<String> d = PersistentDeque.empty();
+        for (String x : args) {
+            d = d.pushBack(x);
+        }
+        return d;
+    }
+
+    @Test
+    public void testEmpty() {
+        PersistentDeque<String> d = PersistentDeque.empty();
+
+        assertEquals(0, d.length());
+        assertEquals("<>", d.toString());
+    }
+
+    @Test
+    public void testPushPopBothEnds() {
+        PersistentDeque<String> d = createFromArgs("two", "three");
+
+        d = d.pushFront("one");
+
+        assertEquals(3, d.length());
+        assertEquals("one", d.front());
+        assertEquals("three", d.back());
+        assertEquals("<two,three>", d.popFront().toString());
+        assertEquals("<one,two>", d.popBack().toString());
+        assertEquals("<>", d.popFront().popFront().popFront().toString());
+    }
+
+    @Test
+    public void testOldVersionsUnchanged() {
+        PersistentDeque<String> v1 = createFromArgs("one", "two", "three");
+        PersistentDeque<String> v2 = v1.popFront().pushBack("four");
+        PersistentDeque<String> v3 = v1.flip().popBack();
+
+        assertEquals("<one,two,three>", v1.toString());
+        assertEquals("<two,three,four>", v2.toString());
+        assertEquals("<three,two>", v3.toString());
+    }
+
+    @Test
+    public void testFlip() {
+        PersistentDeque<String> d = createFromArgs("one", "two", "three");
+
+        assertEquals("<three,two,one>", d.flip().toString());
+        assertEquals("three", d.flip().front());
+        assertEquals(d, d.flip().flip());
+    }
+
+    @Test
+    public void testEqualsHashCode() {
+        PersistentDeque<String> d1 = createFromArgs("one", "two", "three");
+        PersistentDeque<String> d2 = createFromArgs("two", "three")
+                .pushFront("one");
+        Deque<String> d3 = new Deque1L<>();
+        d3.pushBack("one");
+        d3.pushBack("two");
+        d3.pushBack("three");
+
+        assertEquals(d1, d2);
+        assertEquals(d1.hashCode(), d2.hashCode());
+        assertEquals(d3.hashCode(), d1.hashCode());
+        assertNotEquals(d1, d1.flip());
+    }
+
+    @Test
+    public void testRandomOperationsOnManyVersions() {
+        Random rnd = new Random(1);
+        List<PersistentDeque<Integer>> versions = new ArrayList<>();
+        List<ArrayDeque<Integer>> expected = new ArrayList<>();
+        versions.add(PersistentDeque.<Integer> empty());
+        expected.add(new ArrayDeque<Integer>());
+        for (int i = 0; i < 5_000; i++) {
+            //Update a random existing version, not just the latest
+            int v = rnd.nextInt(versions.size());
+            PersistentDeque<Integer> d = versions.get(v);
+            ArrayDeque<Integer> e = new ArrayDeque<>(expected.get(v));
+            int op = rnd.nextInt(5);
+            if (op == 0 && e.size() > 0) {
+                d = d.popFront();
+                e.removeFirst();
+            } else if (op == 1 && e.size() > 0) {
+                d = d.popBack();
+                e.removeLast();
+            } else if (op == 2) {
+                d = d.pushFront(i);
+                e.addFirst(i);
+            } else {
+                d = d.pushBack(i);
+                e.addLast(i);
+            }
+            versions.add(d);
+            expected.add(e);
+        }
+
+        for (int v = 0; v < versions.size(); v++) {
+            assertEquals(expected.get(v).toString().replace(" ", "")
+                    .replace('[', '<').replace(']', '>'),
+                    versions.get(v).toString());
+            if (!expected.get(v).isEmpty()) {
+                assertEquals(expected.get(v).getFirst(),
+                        versions.get(v).front());
+                assertEquals(expected.get(v).getLast(),
+                        versions.get(v).back());
+            }
+        }
+    }
+
+}
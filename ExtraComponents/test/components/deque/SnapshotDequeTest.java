@@ -0,0 +1,149 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Customized JUnit test fixture for {@code SnapshotDeque}, including a
+ * multi-threaded snapshot consistency test.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class SnapshotDequeTest extends DequeTest {
+
+    /**
+     * Number of entries pushed by each writer in the stress test.
+     */
+    private static final int PER_WRITER = 20_000;
+
+    @Override
+    protected final Deque<String> constructorTest() {
+        return new SnapshotDeque<>();
+    }
+
+    @Override
+    protected final Deque<String> constructorRef() {
+        return new Deque1L<>();
+    }
+
+    /*
+     * Snapshot tests ---------------------------------------------------------
+     */
+
+    @Test
+    public void testSnapshotUnaffectedByLaterUpdates() {
+        SnapshotDeque<String> d = new SnapshotDeque<>();
+        d.pushBack("one");
+        d.pushBack("two");
+
+        PersistentDeque<String> snapshot = d.snapshot();
+        d.pushFront("zero");
+        d.popBack();
+        d.flip();
+
+        assertEquals("<one,two>", snapshot.toString());
+        assertEquals("<one,zero>", d.toString());
+    }
+
+    @Test
+    public void testIteratorWalksSnapshot() {
+        SnapshotDeque<String> d = new SnapshotDeque<>();
+        d.pushBack("one");
+        d.pushBack("two");
+
+        StringBuilder seen = new StringBuilder();
+        for (String x : d) {
+            d.pushBack(x + "!");
+            seen.append(x);
+        }
+
+        assertEquals("onetwo", seen.toString());
+        assertEquals("<one,two,one!,two!>", d.toString());
+    }
+
+    @Test
+    public void testTransferFromSharesVersion() {
+        SnapshotDeque<String> source = new SnapshotDeque<>();
+        SnapshotDeque<String> d = new SnapshotDeque<>();
+        source.pushBack("one");
+        PersistentDeque<String> snapshot = source.snapshot();
+
+        d.transferFrom(source);
+
+        assertTrue(snapshot == d.snapshot());
+        assertEquals(0, source.length());
+    }
+
+    @Test
+    public void testConcurrentWritersConsistentSnapshots()
+            throws InterruptedException {
+        /*
+         * Writers push and pop matched pairs at the front, so any consistent
+         * version is some "x"s followed by the fixed "base"
+         */
+        final SnapshotDeque<String> d = new SnapshotDeque<>();
+        d.pushBack("base");
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicBoolean inconsistent = new AtomicBoolean(false);
+        Workers reader = new Workers();
+        reader.start(() -> {
+            while (!done.get()) {
+                PersistentDeque<String> snapshot = d.snapshot();
+                int n = 0;
+                for (String x : snapshot) {
+                    n++;
+                    if (!x.equals("x") && !x.equals("base")) {
+                        inconsistent.set(true);
+                    }
+                }
+                if (n != snapshot.length()
+                        || !snapshot.back().equals("base")) {
+                    inconsistent.set(true);
+                }
+            }
+        });
+        Workers writers = new Workers();
+        for (int w = 0; w < 2; w++) {
+            writers.start(() -> {
+                for (int i = 0; i < PER_WRITER; i++) {
+                    d.pushFront("x");
+                    d.popFront();
+                }
+            });
+        }
+        try {
+            writers.joinAll();
+        } finally {
+            done.set(true);
+            reader.joinAll();
+        }
+
+        assertEquals(false, inconsistent.get());
+        assertEquals("<base>", d.toString());
+    }
+
+    @Test
+    public void testSpliteratorSizedFromOneVersion() {
+        SnapshotDeque<String> d = new SnapshotDeque<>();
+        d.pushBack("one");
+        d.pushBack("two");
+        Spliterator<String> s = d.spliterator();
+        d.pushBack("three");
+        d.popFront();
+
+        assertEquals(2, s.getExactSizeIfKnown());
+        List<String> seen = new ArrayList<>();
+        s.forEachRemaining(seen::add);
+        assertEquals(Arrays.asList("one", "two"), seen);
+    }
+
+}
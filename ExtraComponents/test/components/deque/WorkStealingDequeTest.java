@@ -0,0 +1,198 @@
+package components.deque;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code WorkStealingDeque}.
+ *
+ * @author Zach Baruch
+ *
+ */
+public class WorkStealingDequeTest {
+
+    /**
+     * Number of thief threads in the stress test.
+     */
+    private static final int THIEVES = 4;
+
+    /**
+     * Number of entries pushed by the owner in the stress test.
+     */
+    private static final int TASKS = 200_000;
+
+    /*
+     * Single-threaded tests --------------------------------------------------
+     */
+
+    @Test
+    public void testPopBackEmpty() {
+        WorkStealingDeque<String> d = new WorkStealingDeque<>();
+
+        assertNull(d.popBack());
+        assertEquals(0, d.length());
+    }
+
+    @Test
+    public void testStealEmpty() {
+        WorkStealingDeque<String> d = new WorkStealingDeque<>();
+
+        assertNull(d.steal());
+        assertEquals(0, d.length());
+    }
+
+    @Test
+    public void testPushBackPopBack() {
+        WorkStealingDeque<String> d = new WorkStealingDeque<>();
+        d.pushBack("one");
+        d.pushBack("two");
+        d.pushBack("three");
+
+        assertEquals(3, d.length());
+        assertEquals("one", d.front());
+        assertEquals("three", d.back());
+        assertEquals("three", d.popBack());
+        assertEquals("two", d.popBack());
+        assertEquals("one", d.popBack());
+        assertNull(d.popBack());
+    }
+
+    @Test
+    public void testPushBackSteal() {
+        WorkStealingDeque<String> d = new WorkStealingDeque<>();
+        d.pushBack("one");
+        d.pushBack("two");
+        d.pushBack("three");
+
+        assertEquals("one", d.steal());
+        assertEquals("two", d.steal());
+        assertEquals("three", d.popBack());
+        assertNull(d.steal());
+        assertEquals(0, d.length());
+    }
+
+    @Test
+    public void testGrowth() {
+        WorkStealingDeque<Integer> d = new WorkStealingDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            d.pushBack(i);
+            if (i % 3 == 0) {
+                assertEquals(Integer.valueOf(i / 3), d.steal());
+            }
+        }
+
+        assertEquals(1000 - 334, d.length());
+        assertEquals(Integer.valueOf(334), d.front());
+        assertEquals(Integer.valueOf(999), d.back());
+    }
+
+    /*
+     * Stress test ------------------------------------------------------------
+     */
+
+    @Test
+    public void testOwnerAndThieves() throws InterruptedException {
+        final WorkStealingDeque<Integer> d = new WorkStealingDeque<>();
+        final AtomicIntegerArray taken = new AtomicIntegerArray(TASKS);
+        final AtomicBoolean done = new AtomicBoolean(false);
+        Workers thieves = new Workers();
+        for (int t = 0; t < THIEVES; t++) {
+            thieves.start(new Runnable() {
+                @Override
+                public void run() {
+                    while (!done.get() || d.length() > 0) {
+                        Integer x = d.steal();
+                        if (x != null) {
+                            taken.incrementAndGet(x);
+                        }
+                    }
+                }
+            });
+        }
+
+        //Owner pushes everything, popping one entry back for every three
+        for (int i = 0; i < TASKS; i++) {
+            d.pushBack(i);
+            if (i % 3 == 0) {
+                Integer x = d.popBack();
+                if (x != null) {
+                    taken.incrementAndGet(x);
+                }
+            }
+        }
+        Integer x = d.popBack();
+        while (x != null) {
+            taken.incrementAndGet(x);
+            x = d.popBack();
+        }
+        done.set(true);
+        thieves.joinAll();
+
+        for (int i = 0; i < TASKS; i++) {
+            assertEquals(1, taken.get(i));
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void testRepushSameReferenceAcrossWraparound()
+            throws InterruptedException {
+        /*
+         * The owner keeps pushing one reference while keeping the deque
+         * short, so slots are reused on every wraparound of the array while
+         * thieves are still stealing from them; every push must be taken
+         * exactly once
+         */
+        final WorkStealingDeque<String> d = new WorkStealingDeque<>();
+        final String task = "task";
+        final AtomicLong taken = new AtomicLong();
+        final AtomicBoolean done = new AtomicBoolean(false);
+        Workers thieves = new Workers();
+        for (int t = 0; t < THIEVES; t++) {
+            thieves.start(new Runnable() {
+                @Override
+                public void run() {
+                    while (!done.get() || d.length() > 0) {
+                        String x = d.steal();
+                        if (x != null) {
+                            assertSame(task, x);
+                            taken.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+
+        long pushed = 0;
+        for (int i = 0; i < TASKS * 5; i++) {
+            if (d.length() < 8) {
+                d.pushBack(task);
+                pushed++;
+            }
+            if (i % 7 == 0) {
+                String x = d.popBack();
+                if (x != null) {
+                    assertSame(task, x);
+                    taken.incrementAndGet();
+                }
+            }
+        }
+        String x = d.popBack();
+        while (x != null) {
+            taken.incrementAndGet();
+            x = d.popBack();
+        }
+        done.set(true);
+        thieves.joinAll();
+
+        assertEquals(0, d.length());
+        assertEquals(pushed, taken.get());
+    }
+
+}
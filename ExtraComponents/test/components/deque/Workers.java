@@ -0,0 +1,72 @@
+package components.deque;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Worker threads for multi-threaded tests: anything a worker throws, including
+ * a failed JUnit assertion, is rethrown on the test thread by {@code joinAll}.
+ *
+ * @author Zach Baruch
+ *
+ */
+final class Workers {
+
+    /**
+     * The workers started so far.
+     */
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * The first throwable thrown by a worker, or null if none has been.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Starts a worker running {@code task}.
+     *
+     * @param task
+     *            the task to run
+     */
+    void start(final Runnable task) {
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    if (!Workers.this.failure.compareAndSet(null, e)) {
+                        Workers.this.failure.get().addSuppressed(e);
+                    }
+                }
+            }
+        });
+        this.threads.add(t);
+        t.start();
+    }
+
+    /**
+     * Waits for every worker to finish, then rethrows the first throwable any
+     * of them threw.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    void joinAll() throws InterruptedException {
+        for (Thread t : this.threads) {
+            t.join();
+        }
+        Throwable e = this.failure.get();
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e != null) {
+            throw new AssertionError("worker failed", e);
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+package components.sortingmachine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import components.codec.Codec;
+import components.codec.StringCodec;
+
+/**
+ * Customized JUnit test fixture for {@code ExternalSortingMachine}, with a
+ * memory budget small enough that almost every entry is spilled to its own
+ * run, so the inherited tests exercise the merge of runs read from disk.
+ */
+public final class ExternalSortingMachineTest extends SortingMachineTest {
+
+    /**
+     * Memory budget, in bytes of encodings, of the machines under test.
+     */
+    private static final long BUDGET = 8;
+
+    /**
+     * Directory for the run files of the machines under test.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new ExternalSortingMachine<String>(order, new StringCodec(),
+                this.folder.getRoot().toPath(), BUDGET);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    @Test
+    public void testEqualKeysLeaveRunsInOrderAdded() {
+        /*
+         * Entries are a color, a slash and a serial number, ordered by color
+         * only, so a stable merge must match a stable in-memory sort
+         */
+        Comparator<String> byColor = Comparator
+                .comparing((String x) -> x.substring(0, x.indexOf('/')));
+        String[] colors = { "red", "green", "blue", "cyan", "amber" };
+        SortingMachine<String> m = new ExternalSortingMachine<String>(byColor,
+                new StringCodec(), this.folder.getRoot().toPath(), 700);
+        List<String> expected = new ArrayList<String>();
+        Random rnd = new Random(25);
+        for (int i = 0; i < 20000; i++) {
+            String x = colors[rnd.nextInt(colors.length)] + "/" + i;
+            m.add(x);
+            expected.add(x);
+        }
+        m.changeToExtractionMode();
+        Collections.sort(expected, byColor);
+
+        List<String> removed = new ArrayList<String>();
+        while (m.size() > 0) {
+            removed.add(m.removeFirst());
+        }
+        assertEquals(expected, removed);
+        assertEquals(0, this.folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testMergesInPassesWithTinyBudget() {
+        //With BUDGET, every entry is a run and the merge takes 2 at a time
+        SortingMachine<String> m = this.constructorTest(
+                Comparator.<String> naturalOrder());
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 300; i++) {
+            String x = Integer.toString(i * 7919 % 300);
+            m.add(x);
+            expected.add(x);
+        }
+        m.changeToExtractionMode();
+        Collections.sort(expected);
+
+        assertTrue(this.folder.getRoot().list().length <= 2);
+        for (String x : expected) {
+            assertEquals(x, m.removeFirst());
+        }
+        assertEquals(0, this.folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testFailedSpillDeletesItsFile() {
+        //A codec that cannot encode "bad", so the run holding it fails
+        Codec<String> codec = new Codec<String>() {
+            private final StringCodec strings = new StringCodec();
+
+            @Override
+            public int length(String x) {
+                return this.strings.length(x);
+            }
+
+            @Override
+            public void encode(String x, ByteBuffer out) {
+                if (x.equals("bad")) {
+                    throw new IllegalArgumentException(x);
+                }
+                this.strings.encode(x, out);
+            }
+
+            @Override
+            public String decode(ByteBuffer in) {
+                return this.strings.decode(in);
+            }
+        };
+        SortingMachine<String> m = new ExternalSortingMachine<String>(
+                Comparator.<String> naturalOrder(), codec,
+                this.folder.getRoot().toPath(), BUDGET);
+        m.add("good");
+        m.add("bad");
+        int runs = this.folder.getRoot().list().length;
+        try {
+            m.add("next");
+            fail("spilling \"bad\" did not fail");
+        } catch (IllegalArgumentException e) {
+            assertEquals(runs, this.folder.getRoot().list().length);
+        }
+        m.clear();
+        assertEquals(0, this.folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testClearClosesRunsBeingMerged() {
+        //Open files are only visible where /proc lists them
+        File fds = new File("/proc/self/fd");
+        assumeTrue(fds.isDirectory());
+        int open = fds.list().length;
+        SortingMachine<String> m = new ExternalSortingMachine<String>(
+                Comparator.<String> naturalOrder(), new StringCodec(),
+                this.folder.getRoot().toPath(), 1 << 16);
+        for (int i = 0; i < 30000; i++) {
+            m.add(Integer.toString(i));
+        }
+        m.changeToExtractionMode();
+        m.removeFirst();
+        assertTrue(fds.list().length > open);
+        m.clear();
+
+        assertEquals(open, fds.list().length);
+        assertEquals(0, this.folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testIteratorAfterPartialRemoval() {
+        SortingMachine<String> m = this.constructorTest(
+                Comparator.<String> naturalOrder());
+        List<String> expected = new ArrayList<String>();
+        Random rnd = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            String x = Integer.toString(rnd.nextInt(1000));
+            m.add(x);
+            expected.add(x);
+        }
+        m.changeToExtractionMode();
+        Collections.sort(expected);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(expected.get(i), m.removeFirst());
+        }
+
+        List<String> remaining = new ArrayList<String>();
+        for (String x : m) {
+            remaining.add(x);
+        }
+        Collections.sort(remaining);
+        assertEquals(expected.subList(50, 200), remaining);
+        assertEquals(150, m.size());
+        assertEquals(expected.get(50), m.removeFirst());
+    }
+
+    @Test
+    public void testClearDeletesRuns() {
+        SortingMachine<String> m = this.constructorTest(
+                Comparator.<String> naturalOrder());
+        for (int i = 0; i < 100; i++) {
+            m.add("entry" + i);
+        }
+        assertTrue(this.folder.getRoot().list().length > 0);
+        m.clear();
+
+        assertEquals(0, this.folder.getRoot().list().length);
+        assertEquals(0, m.size());
+    }
+
+}
@@ -0,0 +1,100 @@
+package components.sortingmachine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Customized JUnit test fixture for {@code ParallelSortingMachine}, including
+ * tests with a small sequential cutoff so that the parallel merge is used.
+ */
+public final class ParallelSortingMachineTest extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new ParallelSortingMachine<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    @Test
+    public void testSortsInParallelAndStably() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            /*
+             * Entries are a letter, cycling through the alphabet, followed by
+             * the number of the entry; with a cutoff of 16, the ties on the
+             * letter are spread over hundreds of pieces that are merged in
+             * parallel, and must still come out in the order added
+             */
+            SortingMachine<String> m = new ParallelSortingMachine<String>(
+                    Comparator.comparing((String x) -> x.charAt(0)), pool,
+                    16);
+            for (int i = 0; i < 5000; i++) {
+                m.add((char) ('a' + i % 26) + Integer.toString(i));
+            }
+            m.changeToExtractionMode();
+
+            char letter = 'a';
+            int number = -1;
+            while (m.size() > 0) {
+                String x = m.removeFirst();
+                int n = Integer.parseInt(x.substring(1));
+                if (x.charAt(0) != letter) {
+                    assertTrue(x.charAt(0) > letter);
+                    letter = x.charAt(0);
+                } else {
+                    assertTrue(n > number);
+                }
+                number = n;
+            }
+            assertEquals('z', letter);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testNewInstanceKeepsPoolAndCutoff() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            /*
+             * With 100 entries and a cutoff of 4, the new instance must hand
+             * the sort to the pool, so some comparison runs in its workers;
+             * with the default cutoff it would all run on this thread
+             */
+            final AtomicBoolean inPool = new AtomicBoolean();
+            Comparator<String> order = (x, y) -> {
+                Thread t = Thread.currentThread();
+                if (t instanceof ForkJoinWorkerThread
+                        && ((ForkJoinWorkerThread) t).getPool() == pool) {
+                    inPool.set(true);
+                }
+                return x.compareTo(y);
+            };
+            SortingMachine<String> m = new ParallelSortingMachine<String>(
+                    order, pool, 4).newInstance();
+            for (int i = 99; i >= 0; i--) {
+                m.add(String.format("%03d", i));
+            }
+            m.changeToExtractionMode();
+
+            assertTrue(inPool.get());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(String.format("%03d", i), m.removeFirst());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package components.sortingmachine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine7b}.
+ */
+public final class SortingMachine7bTest extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine7b<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    @Test
+    public void testIteratorSortedDuringInsertion() {
+        SortingMachine<String> m = this
+                .constructorTest(Comparator.<String> naturalOrder());
+        List<String> expected = new ArrayList<>();
+        Random rnd = new Random(7);
+        //Enough entries to split blocks several times
+        for (int i = 0; i < 3000; i++) {
+            String x = String.format("%04d", rnd.nextInt(2000));
+            m.add(x);
+            expected.add(x);
+        }
+        Collections.sort(expected);
+
+        List<String> seen = new ArrayList<>();
+        for (String x : m) {
+            seen.add(x);
+        }
+
+        assertEquals(expected, seen);
+        assertEquals(true, m.isInInsertionMode());
+    }
+
+    @Test
+    public void testRemoveFirstAcrossBlocks() {
+        SortingMachine<String> m = this
+                .constructorTest(Comparator.<String> naturalOrder());
+        for (int i = 2999; i >= 0; i--) {
+            m.add(String.format("%04d", i));
+        }
+        m.changeToExtractionMode();
+
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(String.format("%04d", i), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+}
@@ -0,0 +1,39 @@
+package components.sortingmachine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine8}.
+ */
+public final class SortingMachine8Test extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine8<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    @Test
+    public void testRemoveFirstPastInitialCapacity() {
+        SortingMachine<String> m = this
+                .constructorTest(Comparator.<String> naturalOrder());
+        for (int i = 99; i >= 0; i--) {
+            m.add(String.format("%03d", i));
+        }
+        m.changeToExtractionMode();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.format("%03d", i), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+}
@@ -0,0 +1,71 @@
+package components.sortingmachine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine9}.
+ */
+public final class SortingMachine9Test extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine9<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Adds 1000 pseudo-random entries, with repeats, to a new
+     * {@code SortingMachine9} of the given fan-out and checks that they are
+     * all removed, in order.
+     *
+     * @param arity
+     *            number of children of each heap node
+     */
+    private static void checkDrain(int arity) {
+        SortingMachine<String> m = new SortingMachine9<String>(
+                Comparator.<String> naturalOrder(), arity);
+        List<String> expected = new ArrayList<>();
+        Random rnd = new Random(arity);
+        for (int i = 0; i < 1000; i++) {
+            String x = String.format("%03d", rnd.nextInt(500));
+            m.add(x);
+            expected.add(x);
+        }
+        m.changeToExtractionMode();
+        Collections.sort(expected);
+
+        List<String> removed = new ArrayList<>();
+        while (m.size() > 0) {
+            removed.add(m.removeFirst());
+        }
+        assertEquals(expected, removed);
+    }
+
+    @Test
+    public void testDrainBinary() {
+        checkDrain(2);
+    }
+
+    @Test
+    public void testDrainQuaternary() {
+        checkDrain(4);
+    }
+
+    @Test
+    public void testDrainOctonary() {
+        checkDrain(8);
+    }
+
+}
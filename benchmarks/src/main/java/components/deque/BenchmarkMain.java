@@ -0,0 +1,59 @@
+package components.deque;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar: runs JMH with the given command-line
+ * options, always adding the GC profiler so that allocation rates are reported
+ * with the scores.
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [JMH options] [regexp]}; see
+ * {@code -h} for the options.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+public final class BenchmarkMain {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            JMH command-line options
+     * @throws RunnerException
+     *             if a benchmark cannot be run
+     * @throws CommandLineOptionException
+     *             if the options are malformed
+     * @throws IOException
+     *             if JMH cannot list the benchmarks
+     */
+    public static void main(String[] args) throws RunnerException,
+            CommandLineOptionException, IOException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers()
+                || cmd.shouldListResultFormats()) {
+            //Let JMH's own entry point handle the informational options
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options opts = new OptionsBuilder().parent(cmd)
+                .addProfiler(GCProfiler.class).build();
+        new Runner(opts).run();
+    }
+
+}
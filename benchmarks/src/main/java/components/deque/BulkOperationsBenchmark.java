@@ -0,0 +1,122 @@
+package components.deque;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark comparing the bulk {@code pushAllBack} and
+ * {@code popFront(n, into)} with the equivalent loops of single-entry
+ * {@code pushBack} and {@code popFront}, in ns per entry moved.
+ *
+ * <p>
+ * Each invocation pushes a batch of 4096 entries into an empty {@code Deque},
+ * moves them all to a second one, and clears that; it counts as 4096
+ * operations, so scores are per entry.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar BulkOperationsBenchmark},
+ * optionally restricted with, e.g., {@code -p impl=Deque5}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkOperationsBenchmark {
+
+    /**
+     * Number of entries moved per invocation.
+     */
+    private static final int BATCH = 4096;
+
+    /**
+     * Simple name of the {@code Deque} implementation, in package
+     * {@code components.deque}.
+     */
+    @Param({ "Deque4", "Deque5" })
+    public String impl;
+
+    /**
+     * The {@code Deque} the batch is pushed into.
+     */
+    private Deque<Integer> deque;
+
+    /**
+     * The {@code Deque} the batch is moved to.
+     */
+    private Deque<Integer> into;
+
+    /**
+     * The entries pushed, shared so that only deque overhead is measured.
+     */
+    private List<Integer> batch;
+
+    /**
+     * Creates the two empty {@code Deque}s and the batch.
+     */
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() {
+        try {
+            this.deque = (Deque<Integer>) Class
+                    .forName("components.deque." + this.impl)
+                    .getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(
+                    "Cannot construct Deque of type " + this.impl, e);
+        }
+        this.into = this.deque.newInstance();
+        Integer[] values = new Integer[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            values[i] = i;
+        }
+        this.batch = Arrays.asList(values);
+    }
+
+    /**
+     * Moves the batch one entry at a time.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void singleEntries() {
+        for (Integer x : this.batch) {
+            this.deque.pushBack(x);
+        }
+        for (int i = 0; i < BATCH; i++) {
+            this.into.pushBack(this.deque.popFront());
+        }
+        this.into.clear();
+    }
+
+    /**
+     * Moves the batch with the bulk operations.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void bulk() {
+        this.deque.pushAllBack(this.batch);
+        this.deque.popFront(BATCH, this.into);
+        this.into.clear();
+    }
+
+}
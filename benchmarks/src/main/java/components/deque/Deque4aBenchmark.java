@@ -0,0 +1,124 @@
+package components.deque;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark comparing the unrolled {@code Deque4a} with the node-per-entry
+ * {@code Deque4}, in ms per pass over {@code size} entries: filling and
+ * draining a new {@code Deque}, and iterating over a full one.
+ *
+ * <p>
+ * The GC profiler that {@code BenchmarkMain} always adds reports
+ * {@code gc.alloc.rate.norm} for {@code pushPop}, the bytes allocated per
+ * pass; since the entries are allocated in advance and each pass starts from
+ * a new {@code Deque}, divided by {@code size} that is about the heap each
+ * entry takes in the {@code Deque}.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar Deque4aBenchmark}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class Deque4aBenchmark {
+
+    /**
+     * Simple name of the {@code Deque} implementation, in package
+     * {@code components.deque}.
+     */
+    @Param({ "Deque4", "Deque4a" })
+    public String impl;
+
+    /**
+     * Number of entries.
+     */
+    @Param({ "1000000" })
+    public int size;
+
+    /**
+     * The entries, shared so that only deque overhead is measured.
+     */
+    private Integer[] values;
+
+    /**
+     * A {@code Deque} of type {@code impl} holding {@code values}.
+     */
+    private Deque<Integer> full;
+
+    /**
+     * Creates the entries and the full {@code Deque}.
+     */
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.values = new Integer[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.values[i] = i;
+        }
+        try {
+            this.full = (Deque<Integer>) Class
+                    .forName("components.deque." + this.impl)
+                    .getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(
+                    "Cannot construct Deque of type " + this.impl, e);
+        }
+        for (Integer x : this.values) {
+            this.full.pushBack(x);
+        }
+    }
+
+    /**
+     * Pushes every entry at the back of a new {@code Deque}, then pops them
+     * all from the front.
+     *
+     * @return checksum of the popped entries
+     */
+    @Benchmark
+    public long pushPop() {
+        Deque<Integer> d = this.full.newInstance();
+        for (Integer x : this.values) {
+            d.pushBack(x);
+        }
+        long sum = 0;
+        while (d.length() > 0) {
+            sum += d.popFront();
+        }
+        return sum;
+    }
+
+    /**
+     * Iterates over the full {@code Deque}.
+     *
+     * @return checksum of the entries
+     */
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (Integer x : this.full) {
+            sum += x;
+        }
+        return sum;
+    }
+
+}
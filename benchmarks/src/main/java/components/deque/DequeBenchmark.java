@@ -0,0 +1,248 @@
+package components.deque;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks comparing the {@code Deque} implementations over a range of
+ * sizes and workloads, in operations per ms.
+ *
+ * <p>
+ * Each queue, stack and alternating-ends operation pushes one entry and pops
+ * one, so the length stays at {@code size} throughout. The whole-deque
+ * operations ({@code flip}, {@code equals}, {@code toString} and iteration)
+ * take time proportional to {@code size} in most implementations. Any
+ * {@code StackOverflowError} is caught and counted in the
+ * {@code stackOverflows} column rather than ending the run.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar DequeBenchmark}, optionally
+ * restricted with, e.g., {@code -p impl=Deque4,Deque5 -p size=1000}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DequeBenchmark {
+
+    /**
+     * Simple name of the {@code Deque} implementation, in package
+     * {@code components.deque}.
+     */
+    @Param({ "Deque1L", "Deque2", "Deque3", "Deque4", "Deque4a", "Deque5" })
+    public String impl;
+
+    /**
+     * Number of entries in the {@code Deque}.
+     */
+    @Param({ "10", "1000", "100000", "10000000" })
+    public int size;
+
+    /**
+     * The {@code Deque} under test.
+     */
+    private Deque<Integer> deque;
+
+    /**
+     * A {@code Deque} of the same type, equal to {@code deque}.
+     */
+    private Deque<Integer> copy;
+
+    /**
+     * Entry pushed by the single-entry workloads.
+     */
+    private Integer entry;
+
+    /**
+     * Counts of failures, reported alongside the scores.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+
+        /**
+         * Number of {@code StackOverflowError}s caught.
+         */
+        public long stackOverflows;
+
+        /**
+         * Resets the counts before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.stackOverflows = 0;
+        }
+
+    }
+
+    /**
+     * Creates a new, empty {@code Deque} of type {@code impl}.
+     *
+     * @return the new {@code Deque}
+     */
+    @SuppressWarnings("unchecked")
+    private Deque<Integer> newDeque() {
+        try {
+            return (Deque<Integer>) Class
+                    .forName("components.deque." + this.impl)
+                    .getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(
+                    "Cannot construct Deque of type " + this.impl, e);
+        }
+    }
+
+    /**
+     * Creates {@code deque} and {@code copy}, each holding {@code size}
+     * entries.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.deque = this.newDeque();
+        this.copy = this.newDeque();
+        for (int i = 0; i < this.size; i++) {
+            this.deque.pushBack(i);
+            this.copy.pushBack(i);
+        }
+        this.entry = this.size;
+    }
+
+    /**
+     * Queue workload: push at the back, pop at the front.
+     *
+     * @return the entry popped
+     */
+    @Benchmark
+    public Integer queue() {
+        this.deque.pushBack(this.entry);
+        return this.deque.popFront();
+    }
+
+    /**
+     * Stack workload: push and pop at the back.
+     *
+     * @return the entry popped
+     */
+    @Benchmark
+    public Integer stack() {
+        this.deque.pushBack(this.entry);
+        return this.deque.popBack();
+    }
+
+    /**
+     * Alternating-ends workload: push at the front, pop at the back, then
+     * the reverse.
+     *
+     * @param bh
+     *            sink for the entries popped
+     */
+    @Benchmark
+    public void alternatingEnds(Blackhole bh) {
+        this.deque.pushFront(this.entry);
+        bh.consume(this.deque.popBack());
+        this.deque.pushBack(this.entry);
+        bh.consume(this.deque.popFront());
+    }
+
+    /**
+     * Peek workload: report the front and back.
+     *
+     * @param bh
+     *            sink for the entries reported
+     */
+    @Benchmark
+    public void peeks(Blackhole bh) {
+        bh.consume(this.deque.front());
+        bh.consume(this.deque.back());
+    }
+
+    /**
+     * Reverses the {@code Deque}.
+     *
+     * @param failures
+     *            counts of failures
+     */
+    @Benchmark
+    public void flip(Failures failures) {
+        try {
+            this.deque.flip();
+        } catch (StackOverflowError e) {
+            failures.stackOverflows++;
+        }
+    }
+
+    /**
+     * Compares the {@code Deque} with an equal one.
+     *
+     * @param failures
+     *            counts of failures
+     * @return whether they are equal
+     */
+    @Benchmark
+    public boolean equalsCopy(Failures failures) {
+        try {
+            return this.deque.equals(this.copy);
+        } catch (StackOverflowError e) {
+            failures.stackOverflows++;
+            return false;
+        }
+    }
+
+    /**
+     * Converts the {@code Deque} to a {@code String}.
+     *
+     * @param failures
+     *            counts of failures
+     * @return the {@code String}
+     */
+    @Benchmark
+    public String toString(Failures failures) {
+        try {
+            return this.deque.toString();
+        } catch (StackOverflowError e) {
+            failures.stackOverflows++;
+            return null;
+        }
+    }
+
+    /**
+     * Iterates over the {@code Deque}.
+     *
+     * @param failures
+     *            counts of failures
+     * @return a sum of the entries, so the loop is not optimized away
+     */
+    @Benchmark
+    public long iterate(Failures failures) {
+        long sum = 0;
+        try {
+            for (Integer x : this.deque) {
+                sum += x;
+            }
+        } catch (StackOverflowError e) {
+            failures.stackOverflows++;
+        }
+        return sum;
+    }
+
+}
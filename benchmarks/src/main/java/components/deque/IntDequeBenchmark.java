@@ -0,0 +1,85 @@
+package components.deque;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark comparing {@code IntDeque1} with {@code Deque4<Integer>} on a
+ * FIFO work-queue workload, in ms per round of pushing {@code size} ints at
+ * the back and popping them all from the front.
+ *
+ * <p>
+ * The GC profiler that {@code BenchmarkMain} always adds reports
+ * {@code gc.alloc.rate.norm}, the bytes allocated per round; divided by
+ * {@code size}, that is about the heap each entry takes while in the deque.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar IntDequeBenchmark}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IntDequeBenchmark {
+
+    /**
+     * Number of entries pushed per round.
+     */
+    @Param({ "1000000" })
+    public int size;
+
+    /**
+     * Pushes {@code size} ints at the back of a new {@code IntDeque1}, then
+     * pops them all from the front.
+     *
+     * @return checksum of the popped entries
+     */
+    @Benchmark
+    public long primitive() {
+        IntDeque d = new IntDeque1();
+        for (int i = 0; i < this.size; i++) {
+            d.pushBack(i);
+        }
+        long sum = 0;
+        while (d.length() > 0) {
+            sum += d.popFront();
+        }
+        return sum;
+    }
+
+    /**
+     * Pushes {@code size} boxed ints at the back of a new {@code Deque4},
+     * then pops them all from the front.
+     *
+     * @return checksum of the popped entries
+     */
+    @Benchmark
+    public long boxed() {
+        Deque<Integer> d = new Deque4<>();
+        for (int i = 0; i < this.size; i++) {
+            d.pushBack(i);
+        }
+        long sum = 0;
+        while (d.length() > 0) {
+            sum += d.popFront();
+        }
+        return sum;
+    }
+
+}
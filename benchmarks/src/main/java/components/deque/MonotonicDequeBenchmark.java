@@ -0,0 +1,140 @@
+package components.deque;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark comparing sliding-window minima computed with
+ * {@code MonotonicDeque} and {@code LongMonotonicDeque} against a naive rescan
+ * of the window after every sample, in ms per pass over {@code samples}
+ * random samples.
+ *
+ * <p>
+ * The naive rescan takes time proportional to {@code window} per sample, the
+ * deques amortized constant time, so the gap grows with {@code window}.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar MonotonicDequeBenchmark},
+ * optionally with, e.g., {@code -p window=100}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonotonicDequeBenchmark {
+
+    /**
+     * Number of samples in the window.
+     */
+    @Param({ "10", "1000" })
+    public int window;
+
+    /**
+     * Number of samples.
+     */
+    @Param({ "1000000" })
+    public int samples;
+
+    /**
+     * The samples.
+     */
+    private long[] values;
+
+    /**
+     * The samples, boxed in advance so that only the deque is measured.
+     */
+    private Long[] boxed;
+
+    /**
+     * Generates the samples.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(0);
+        this.values = new long[this.samples];
+        this.boxed = new Long[this.samples];
+        for (int i = 0; i < this.samples; i++) {
+            this.values[i] = rnd.nextInt();
+            this.boxed[i] = this.values[i];
+        }
+    }
+
+    /**
+     * Sums the sliding-window minima by rescanning the window after every
+     * sample.
+     *
+     * @return the sum of the minima
+     */
+    @Benchmark
+    public long naive() {
+        long sum = 0;
+        for (int i = 0; i < this.values.length; i++) {
+            long min = Long.MAX_VALUE;
+            for (int j = Math.max(0, i - this.window + 1); j <= i; j++) {
+                min = Math.min(min, this.values[j]);
+            }
+            sum += min;
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the sliding-window minima with a {@code MonotonicDeque}.
+     *
+     * @return the sum of the minima
+     */
+    @Benchmark
+    public long monotonic() {
+        MonotonicDeque<Long> d = new MonotonicDeque<>(
+                Comparator.naturalOrder());
+        long sum = 0;
+        for (Long x : this.boxed) {
+            d.offer(x);
+            if (d.length() > this.window) {
+                d.expireFront(1);
+            }
+            sum += d.currentExtreme();
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the sliding-window minima with a {@code LongMonotonicDeque}.
+     *
+     * @return the sum of the minima
+     */
+    @Benchmark
+    public long primitive() {
+        LongMonotonicDeque d = new LongMonotonicDeque(false);
+        long sum = 0;
+        for (long x : this.values) {
+            d.offer(x);
+            if (d.length() > this.window) {
+                d.expireFront(1);
+            }
+            sum += d.currentExtreme();
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,167 @@
+package components.deque;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.codec.RecordCodec;
+
+/**
+ * JMH benchmark comparing {@code OffHeapDeque} with {@code Deque4} holding
+ * 16-byte records, in ms per pass of filling a {@code Deque} with
+ * {@code size} entries and draining it.
+ *
+ * <p>
+ * The GC profiler that {@code BenchmarkMain} always adds reports the time
+ * spent in garbage collection ({@code gc.time}) and the heap allocated per
+ * pass ({@code gc.alloc.rate.norm}). {@code Deque4} keeps every entry and its
+ * node on the heap while full; {@code OffHeapDeque} keeps only encodings, in
+ * direct memory, and allocates an entry again when it is popped. The same
+ * two {@code Deque}s are used for the whole trial, so {@code OffHeapDeque}
+ * reuses the chunks it keeps in its pool.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar OffHeapBenchmark}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g",
+        "-XX:MaxDirectMemorySize=1g" })
+public class OffHeapBenchmark {
+
+    /**
+     * Number of entries.
+     */
+    @Param({ "10000000" })
+    public int size;
+
+    /**
+     * Entry type: an immutable pair of longs, such as a key and a timestamp.
+     */
+    private static final class Pair {
+
+        /**
+         * First half.
+         */
+        private final long key;
+
+        /**
+         * Second half.
+         */
+        private final long value;
+
+        /**
+         * Constructor from halves.
+         *
+         * @param key
+         *            first half
+         * @param value
+         *            second half
+         */
+        private Pair(long key, long value) {
+            this.key = key;
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * {@code RecordCodec} for {@code Pair}, in 16 bytes.
+     */
+    private static final class PairCodec implements RecordCodec<Pair> {
+
+        @Override
+        public int recordSize() {
+            return 2 * Long.BYTES;
+        }
+
+        @Override
+        public void encode(Pair x, ByteBuffer out) {
+            out.putLong(x.key);
+            out.putLong(x.value);
+        }
+
+        @Override
+        public Pair decode(ByteBuffer in) {
+            return new Pair(in.getLong(), in.getLong());
+        }
+
+    }
+
+    /**
+     * The {@code Deque4} under test.
+     */
+    private Deque<Pair> onHeapDeque;
+
+    /**
+     * The {@code OffHeapDeque} under test.
+     */
+    private Deque<Pair> offHeapDeque;
+
+    /**
+     * Creates the two empty {@code Deque}s.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.onHeapDeque = new Deque4<Pair>();
+        this.offHeapDeque = new OffHeapDeque<Pair>(new PairCodec());
+    }
+
+    /**
+     * Fills {@code d} with {@code size} entries, then drains it.
+     *
+     * @param d
+     *            the deque, empty
+     * @return checksum of the popped entries
+     */
+    private long fillAndDrain(Deque<Pair> d) {
+        for (int i = 0; i < this.size; i++) {
+            d.pushBack(new Pair(i, -i));
+        }
+        long sum = 0;
+        while (d.length() > 0) {
+            sum += d.popFront().value;
+        }
+        return sum;
+    }
+
+    /**
+     * Fills and drains the {@code Deque4}.
+     *
+     * @return checksum of the popped entries
+     */
+    @Benchmark
+    public long onHeap() {
+        return this.fillAndDrain(this.onHeapDeque);
+    }
+
+    /**
+     * Fills and drains the {@code OffHeapDeque}.
+     *
+     * @return checksum of the popped entries
+     */
+    @Benchmark
+    public long offHeap() {
+        return this.fillAndDrain(this.offHeapDeque);
+    }
+
+}
@@ -0,0 +1,138 @@
+package components.deque;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark comparing sequential and parallel map/reduce over the streams
+ * of {@code Deque4}, {@code Deque5} and {@code IntDeque1}, in ms per pass over
+ * {@code size} entries.
+ *
+ * <p>
+ * Each pass maps every entry through a cheap hash and sums the results, so
+ * the score reflects how well the spliterator of {@code impl} splits:
+ * {@code Deque5} and {@code IntDeque1} split by index, {@code Deque4} by
+ * walking to the middle node. The parallel passes run in the common pool, so
+ * their speedup is bounded by the number of cores.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar StreamBenchmark}, optionally
+ * restricted with, e.g., {@code -p impl=Deque5 -p size=1000000}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StreamBenchmark {
+
+    /**
+     * Simple name of the implementation, in package {@code components.deque}:
+     * {@code IntDeque1}, or a {@code Deque} of {@code Integer}s.
+     */
+    @Param({ "Deque4", "Deque5", "IntDeque1" })
+    public String impl;
+
+    /**
+     * Number of entries.
+     */
+    @Param({ "1000000", "10000000" })
+    public int size;
+
+    /**
+     * The {@code Deque} under test, or null if {@code impl} is
+     * {@code IntDeque1}.
+     */
+    private Deque<Integer> deque;
+
+    /**
+     * The {@code IntDeque} under test, or null if {@code impl} is not
+     * {@code IntDeque1}.
+     */
+    private IntDeque ints;
+
+    /**
+     * Maps an entry to the value summed by the benchmark; cheap, but not so
+     * cheap that the stream overhead is all that is measured.
+     *
+     * @param x
+     *            the entry
+     * @return the mapped value
+     */
+    private static long work(int x) {
+        long h = x * 0x9E3779B97F4A7C15L;
+        return (h ^ (h >>> 29)) & 0xFF;
+    }
+
+    /**
+     * Creates the deque of type {@code impl}, holding {@code size} entries.
+     */
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (this.impl.equals("IntDeque1")) {
+            this.ints = new IntDeque1();
+            for (int i = 0; i < this.size; i++) {
+                this.ints.pushBack(i);
+            }
+        } else {
+            try {
+                this.deque = (Deque<Integer>) Class
+                        .forName("components.deque." + this.impl)
+                        .getConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException(
+                        "Cannot construct Deque of type " + this.impl, e);
+            }
+            for (int i = 0; i < this.size; i++) {
+                this.deque.pushBack(i);
+            }
+        }
+    }
+
+    /**
+     * Map/reduce over the sequential stream.
+     *
+     * @return the sum of the mapped entries
+     */
+    @Benchmark
+    public long sequential() {
+        if (this.ints != null) {
+            return this.ints.stream().mapToLong(StreamBenchmark::work).sum();
+        }
+        return this.deque.stream().mapToLong(StreamBenchmark::work).sum();
+    }
+
+    /**
+     * Map/reduce over the parallel stream.
+     *
+     * @return the sum of the mapped entries
+     */
+    @Benchmark
+    public long parallel() {
+        if (this.ints != null) {
+            return this.ints.parallelStream().mapToLong(StreamBenchmark::work)
+                    .sum();
+        }
+        return this.deque.parallelStream().mapToLong(StreamBenchmark::work)
+                .sum();
+    }
+
+}
@@ -0,0 +1,168 @@
+package components.deque;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH scaling benchmark for {@code WorkStealingDeque}, in ms per run of
+ * {@code tasks} tasks: the benchmark thread, as owner, pushes batches of tasks
+ * and pops them from the back while {@code thieves} other threads steal from
+ * the front.
+ *
+ * <p>
+ * The {@code stolen} column is the number of tasks the thieves ran, per
+ * iteration; divide by the number of runs for the share stolen. Starting the
+ * thieves is timed too, but is small next to a run. Thieves beyond the number
+ * of cores only add contention.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar WorkStealingDequeBenchmark},
+ * optionally with, e.g., {@code -p thieves=0,1,3}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkStealingDequeBenchmark {
+
+    /**
+     * Amount of simulated work per task.
+     */
+    private static final int WORK = 200;
+
+    /**
+     * Number of tasks the owner pushes before working through them.
+     */
+    private static final int BATCH = 1024;
+
+    /**
+     * Number of thief threads.
+     */
+    @Param({ "0", "1", "3", "7" })
+    public int thieves;
+
+    /**
+     * Number of tasks per run.
+     */
+    @Param({ "1000000" })
+    public int tasks;
+
+    /**
+     * Counts of tasks stolen, reported alongside the scores.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Steals {
+
+        /**
+         * Number of tasks run by thieves.
+         */
+        public long stolen;
+
+        /**
+         * Resets the count before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.stolen = 0;
+        }
+
+    }
+
+    /**
+     * Simulates running a task.
+     *
+     * @param task
+     *            the task
+     * @return a value depending on all of the work done
+     */
+    private static long run(int task) {
+        long h = task;
+        for (int i = 0; i < WORK; i++) {
+            h = h * 31 + i;
+        }
+        return h;
+    }
+
+    /**
+     * Runs {@code tasks} tasks through a new {@code WorkStealingDeque} with
+     * {@code thieves} thieves.
+     *
+     * @param steals
+     *            counts of tasks stolen
+     * @return a value depending on all of the work done
+     * @throws InterruptedException
+     *             if interrupted while waiting for thieves
+     */
+    @Benchmark
+    public long runTasks(Steals steals) throws InterruptedException {
+        final WorkStealingDeque<Integer> d = new WorkStealingDeque<>();
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicLong stolen = new AtomicLong();
+        final AtomicLong sink = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < this.thieves; t++) {
+            Thread thief = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    long local = 0;
+                    long count = 0;
+                    while (!done.get() || d.length() > 0) {
+                        Integer x = d.steal();
+                        if (x != null) {
+                            local += WorkStealingDequeBenchmark.run(x);
+                            count++;
+                        }
+                    }
+                    sink.addAndGet(local);
+                    stolen.addAndGet(count);
+                }
+            });
+            threads.add(thief);
+            thief.start();
+        }
+
+        long local = 0;
+        for (int i = 0; i < this.tasks; i += BATCH) {
+            //Owner spawns a batch of tasks, then works through it LIFO
+            for (int j = i; j < Math.min(i + BATCH, this.tasks); j++) {
+                d.pushBack(j);
+            }
+            Integer x = d.popBack();
+            while (x != null) {
+                local += run(x);
+                x = d.popBack();
+            }
+        }
+        done.set(true);
+        for (Thread thief : threads) {
+            thief.join();
+        }
+        steals.stolen += stolen.get();
+        return local + sink.get();
+    }
+
+}
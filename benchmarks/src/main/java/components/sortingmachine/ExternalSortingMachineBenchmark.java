@@ -0,0 +1,126 @@
+package components.sortingmachine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.codec.LongCodec;
+
+/**
+ * JMH benchmark of the throughput of {@code ExternalSortingMachine}: sorts
+ * per second of {@code size} random {@code Long}s, each sort adding the
+ * entries, changing to extraction mode and removing them all. Multiply the
+ * score by {@code size} for entries per second.
+ *
+ * <p>
+ * {@code budget} is the memory budget in bytes of encodings (8 per entry), so
+ * the number of runs spilled is about 8 * {@code size} / {@code budget}; with
+ * the largest budget nothing is spilled, which gives the in-memory baseline.
+ * Runs are written to a directory created in {@code java.io.tmpdir} for the
+ * trial, so that file system is what is measured.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ * {@code java -jar target/benchmarks.jar ExternalSortingMachineBenchmark},
+ * optionally with, e.g., {@code -p budget=65536,1048576}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExternalSortingMachineBenchmark {
+
+    /**
+     * Number of entries sorted.
+     */
+    @Param({ "1000000" })
+    public int size;
+
+    /**
+     * Memory budget, in bytes of encodings.
+     */
+    @Param({ "65536", "1048576", "16777216", "1073741824" })
+    public long budget;
+
+    /**
+     * Directory for the run files.
+     */
+    private Path tempDir;
+
+    /**
+     * The entries, in random order.
+     */
+    private Long[] entries;
+
+    /**
+     * Creates the directory and generates the entries.
+     *
+     * @throws IOException
+     *             if the directory cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.tempDir = Files.createTempDirectory("runs");
+        Random rnd = new Random(this.size);
+        this.entries = new Long[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.entries[i] = rnd.nextLong();
+        }
+    }
+
+    /**
+     * Deletes the directory, which the sorts leave empty.
+     *
+     * @throws IOException
+     *             if the directory cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(this.tempDir);
+    }
+
+    /**
+     * Sorts the entries with a new {@code ExternalSortingMachine}.
+     *
+     * @return a checksum of the order of the entries removed
+     */
+    @Benchmark
+    public long sort() {
+        SortingMachine<Long> m = new ExternalSortingMachine<Long>(
+                Comparator.<Long> naturalOrder(), new LongCodec(),
+                this.tempDir, this.budget);
+        for (Long x : this.entries) {
+            m.add(x);
+        }
+        m.changeToExtractionMode();
+        long checksum = 0;
+        while (m.size() > 0) {
+            checksum = 31 * checksum + m.removeFirst();
+        }
+        return checksum;
+    }
+
+}
@@ -0,0 +1,127 @@
+package components.sortingmachine;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of how {@code ParallelSortingMachine.changeToExtractionMode}
+ * scales with the number of worker threads, in ms per sort of {@code size}
+ * random {@code Integer}s.
+ *
+ * <p>
+ * Each sort runs in a {@code ForkJoinPool} of {@code parallelism} threads;
+ * {@code parallelism} beyond the number of cores only adds overhead. The
+ * machine is refilled before every sort, outside the timed region, which JMH
+ * does accurately here since each sort takes many ms.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ * {@code java -jar target/benchmarks.jar ParallelSortingMachineBenchmark},
+ * optionally with, e.g., {@code -p parallelism=1,2,4,8,16}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelSortingMachineBenchmark {
+
+    /**
+     * Number of worker threads in the pool.
+     */
+    @Param({ "1", "2", "4", "8" })
+    public int parallelism;
+
+    /**
+     * Number of entries sorted.
+     */
+    @Param({ "1000000", "10000000" })
+    public int size;
+
+    /**
+     * Largest piece sorted sequentially.
+     */
+    @Param({ "8192" })
+    public int cutoff;
+
+    /**
+     * The pool that runs the sorts.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The entries, in random order.
+     */
+    private Integer[] entries;
+
+    /**
+     * The machine, filled and in insertion mode before each sort.
+     */
+    private SortingMachine<Integer> machine;
+
+    /**
+     * Creates the pool and generates the entries.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.pool = new ForkJoinPool(this.parallelism);
+        Random rnd = new Random(this.size);
+        this.entries = new Integer[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.entries[i] = rnd.nextInt();
+        }
+    }
+
+    /**
+     * Shuts the pool down.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Creates a new machine holding the entries.
+     */
+    @Setup(Level.Invocation)
+    public void fill() {
+        this.machine = new ParallelSortingMachine<Integer>(
+                Comparator.<Integer> naturalOrder(), this.pool, this.cutoff);
+        for (Integer x : this.entries) {
+            this.machine.add(x);
+        }
+    }
+
+    /**
+     * Sorts the entries.
+     *
+     * @return the machine, so the sort is not optimized away
+     */
+    @Benchmark
+    public SortingMachine<Integer> changeToExtractionMode() {
+        this.machine.changeToExtractionMode();
+        return this.machine;
+    }
+
+}
@@ -0,0 +1,145 @@
+package components.sortingmachine;
+
+import java.lang.reflect.Constructor;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark comparing the {@code SortingMachine} implementations: the
+ * time to add {@code size} entries, change to extraction mode, and remove
+ * them all, in ms per sort.
+ *
+ * <p>
+ * The entries are {@code Integer}s in random order, already sorted, or
+ * sorted with 1% of them moved to random places ({@code nearlySorted}).
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar SortingMachineBenchmark},
+ * optionally restricted with, e.g.,
+ * {@code -p impl=SortingMachine6,SortingMachine8 -p size=10000}.
+ * </p>
+ *
+ * @author Zach Baruch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SortingMachineBenchmark {
+
+    /**
+     * Simple name of the {@code SortingMachine} implementation, in package
+     * {@code components.sortingmachine}; {@code SortingMachine1L} is the one
+     * in {@code components.jar}.
+     */
+    @Param({ "SortingMachine1L", "SortingMachine6", "SortingMachine7b",
+            "SortingMachine8", "SortingMachine9", "ParallelSortingMachine" })
+    public String impl;
+
+    /**
+     * Number of entries sorted.
+     */
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    /**
+     * Order of the entries as added.
+     */
+    @Param({ "random", "sorted", "nearlySorted" })
+    public String input;
+
+    /**
+     * Constructor of {@code impl}.
+     */
+    private Constructor<?> constructor;
+
+    /**
+     * The entries, in the order added.
+     */
+    private Integer[] entries;
+
+    /**
+     * Finds the constructor and generates the entries.
+     *
+     * @throws ReflectiveOperationException
+     *             if {@code impl} does not name a {@code SortingMachine}
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        this.constructor = Class
+                .forName("components.sortingmachine." + this.impl)
+                .getConstructor(Comparator.class);
+        Random rnd = new Random(this.size);
+        this.entries = new Integer[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.entries[i] = i;
+        }
+        if (this.input.equals("random")) {
+            for (int i = this.size - 1; i > 0; i--) {
+                swap(this.entries, i, rnd.nextInt(i + 1));
+            }
+        } else if (this.input.equals("nearlySorted")) {
+            for (int k = 0; k < this.size / 100; k++) {
+                swap(this.entries, rnd.nextInt(this.size),
+                        rnd.nextInt(this.size));
+            }
+        }
+    }
+
+    /**
+     * Swaps two elements of {@code a}.
+     *
+     * @param a
+     *            the array
+     * @param i
+     *            position of one element
+     * @param j
+     *            position of the other
+     */
+    private static void swap(Integer[] a, int i, int j) {
+        Integer tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    /**
+     * Sorts the entries with a new {@code SortingMachine}.
+     *
+     * @return a checksum of the order of the entries removed
+     * @throws ReflectiveOperationException
+     *             if {@code impl} cannot be constructed
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public long sort() throws ReflectiveOperationException {
+        SortingMachine<Integer> m = (SortingMachine<Integer>) this.constructor
+                .newInstance(Comparator.<Integer> naturalOrder());
+        for (Integer x : this.entries) {
+            m.add(x);
+        }
+        m.changeToExtractionMode();
+        long checksum = 0;
+        while (m.size() > 0) {
+            checksum = 31 * checksum + m.removeFirst();
+        }
+        return checksum;
+    }
+
+}